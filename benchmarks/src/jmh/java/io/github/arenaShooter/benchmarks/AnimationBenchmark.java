@@ -0,0 +1,54 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import io.github.arenaShooter.AnimationCatalog;
+import io.github.arenaShooter.EnemyArchetype;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Picking the walk frame of every enemy, through a libGDX Animation per enemy or the shared catalog. */
+@State(Scope.Thread)
+public class AnimationBenchmark {
+    @Param({"1000", "10000"})
+    public int enemies;
+
+    private float[] stateTime;
+    private Animation<TextureRegion>[] animations;
+    private final AnimationCatalog catalog = new AnimationCatalog();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        EnemyArchetype skeleton = EnemyArchetype.SKELETON;
+        TextureRegion[] frames = new TextureRegion[skeleton.walkFrames];
+        for (int i = 0; i < frames.length; i++) frames[i] = new TextureRegion();
+        catalog.set(skeleton, AnimationCatalog.WALK, frames);
+
+        MathUtils.random.setSeed(7);
+        stateTime = new float[enemies];
+        animations = (Animation<TextureRegion>[]) new Animation<?>[enemies];
+        for (int i = 0; i < enemies; i++) {
+            stateTime[i] = MathUtils.random(10f);
+            animations[i] = new Animation<>(skeleton.walkFrameDuration, frames);
+            animations[i].setPlayMode(Animation.PlayMode.LOOP);
+        }
+    }
+
+    @Benchmark
+    public void animationPerEnemy(Blackhole blackhole) {
+        for (int i = 0; i < enemies; i++) blackhole.consume(animations[i].getKeyFrame(stateTime[i]));
+    }
+
+    @Benchmark
+    public void catalog(Blackhole blackhole) {
+        for (int i = 0; i < enemies; i++) {
+            blackhole.consume(catalog.frame(EnemyArchetype.SKELETON.id, AnimationCatalog.WALK, stateTime[i]));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.arenaShooter.Enemy;
+import io.github.arenaShooter.SpatialGrid;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Every entity asks what it overlaps: spatial grid against the brute-force pair loop. */
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int entityCount;
+
+    private float[] x, y;
+    private SpatialGrid grid;
+    private final IntArray found = new IntArray();
+
+    @Setup
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        x = new float[entityCount];
+        y = new float[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            x[i] = World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE;
+            y[i] = World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE;
+        }
+        grid = new SpatialGrid(World.AREA_OFFSET_X, World.AREA_OFFSET_Y,
+            World.PLAYABLE_AREA_SIZE, World.PLAYABLE_AREA_SIZE, Enemy.SIZE);
+    }
+
+    @Benchmark
+    public int grid() {
+        grid.clear();
+        for (int i = 0; i < entityCount; i++) {
+            grid.insert(i, x[i], y[i], Enemy.SIZE, Enemy.SIZE);
+        }
+
+        int pairs = 0;
+        for (int i = 0; i < entityCount; i++) {
+            found.clear();
+            pairs += grid.query(x[i], y[i], Enemy.SIZE, Enemy.SIZE, found);
+        }
+        return pairs;
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        //quadratic, expect it to fall off a cliff at 100k
+        int pairs = 0;
+        for (int i = 0; i < entityCount; i++) {
+            for (int j = 0; j < entityCount; j++) {
+                if (x[j] < x[i] + Enemy.SIZE && x[i] < x[j] + Enemy.SIZE
+                    && y[j] < y[i] + Enemy.SIZE && y[i] < y[j] + Enemy.SIZE) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+}
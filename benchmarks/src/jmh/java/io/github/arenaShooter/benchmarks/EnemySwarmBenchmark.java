@@ -0,0 +1,44 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.EnemyArchetype;
+import io.github.arenaShooter.EnemySwarm;
+import io.github.arenaShooter.Projectiles;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** One tick of the batched struct-of-arrays AI kernel, compare with EnemyUpdateBenchmark. */
+@State(Scope.Thread)
+public class EnemySwarmBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int enemyCount;
+
+    private EnemySwarm swarm;
+    private Projectiles projectiles;
+    private float playerX = 750, playerY = 750;
+
+    @Setup
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        swarm = new EnemySwarm(enemyCount);
+        for (int i = 0; i < enemyCount; i++) {
+            swarm.spawn(
+                World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                EnemyArchetype.SKELETON);
+        }
+        projectiles = new Projectiles(enemyCount);
+    }
+
+    @Benchmark
+    public Projectiles update() {
+        projectiles.clear();
+        swarm.update(SimulationClock.DEFAULT_STEP, playerX, playerY, projectiles);
+        return projectiles;
+    }
+}
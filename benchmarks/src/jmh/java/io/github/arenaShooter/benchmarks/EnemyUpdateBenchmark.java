@@ -0,0 +1,68 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.Enemy;
+import io.github.arenaShooter.EnemyTick;
+import io.github.arenaShooter.Projectiles;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.Steering;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One tick of Enemy.update over the whole population, walking straight at the player or steered by the
+ * flow field and separation. Steered time per enemy should stay about the same from 10 to 100000 enemies.
+ */
+@State(Scope.Thread)
+public class EnemyUpdateBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int enemyCount;
+
+    private Enemy[] enemies;
+    private Projectiles projectiles;
+    private World world;
+    private Steering steering;
+    private final EnemyTick tick = new EnemyTick();
+    private float playerX = 750, playerY = 750;
+
+    @Setup
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        //spawned through a world, steering prepares from its list, in which enemy i is enemies[i]
+        world = new World(42);
+        enemies = new Enemy[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            enemies[i] = world.spawnEnemy(
+                World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE);
+        }
+        projectiles = new Projectiles(enemyCount);
+        steering = new Steering();
+    }
+
+    @Benchmark
+    public Projectiles update() {
+        //bullets are not under test here, keep the store from growing
+        projectiles.clear();
+        tick.begin(SimulationClock.DEFAULT_STEP, projectiles, null).setTarget(playerX, playerY).setSteering(null);
+        for (int i = 0; i < enemies.length; i++) {
+            enemies[i].update(tick, i);
+        }
+        return projectiles;
+    }
+
+    @Benchmark
+    public Projectiles steered() {
+        projectiles.clear();
+        steering.prepare(world);
+        tick.begin(SimulationClock.DEFAULT_STEP, projectiles, null).setTarget(playerX, playerY).setSteering(steering);
+        for (int i = 0; i < enemies.length; i++) {
+            enemies[i].update(tick, i);
+        }
+        return projectiles;
+    }
+}
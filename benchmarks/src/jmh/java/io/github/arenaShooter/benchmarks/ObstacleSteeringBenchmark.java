@@ -0,0 +1,89 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.Enemy;
+import io.github.arenaShooter.EnemyTick;
+import io.github.arenaShooter.FlowField;
+import io.github.arenaShooter.Projectiles;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.Steering;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One steered tick over the whole population with walls in the arena, so enemies out of sight of the player
+ * follow the flow field. With the player standing still the field is built once and time per enemy should be
+ * the same at 10 and 10000 enemies; with the player changing cells every tick the field is rebuilt each time,
+ * a fixed cost on top that does not grow with the enemies.
+ */
+@State(Scope.Thread)
+public class ObstacleSteeringBenchmark {
+    @Param({"10", "10000"})
+    public int enemyCount;
+
+    private Enemy[] enemies;
+    private Projectiles projectiles;
+    private World world;
+    private Steering steering;
+    private final EnemyTick tick = new EnemyTick();
+    private final float playerX = 750, playerY = 750;
+    private boolean moved;
+
+    @Setup
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        world = new World(42);
+        world.removePlayer(0);
+        world.addPlayer(playerX, playerY);
+        enemies = new Enemy[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            enemies[i] = world.spawnEnemy(
+                World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE);
+        }
+        projectiles = new Projectiles(enemyCount);
+        steering = new Steering();
+        //a box around the player open to the right, and bars across the rest of the arena
+        FlowField field = steering.getField();
+        float cell = field.getCellSize();
+        field.setBlocked(playerX - 4 * cell, playerY + 3 * cell, 8 * cell, cell, true);
+        field.setBlocked(playerX - 4 * cell, playerY - 4 * cell, 8 * cell, cell, true);
+        field.setBlocked(playerX - 4 * cell, playerY - 4 * cell, cell, 8 * cell, true);
+        for (int bar = 0; bar < 4; bar++) {
+            float y = World.AREA_OFFSET_Y + (bar * 5 + 1) * cell;
+            field.setBlocked(World.AREA_OFFSET_X + bar % 2 * 4 * cell, y, World.PLAYABLE_AREA_SIZE - 4 * cell, cell, true);
+        }
+        steering.prepare(world);
+    }
+
+    @Benchmark
+    public Projectiles steered() {
+        projectiles.clear();
+        steering.prepare(world);
+        tick.begin(SimulationClock.DEFAULT_STEP, projectiles, null).setTarget(playerX, playerY).setSteering(steering);
+        for (int i = 0; i < enemies.length; i++) {
+            enemies[i].update(tick, i);
+        }
+        return projectiles;
+    }
+
+    @Benchmark
+    public Projectiles rebuilt() {
+        //back and forth between two cells, the field is rebuilt on every prepare
+        moved = !moved;
+        float x = moved ? playerX + steering.getField().getCellSize() : playerX;
+        world.removePlayer(0);
+        world.addPlayer(x, playerY);
+        projectiles.clear();
+        steering.prepare(world);
+        tick.begin(SimulationClock.DEFAULT_STEP, projectiles, null).setTarget(x, playerY).setSteering(steering);
+        for (int i = 0; i < enemies.length; i++) {
+            enemies[i].update(tick, i);
+        }
+        return projectiles;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.ProjectileCollisions;
+import io.github.arenaShooter.Projectiles;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** One tick of swept bullet-versus-player tests, bullets spread over the arena flying every way. */
+@State(Scope.Thread)
+public class ProjectileCollisionBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int bulletCount;
+
+    @Param({"1", "8"})
+    public int playerCount;
+
+    private final Projectiles bullets = new Projectiles();
+    private final ProjectileCollisions collisions = new ProjectileCollisions();
+    private float[] playerX, playerY;
+
+    @Setup
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        bullets.clear();
+        for (int i = 0; i < bulletCount; i++) {
+            float angle = random.nextFloat() * MathUtils.PI2;
+            bullets.spawn(World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                MathUtils.cos(angle), MathUtils.sin(angle));
+        }
+        playerX = new float[playerCount];
+        playerY = new float[playerCount];
+        for (int slot = 0; slot < playerCount; slot++) {
+            playerX[slot] = World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE;
+            playerY[slot] = World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE;
+        }
+    }
+
+    @Benchmark
+    public int detect() {
+        collisions.clearTargets();
+        float move = World.PLAYER_SPEED * SimulationClock.DEFAULT_STEP;
+        for (int slot = 0; slot < playerCount; slot++) {
+            collisions.addTarget(slot, playerX[slot] - World.PLAYER_SIZE / 2, playerY[slot] - World.PLAYER_SIZE / 2,
+                World.PLAYER_SIZE, World.PLAYER_SIZE, move, 0f);
+        }
+        return collisions.detect(bullets, SimulationClock.DEFAULT_STEP);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.Projectiles;
+import io.github.arenaShooter.SimulationClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** One tick of bullet integration, what Bullet.update used to do per object. */
+@State(Scope.Thread)
+public class ProjectileUpdateBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int bulletCount;
+
+    private Projectiles projectiles;
+
+    @Setup
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        projectiles = new Projectiles(bulletCount);
+        for (int i = 0; i < bulletCount; i++) {
+            float angle = random.nextFloat() * MathUtils.PI2;
+            //never expire, so every invocation sees the same population
+            projectiles.spawn(random.nextFloat() * 1500, random.nextFloat() * 1500,
+                MathUtils.cos(angle), MathUtils.sin(angle),
+                Projectiles.DEFAULT_SPEED, Projectiles.DEFAULT_ROTATION_SPEED, Float.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public Projectiles update() {
+        projectiles.update(SimulationClock.DEFAULT_STEP);
+        return projectiles;
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.Enemy;
+import io.github.arenaShooter.EnemyTick;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** A world tick in which every tenth enemy has finished dying and gets removed. */
+@State(Scope.Thread)
+public class RemovalBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int enemyCount;
+
+    private World world;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        RandomXS128 random = new RandomXS128(42);
+        world = new World();
+        EnemyTick finish = new EnemyTick();
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy enemy = world.spawnEnemy(
+                World.AREA_OFFSET_X + random.nextFloat() * World.PLAYABLE_AREA_SIZE,
+                World.AREA_OFFSET_Y + random.nextFloat() * World.PLAYABLE_AREA_SIZE);
+            if (i % 10 == 0) {
+                enemy.kill();
+                finish.begin(enemy.getArchetype().getDeathDuration() + 1f, world.getProjectiles(), null);
+                enemy.update(finish, i);
+            }
+        }
+    }
+
+    @Benchmark
+    public World tick() {
+        world.tick(SimulationClock.DEFAULT_STEP, 0);
+        return world;
+    }
+}
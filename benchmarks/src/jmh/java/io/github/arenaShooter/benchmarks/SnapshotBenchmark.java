@@ -0,0 +1,89 @@
+package io.github.arenaShooter.benchmarks;
+
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.Snapshot;
+import io.github.arenaShooter.SnapshotCodec;
+import io.github.arenaShooter.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Capturing, encoding and restoring a world with thousands of enemies. The delta is one tick against the
+ * previous one, the usual case for replication. Encoded sizes are printed once per trial.
+ */
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+    @Param({"1000", "10000"})
+    public int enemyCount;
+
+    private World world;
+    private final Snapshot base = new Snapshot();
+    private final Snapshot current = new Snapshot();
+    private final Snapshot decoded = new Snapshot();
+    private ByteBuffer full;
+    private ByteBuffer delta;
+    private ByteBuffer out;
+
+    @Setup
+    public void setup() {
+        world = new World(42);
+        for (int i = 0; i < enemyCount; i++) {
+            world.spawnEnemy(
+                World.AREA_OFFSET_X + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64),
+                World.AREA_OFFSET_Y + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64));
+        }
+        //let the swarm spread into walking, attacking and shooting before measuring
+        for (int i = 0; i < 120; i++) world.tick(SimulationClock.DEFAULT_STEP, 0);
+
+        world.saveState(base);
+        world.tick(SimulationClock.DEFAULT_STEP, 0);
+        world.saveState(current);
+
+        full = ByteBuffer.allocate(SnapshotCodec.maxSize(current));
+        delta = ByteBuffer.allocate(SnapshotCodec.maxSize(current));
+        out = ByteBuffer.allocate(SnapshotCodec.maxSize(current));
+        SnapshotCodec.writeFull(current, full);
+        full.flip();
+        SnapshotCodec.writeDelta(base, current, delta);
+        delta.flip();
+
+        System.out.printf("%n%d enemies, %d bullets: full %d bytes (%.1f per enemy), delta %d bytes (%.1f per enemy)%n",
+            current.getEnemyCount(), current.getProjectileCount(),
+            full.limit(), full.limit() / (float) current.getEnemyCount(),
+            delta.limit(), delta.limit() / (float) current.getEnemyCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public ByteBuffer captureFull() {
+        world.saveState(current);
+        out.clear();
+        SnapshotCodec.writeFull(current, out);
+        return out;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeDelta() {
+        out.clear();
+        SnapshotCodec.writeDelta(base, current, out);
+        return out;
+    }
+
+    @Benchmark
+    public World decodeDeltaAndRestore() {
+        delta.rewind();
+        SnapshotCodec.read(delta, base, decoded);
+        world.loadState(decoded);
+        return world;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.arenaShooter.benchmarks;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import io.github.arenaShooter.TileChunks;
+import io.github.arenaShooter.TileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+
+/** A 1080p view scrolling across memory mapped maps of growing size; streaming cost and memory should stay flat. */
+@State(Scope.Thread)
+public class TileMapBenchmark {
+    private static final int TILE_SIZE = 100;
+    private static final int CHUNK_SIZE = 16;
+
+    @Param({"64", "1024", "8192"})
+    public int mapTiles;
+
+    private File file;
+    private TileMap map;
+    private TileChunks chunks;
+    private final Rectangle view = new Rectangle(0, 0, 1920, 1080);
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("arena", ".tmap");
+        TileMap.write(new FileHandle(file), TILE_SIZE, CHUNK_SIZE, mapTiles, mapTiles,
+            (column, row) -> (column + row) & 255);
+        map = TileMap.open(new FileHandle(file));
+        chunks = new TileChunks(map, 36);
+    }
+
+    @TearDown
+    public void tearDown() {
+        map.dispose();
+        file.delete();
+    }
+
+    @Benchmark
+    public long scroll() {
+        //one step per frame, diagonally, wrapping at the edge of the map
+        view.x = (view.x + 7) % Math.max(1f, map.getWidth() - view.width);
+        view.y = (view.y + 5) % Math.max(1f, map.getHeight() - view.height);
+        chunks.stream(view);
+        return chunks.getLoads();
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The frames of every archetype's walk, attack and death clips, resolved once per atlas and shared by all
+ * renderers. An enemy's animation state is its archetype id and state time, nothing else: {@link #frame}
+ * turns those into a region with one table lookup.
+ *
+ * Each clip has a table of frame indices sampled {@link #SAMPLES_PER_SECOND} times a second, one loop for
+ * looping clips and the whole clip for the others, which then hold their last frame. The sample rate divides
+ * the frame durations of the archetypes, so frames change on the same ticks as with an Animation.
+ */
+public class AnimationCatalog {
+    public static final int WALK = 0;
+    public static final int ATTACK = 1;
+    public static final int DEATH = 2;
+    public static final int CLIPS = 3;
+    public static final float SAMPLES_PER_SECOND = 240f;
+
+    //[archetype][clip], null until the clip's atlas is loaded
+    private final TextureRegion[][][] frames = new TextureRegion[EnemyArchetype.count()][CLIPS][];
+    private final byte[][][] tables = new byte[EnemyArchetype.count()][CLIPS][];
+    private final boolean[] loaded = new boolean[CLIPS];
+
+    /**
+     * Takes the clip's frames of every archetype from the atlas. The atlas regions are indexed by name in
+     * one pass, so this costs the same however many frames the clips have.
+     */
+    public void load(TextureAtlas atlas, int clip) {
+        ObjectMap<String, TextureRegion> regions = new ObjectMap<>(atlas.getRegions().size);
+        for (TextureAtlas.AtlasRegion region : atlas.getRegions()) {
+            //the first region of a name wins, like findRegion
+            if (!regions.containsKey(region.name)) regions.put(region.name, region);
+        }
+        for (int id = 0; id < EnemyArchetype.count(); id++) {
+            EnemyArchetype archetype = EnemyArchetype.get(id);
+            String prefix = region(archetype, clip);
+            TextureRegion[] clipFrames = new TextureRegion[frameCount(archetype, clip)];
+            for (int i = 0; i < clipFrames.length; i++) {
+                clipFrames[i] = regions.get(prefix + i);
+                if (clipFrames[i] == null) throw new GdxRuntimeException("Missing animation frame: " + prefix + i);
+            }
+            set(archetype, clip, clipFrames);
+        }
+        loaded[clip] = true;
+    }
+
+    //the clip's frames of one archetype, for frames that don't come from an atlas
+    public void set(EnemyArchetype archetype, int clip, TextureRegion[] clipFrames) {
+        if (clipFrames.length != frameCount(archetype, clip) || clipFrames.length > Byte.MAX_VALUE) {
+            throw new GdxRuntimeException("Wrong frame count for " + archetype.name + " clip " + clip + ": " + clipFrames.length);
+        }
+        frames[archetype.id][clip] = clipFrames;
+        tables[archetype.id][clip] = table(frameDuration(archetype, clip), clipFrames.length);
+    }
+
+    //frame index of every sample over the length of the clip
+    private static byte[] table(float frameDuration, int frameCount) {
+        double samplesPerFrame = (double) frameDuration * SAMPLES_PER_SECOND;
+        byte[] table = new byte[Math.max(1, (int) Math.round(samplesPerFrame * frameCount))];
+        for (int sample = 0; sample < table.length; sample++) {
+            //the middle of the sample, so float error in the duration can't move a frame change by one
+            table[sample] = (byte) Math.min(frameCount - 1, (int) ((sample + 0.5) / samplesPerFrame));
+        }
+        return table;
+    }
+
+    /** The frame of the clip at the state time, looping the walk and holding the last frame of the others. */
+    public TextureRegion frame(int archetype, int clip, float stateTime) {
+        byte[] table = tables[archetype][clip];
+        int sample = (int) (stateTime * SAMPLES_PER_SECOND);
+        if (clip == WALK) {
+            sample %= table.length;
+        } else if (sample >= table.length) {
+            sample = table.length - 1;
+        }
+        return frames[archetype][clip][table[Math.max(0, sample)]];
+    }
+
+    //the clip's first frame, the idle pose for the walk
+    public TextureRegion firstFrame(int archetype, int clip) {
+        return frames[archetype][clip][0];
+    }
+
+    public boolean isLoaded(int clip) {
+        return loaded[clip];
+    }
+
+    private static String region(EnemyArchetype archetype, int clip) {
+        switch (clip) {
+            case WALK: return archetype.walkRegion;
+            case ATTACK: return archetype.attackRegion;
+            default: return archetype.deathRegion;
+        }
+    }
+
+    private static int frameCount(EnemyArchetype archetype, int clip) {
+        switch (clip) {
+            case WALK: return archetype.walkFrames;
+            case ATTACK: return archetype.attackFrames;
+            default: return archetype.deathFrames;
+        }
+    }
+
+    private static float frameDuration(EnemyArchetype archetype, int clip) {
+        switch (clip) {
+            case WALK: return archetype.walkFrameDuration;
+            case ATTACK: return archetype.attackFrameDuration;
+            default: return archetype.deathFrameDuration;
+        }
+    }
+}
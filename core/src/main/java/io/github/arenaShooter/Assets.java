@@ -0,0 +1,192 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Reference-counted asset registry on top of {@link AssetManager}. Each file is loaded once and shared. */
+public class Assets implements Disposable {
+
+    /** Called from acquire() or update() on the render thread, once per finished file. */
+    public interface Listener {
+        void loaded(String path);
+    }
+
+    //asset paths, the atlases are packed at build time (lwjgl3 packTextures and packDeathFrames)
+    public static final String GAMEPLAY_ATLAS = "gameplay.atlas";
+    public static final String DEATH_ATLAS = Boolean.getBoolean("arenaShooter.compactTextures")
+        ? "death_frames_rgba4444.atlas" : "death_frames.atlas";
+    public static final String DEATH_SOUND = "death_sound.mp3";
+    //tile map of the arena, memory mapped rather than loaded through the manager, see TileMap
+    public static final String ARENA_MAP = "arena.tmap";
+    //side of one tile in the tileset image
+    public static final int TILESET_TILE_PIXELS = 64;
+
+    //region names inside the gameplay atlas
+    public static final String PLAYER = "dummy";
+    public static final String TILESET = "tileset";
+    public static final String BONE = "bone";
+
+    private final AssetManager manager;
+    private final ObjectIntMap<String> references = new ObjectIntMap<>();
+    private final Array<Texture> textures = new Array<>();
+    private final Array<String> pending = new Array<>();
+    private Listener listener;
+
+    private int loads = 0;
+    private int loadsAvoided = 0;
+
+    public Assets() {
+        this(new AssetManager());
+    }
+
+    public Assets(AssetManager manager) {
+        this.manager = manager;
+    }
+
+    public Texture texture(String path) {
+        return acquire(path, Texture.class);
+    }
+
+    public TextureAtlas atlas(String path) {
+        return acquire(path, TextureAtlas.class);
+    }
+
+    public Sound sound(String path) {
+        return acquire(path, Sound.class);
+    }
+
+    //returns the shared instance, loading it only on the first reference
+    public <T> T acquire(String path, Class<T> type) {
+        reference(path, type);
+        //may still be queued by acquireAsync
+        if (!manager.isLoaded(path, type)) {
+            manager.finishLoadingAsset(path);
+            notifyLoaded();
+        }
+        return manager.get(path, type);
+    }
+
+    //like acquire, but only queues the load; the asset arrives through update() and get() once isLoaded()
+    public void acquireAsync(String path, Class<?> type) {
+        reference(path, type);
+    }
+
+    private void reference(String path, Class<?> type) {
+        int count = references.get(path, 0);
+        if (count == 0) {
+            manager.load(path, type);
+            pending.add(path);
+            loads++;
+        } else {
+            loadsAvoided++;
+        }
+        references.put(path, count + 1);
+    }
+
+    //advances queued loads by one step; returns true when nothing is left to load
+    public boolean update() {
+        return update(0);
+    }
+
+    //keeps loading for up to the given time, so a loading screen can still draw every frame
+    public boolean update(int millis) {
+        long end = TimeUtils.millis() + millis;
+        while (true) {
+            boolean done = manager.update();
+            notifyLoaded();
+            if (done || TimeUtils.millis() >= end) return done;
+            Thread.yield();
+        }
+    }
+
+    private void notifyLoaded() {
+        int i = 0;
+        while (i < pending.size) {
+            String path = pending.get(i);
+            if (manager.isLoaded(path)) {
+                pending.removeIndex(i);
+                if (listener != null) listener.loaded(path);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    //0 to 1 over everything queued so far
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    public boolean isLoaded(String path) {
+        return manager.isLoaded(path);
+    }
+
+    public <T> T get(String path, Class<T> type) {
+        return manager.get(path, type);
+    }
+
+    //drops one reference, the asset is unloaded when nobody uses it anymore
+    public void release(String path) {
+        int count = references.get(path, 0);
+        if (count == 0) return;
+
+        if (count == 1) {
+            references.remove(path, 0);
+            pending.removeValue(path, false);
+            manager.unload(path);
+        } else {
+            references.put(path, count - 1);
+        }
+    }
+
+    //bytes the loaded textures take on the GPU, a mipmap chain adds a third
+    public long getTextureMemory() {
+        textures.clear();
+        manager.getAll(Texture.class, textures);
+        long bytes = 0;
+        for (int i = 0; i < textures.size; i++) {
+            Texture texture = textures.get(i);
+            long size = (long) texture.getWidth() * texture.getHeight()
+                * bytesPerPixel(texture.getTextureData().getFormat());
+            if (texture.getMinFilter().isMipMap()) size = size * 4 / 3;
+            bytes += size;
+        }
+        return bytes;
+    }
+
+    private static int bytesPerPixel(Pixmap.Format format) {
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    public void setListener(Listener listener) { this.listener = listener; }
+    public int getReferenceCount(String path) { return references.get(path, 0); }
+    public int getLoads() { return loads; }
+    public int getLoadsAvoided() { return loadsAvoided; }
+    public AssetManager getManager() { return manager; }
+
+    @Override
+    public void dispose() {
+        references.clear();
+        pending.clear();
+        manager.dispose();
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+
+/**
+ * Central place that plays sound effects. Every effect wraps one shared {@link Sound} and a fixed number of
+ * voices. Play requests are only collected until {@link #update}, which then merges all requests of one effect
+ * into a single voice at the loudest position, culls what is out of earshot of the listener and drops what
+ * would go over the voice limits, higher priority effects first.
+ */
+public class AudioMixer {
+    public static final int DEFAULT_MAX_VOICES = 16;
+    public static final float DEFAULT_HEARING_DISTANCE = 900f;
+
+    /** One sound effect, create with {@link #register}. */
+    public static class Effect {
+        private final Sound sound;
+        private final float duration;
+        private final int priority;
+        private final float[] voiceEnds; //mixer time at which each voice is free again
+
+        //requests since the last update
+        private int requests = 0;
+        private float bestX, bestY, bestScore;
+
+        private Effect(Sound sound, float duration, int maxVoices, int priority) {
+            this.sound = sound;
+            this.duration = duration;
+            this.priority = priority;
+            this.voiceEnds = new float[Math.max(1, maxVoices)];
+        }
+    }
+
+    private static final Comparator<Effect> LOUDEST_FIRST = (a, b) -> Float.compare(b.bestScore, a.bestScore);
+
+    private final Array<Effect> effects = new Array<>();
+    private final Array<Effect> requested = new Array<>();
+    private final int maxVoices;
+    private final float hearingDistance;
+
+    private float time = 0f;
+    private float listenerX, listenerY;
+
+    private long played = 0;
+    private long merged = 0;
+    private long dropped = 0;
+
+    public AudioMixer() {
+        this(DEFAULT_MAX_VOICES, DEFAULT_HEARING_DISTANCE);
+    }
+
+    public AudioMixer(int maxVoices, float hearingDistance) {
+        this.maxVoices = maxVoices;
+        this.hearingDistance = hearingDistance;
+    }
+
+    //duration is the length of the sound in seconds, a voice counts as busy for that long
+    public Effect register(Sound sound, float duration, int maxVoices, int priority) {
+        Effect effect = new Effect(sound, duration, maxVoices, priority);
+        effects.add(effect);
+        return effect;
+    }
+
+    //queues a play at a world position, nothing is played before update()
+    public void play(Effect effect, float x, float y) {
+        float distance = distanceToListener(x, y);
+        if (distance > hearingDistance) {
+            dropped++;
+            return;
+        }
+
+        //closer is louder, the loudest request decides where the merged voice plays
+        float score = effect.priority * (1f - distance / hearingDistance);
+        if (effect.requests == 0) requested.add(effect);
+        if (effect.requests == 0 || score > effect.bestScore) {
+            effect.bestX = x;
+            effect.bestY = y;
+            effect.bestScore = score;
+        }
+        effect.requests++;
+    }
+
+    //the listener position is used for culling and panning of requests made after this call
+    public void setListener(float x, float y) {
+        listenerX = x;
+        listenerY = y;
+    }
+
+    /** Plays what was requested since the last call. Call once per frame with the frame time. */
+    public void update(float delta) {
+        time += delta;
+        if (requested.size == 0) return;
+
+        //highest priority first, so they get the free voices
+        requested.sort(LOUDEST_FIRST);
+
+        int busy = busyVoices();
+        for (int i = 0; i < requested.size; i++) {
+            Effect effect = requested.get(i);
+            merged += effect.requests - 1;
+
+            int voice = freeVoice(effect);
+            if (voice < 0 || busy >= maxVoices) {
+                dropped++;
+            } else {
+                float distance = distanceToListener(effect.bestX, effect.bestY);
+                //a merged voice stands for several sounds, make it a bit louder
+                float volume = (1f - distance / hearingDistance) * Math.min(1f, 0.6f + 0.1f * effect.requests);
+                float pan = MathUtils.clamp((effect.bestX - listenerX) / hearingDistance, -1f, 1f);
+                effect.sound.play(volume, 1f, pan);
+                effect.voiceEnds[voice] = time + effect.duration;
+                busy++;
+                played++;
+            }
+            effect.requests = 0;
+        }
+        requested.clear();
+    }
+
+    private float distanceToListener(float x, float y) {
+        float dx = x - listenerX;
+        float dy = y - listenerY;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private int freeVoice(Effect effect) {
+        for (int v = 0; v < effect.voiceEnds.length; v++) {
+            if (effect.voiceEnds[v] <= time) return v;
+        }
+        return -1;
+    }
+
+    private int busyVoices() {
+        int busy = 0;
+        for (int i = 0; i < effects.size; i++) {
+            float[] ends = effects.get(i).voiceEnds;
+            for (int v = 0; v < ends.length; v++) {
+                if (ends[v] > time) busy++;
+            }
+        }
+        return busy;
+    }
+
+    public long getPlayed() { return played; }
+    public long getMerged() { return merged; }
+    public long getDropped() { return dropped; }
+}
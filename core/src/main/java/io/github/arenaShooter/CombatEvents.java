@@ -0,0 +1,128 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Spawns, shots, hits and kills of one tick, for whoever wants to hear about them: audio, stats, logging.
+ * Events go into a ring allocated up front and {@link #drain} hands them to the subscribers once per tick,
+ * so the simulation never waits on a subscriber and a subscriber never runs inside the enemy update.
+ *
+ * {@link #publish} is lock free and safe from any thread: a publisher claims a slot by moving the tail, fills
+ * it and then marks it published. When the ring is full the event is dropped and counted rather than waiting
+ * for the drain. Only one thread drains. Events from several threads arrive in the order their slots were
+ * claimed, so {@link ParallelEnemyUpdater} gives each chunk of enemies a ring of its own and drains those
+ * into the world's in chunk order, which keeps the stream the same for any number of threads.
+ */
+public class CombatEvents {
+    public static final int SPAWN = 0;
+    public static final int SHOOT = 1;
+    public static final int DAMAGE = 2;
+    public static final int KILL = 3;
+    //a bullet hit a player, the id is the player's slot
+    public static final int PLAYER_HIT = 4;
+    //a player ran out of health and starts over, the id is the player's slot
+    public static final int PLAYER_DOWN = 5;
+    public static final int TYPES = 6;
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Gets every event of a drain in turn. Id and position are the enemy's, or the player's for player
+     * events; value is the damage of a hit.
+     */
+    public interface Subscriber {
+        void onCombatEvent(int type, int enemyId, float x, float y, int value);
+    }
+
+    private final int mask;
+    private final byte[] type;
+    private final int[] enemyId;
+    private final float[] x, y;
+    private final int[] value;
+    //sequence number of the event a slot holds once it is filled, -1 before
+    private final AtomicLongArray published;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Array<Subscriber> subscribers = new Array<>(false, 4, Subscriber.class);
+
+    public CombatEvents() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    //capacity is rounded up to a power of two
+    public CombatEvents(int capacity) {
+        int size = MathUtils.nextPowerOfTwo(Math.max(2, capacity));
+        mask = size - 1;
+        type = new byte[size];
+        enemyId = new int[size];
+        x = new float[size];
+        y = new float[size];
+        value = new int[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) published.set(i, -1);
+    }
+
+    //returns false when the ring is full and the event was dropped
+    public boolean publish(int eventType, int id, float eventX, float eventY, int eventValue) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        type[slot] = (byte) eventType;
+        enemyId[slot] = id;
+        x[slot] = eventX;
+        y[slot] = eventY;
+        value[slot] = eventValue;
+        //releases the fields above to the draining thread
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hands every published event to every subscriber, in order, and frees the slots. Stops at a slot that
+     * is claimed but not filled yet, the rest comes with the next drain. Returns how many were handed out.
+     */
+    public int drain() {
+        long sequence = head;
+        long end = tail.get();
+        Subscriber[] items = subscribers.items;
+        int count = subscribers.size;
+        while (sequence < end) {
+            int slot = (int) sequence & mask;
+            if (published.get(slot) != sequence) break;
+            for (int i = 0; i < count; i++) {
+                items[i].onCombatEvent(type[slot], enemyId[slot], x[slot], y[slot], value[slot]);
+            }
+            sequence++;
+        }
+        int drained = (int) (sequence - head);
+        head = sequence;
+        return drained;
+    }
+
+    //subscribers are called from the thread that drains, the one ticking the world
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.removeValue(subscriber, true);
+    }
+
+    public int getCapacity() { return mask + 1; }
+    //events ever published and handed out, dropped ones not counted
+    public long getPublished() { return tail.get(); }
+    public long getDrained() { return head; }
+    public long getDropped() { return dropped.get(); }
+}
@@ -0,0 +1,28 @@
+package io.github.arenaShooter;
+
+/**
+ * Writes hits, kills and downed players to a {@link LogSink}; what the sink's budget does not cover is only
+ * counted.
+ */
+public class CombatLog implements CombatEvents.Subscriber {
+    private static final String TAG = "Combat";
+
+    private final LogSink sink;
+
+    public CombatLog(LogSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void onCombatEvent(int type, int enemyId, float x, float y, int value) {
+        if (type != CombatEvents.DAMAGE && type != CombatEvents.KILL && type != CombatEvents.PLAYER_DOWN) return;
+        if (!sink.acquire()) return;
+        if (type == CombatEvents.DAMAGE) {
+            sink.write(TAG, "enemy " + enemyId + " hit for " + value);
+        } else if (type == CombatEvents.KILL) {
+            sink.write(TAG, "enemy " + enemyId + " killed at " + Math.round(x) + ", " + Math.round(y));
+        } else {
+            sink.write(TAG, "player " + enemyId + " down at " + Math.round(x) + ", " + Math.round(y));
+        }
+    }
+}
@@ -1,18 +1,12 @@
 package io.github.arenaShooter;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.math.Vector2;
-import java.util.ArrayList;
-import java.util.List;
-
-public class Enemy {
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Skeleton state and AI. Holds no textures or sounds, so it runs the same with or without a window.
+ * Instances are recycled by the world's pool, {@link #init} and {@link #reset} bring them to a fresh state.
+ */
+public class Enemy implements Pool.Poolable {
 
     //enum states
     public enum State {
@@ -22,67 +16,103 @@ public class Enemy {
         DEAD
     }
 
+    public static final float SIZE = 64f;
+
+    private static final State[] STATES = State.values();
+
+    //snapshot flag bits
+    static final int FLAG_ALIVE = 1;
+    static final int FLAG_FLIPPED = 2;
+    static final int FLAG_SHOT = 4;
+    static final int FLAG_DEATH_FINISHED = 8;
+
+    private int id;
+
+    //tuning and animation timings, shared by all enemies of a kind
+    private EnemyArchetype archetype = EnemyArchetype.SKELETON;
+
     private float x, y;
-    private float speed = 100f;
-    private float attackRange = 150f;
+    private float prevX, prevY; //position at the start of the last tick, for interpolation
+    private float dirX, dirY; //towards the target at the last full update, march keeps going this way
     private boolean alive = true;
 
     private State state = State.WALK;
 
-    private Animation<TextureRegion> walkAnimation;
-    private Animation<TextureRegion> attackAnimation;
-    private Animation<TextureRegion> deathAnimation;
-    private Sound deathSound;
     private float stateTime = 0f;
     private boolean flipped = false;
 
-    private int health = 100;
-    private final int DAMAGE_ON_CONTACT = 50;
-    private float damageCooldown = 1f;
+    private int health;
     private float damageTimer = 0f;
 
     private int attackCount = 0;
-    private final int maxAttacks = 3;
     private float restTime = 0f;
-    private final float REST_DURATION = 1f;
     private boolean hasShotThisCycle = false;
 
     private boolean deathAnimationFinished = false;
-    private List<Bullet> bullets = new ArrayList<>();
 
-    public Enemy(float startX, float startY, TextureAtlas atlasEnemy, TextureAtlas atlasDeath) {
-        this.x = startX;
-        this.y = startY;
-
-        Array<TextureRegion> walkFrames = new Array<>();
-        for (int i = 0; i < 3; i++) {
-            walkFrames.add(atlasEnemy.findRegion("skeleton_walk_" + i));
-        }
-        walkAnimation = new Animation<>(0.15f, walkFrames, Animation.PlayMode.LOOP);
+    //for pools, call init before use
+    public Enemy() {
+        this(0f, 0f);
+    }
 
-        Array<TextureRegion> attackFrames = new Array<>();
-        for (int i = 0; i < 2; i++) {
-            attackFrames.add(atlasEnemy.findRegion("skeleton_attack_" + i));
-        }
+    public Enemy(float startX, float startY) {
+        this(startX, startY, EnemyArchetype.SKELETON);
+    }
 
-        attackAnimation = new Animation<>(0.15f, attackFrames, Animation.PlayMode.NORMAL);
+    public Enemy(float startX, float startY, EnemyArchetype archetype) {
+        init(startX, startY, archetype);
+    }
 
-        Array<TextureRegion> deathFrames = new Array<>();
-        for (int i = 0; i < 47; i++) {
-            deathFrames.add(atlasDeath.findRegion("death_animation" + i));
-        }
-        deathAnimation = new Animation<>(0.05f, deathFrames, Animation.PlayMode.NORMAL);
+    public void init(float startX, float startY, EnemyArchetype archetype) {
+        init(0, startX, startY, archetype);
+    }
 
-        deathSound = Gdx.audio.newSound(Gdx.files.internal("death_sound.mp3"));
+    //the world hands out ids in spawn order, they stay with the enemy until it is freed
+    public void init(int id, float startX, float startY, EnemyArchetype archetype) {
+        this.id = id;
+        this.archetype = archetype;
+        this.health = archetype.health;
+        this.x = startX;
+        this.y = startY;
+        this.prevX = startX;
+        this.prevY = startY;
+        this.dirX = 0f;
+        this.dirY = 0f;
+    }
 
+    //back to the state of a freshly built enemy
+    @Override
+    public void reset() {
+        id = 0;
+        archetype = EnemyArchetype.SKELETON;
+        x = y = prevX = prevY = 0f;
+        dirX = dirY = 0f;
+        alive = true;
+        state = State.WALK;
+        stateTime = 0f;
+        flipped = false;
+        health = archetype.health;
+        damageTimer = 0f;
+        attackCount = 0;
+        restTime = 0f;
+        hasShotThisCycle = false;
+        deathAnimationFinished = false;
     }
 
-    //update state
-    public void update(float delta, float playerX, float playerY) {
+    /**
+     * One tick of AI towards the enemy's target in the tick. The index is the enemy's place in the list the
+     * tick's per enemy targets and steering were prepared from.
+     */
+    public void update(EnemyTick tick, int index) {
+        float delta = tick.getDelta();
+        float playerX = tick.getTargetX(index);
+        float playerY = tick.getTargetY(index);
+        prevX = x;
+        prevY = y;
 
         if (state == State.DEAD) {
             stateTime += delta;
-            if (deathAnimation.isAnimationFinished(stateTime)) {
+            if (EnemyArchetype.isFinished(stateTime, archetype.deathFrameDuration, archetype.deathFrames)) {
                 alive = false;
                 deathAnimationFinished = true;
             }
@@ -102,9 +132,16 @@ public class Enemy {
         switch (state) {
             case WALK:
                 //go to player
-                if (dist > attackRange) {
-                    x += (dx / dist) * speed * delta;
-                    y += (dy / dist) * speed * delta;
+                if (dist > archetype.attackRange) {
+                    Steering steering = tick.getSteering();
+                    if (steering != null) {
+                        steering.steer(index, this, dx, dy, dist);
+                    } else {
+                        dirX = dx / dist;
+                        dirY = dy / dist;
+                    }
+                    x += dirX * archetype.speed * delta;
+                    y += dirY * archetype.speed * delta;
                 } else {
                     state = State.ATTACK;
                     stateTime = 0f;
@@ -114,14 +151,14 @@ public class Enemy {
 
             case ATTACK:
                 //onetime animation
-                if (!hasShotThisCycle && stateTime >= attackAnimation.getFrameDuration()) {
-                    shoot(playerX, playerY);
+                if (!hasShotThisCycle && stateTime >= archetype.attackFrameDuration) {
+                    shoot(playerX, playerY, tick.getProjectiles(), tick.getEvents());
                     attackCount++;
                     hasShotThisCycle = true;
                 }
 
-                if (attackAnimation.isAnimationFinished(stateTime)) {
-                    if (attackCount >= maxAttacks) {
+                if (EnemyArchetype.isFinished(stateTime, archetype.attackFrameDuration, archetype.attackFrames)) {
+                    if (attackCount >= archetype.maxAttacks) {
                         // IDLE after 3 attacks
                         state = State.IDLE;
                         restTime = 0f;
@@ -135,7 +172,7 @@ public class Enemy {
 
             case IDLE:
                 restTime += delta;
-                if (restTime >= REST_DURATION) {
+                if (restTime >= archetype.restDuration) {
                     attackCount = 0;
                     restTime = 0f;
                     state = State.WALK;
@@ -144,34 +181,38 @@ public class Enemy {
                 break;
 
             case DEAD:
-                if (deathAnimation.isAnimationFinished(stateTime)) {
+                if (EnemyArchetype.isFinished(stateTime, archetype.deathFrameDuration, archetype.deathFrames)) {
                     deathAnimationFinished = true;
                 }
                 break;
         }
+    }
 
-        checkPlayerCollision(playerX, playerY);
-
-        //bullets update
-        for (int i = bullets.size() - 1; i >= 0; i--) {
-            Bullet bullet = bullets.get(i);
-            bullet.update(delta);
+    /**
+     * Cheap tick for enemies no player is close to: timers run and a walking enemy keeps going the way it went
+     * at its last {@link #update}, without distance checks or state changes. Those wait for the next update.
+     */
+    public void march(float delta) {
+        prevX = x;
+        prevY = y;
+        stateTime += delta;
+        if (state == State.DEAD) return;
 
-            //delete if are out of map
-            if (bullet.isExpired()) {
-                bullets.remove(i);
-            }
+        damageTimer += delta;
+        if (state == State.WALK) {
+            x += dirX * archetype.speed * delta;
+            y += dirY * archetype.speed * delta;
+        } else if (state == State.IDLE) {
+            restTime += delta;
         }
-
     }
 
-    private void checkPlayerCollision(float playerX, float playerY) {
-        //collision rectangle for enemy and player
-        Rectangle enemyRect = new Rectangle(x, y, 64, 64);
-        Rectangle playerRect = new Rectangle(playerX - 32, playerY - 32, 64, 64);
+    //called by the world's broad phase when our bounds overlap the player
+    public void onPlayerContact() {
+        if (state == State.DEAD) return;
 
-        if (enemyRect.overlaps(playerRect) && damageTimer >= damageCooldown) {
-            takeDamage(DAMAGE_ON_CONTACT);
+        if (damageTimer >= archetype.damageCooldown) {
+            takeDamage(archetype.contactDamage);
             damageTimer = 0f;
         }
     }
@@ -179,7 +220,6 @@ public class Enemy {
     public void takeDamage(int amount) {
         if (state == State.DEAD) return;
         health -= amount;
-        System.out.println("Enemy HP: " + health);
 
         if (health <= 0) {
             health = 0;
@@ -188,80 +228,92 @@ public class Enemy {
     }
 
     //shoot
-    private void shoot(float targetX, float targetY) {
+    private void shoot(float targetX, float targetY, Projectiles projectiles, CombatEvents events) {
         //shoot direction
-        Vector2 direction = new Vector2(targetX - (x + 32), targetY - (y + 32)).nor();
-
-        //create new bullet
-        Bullet bullet = new Bullet(x + 32, y + 32, direction);
-        bullets.add(bullet);
-    }
-
-    //drawing
-    public void render(SpriteBatch batch) {
-        if (!alive) return;
-
-        TextureRegion currentFrame;
-        switch (state) {
-            case ATTACK:
-                currentFrame = attackAnimation.getKeyFrame(stateTime, false);
-                break;
-            case WALK:
-                currentFrame = walkAnimation.getKeyFrame(stateTime, true);
-                break;
-            case DEAD:
-                TextureRegion deathFrame = deathAnimation.getKeyFrame(stateTime, false);
-                if (deathFrame != null) {
-                    TextureRegion toDraw = new TextureRegion(deathFrame);
-                    if (flipped) toDraw.flip(true, false);
-                    batch.draw(toDraw, x, y, 72, 72);
-                }
-                return;
-            case IDLE:
-            default:
-                currentFrame = walkAnimation.getKeyFrame(0, false);
-                break;
-        }
-
-        //create copy to flip
-        TextureRegion frameToDraw = new TextureRegion(currentFrame);
-        if (flipped) {
-            frameToDraw.flip(true, false);
+        float dirX = targetX - (x + 32);
+        float dirY = targetY - (y + 32);
+        float len = (float) Math.sqrt(dirX * dirX + dirY * dirY);
+        if (len != 0f) {
+            dirX /= len;
+            dirY /= len;
         }
 
-        batch.draw(frameToDraw, x, y, 64, 64);
-
-        //draw all bullets
-        for (Bullet bullet : bullets) {
-            bullet.render(batch);
-        }
-    }
-
-    //clear bullets
-    public void dispose() {
-        for (Bullet bullet : bullets) {
-            bullet.dispose();
-        }
-        bullets.clear();
-    }
-
-    public List<Bullet> getBullets() {
-        return bullets;
+        //bullets belong to the world, they outlive the shooter
+        projectiles.spawn(x + 32, y + 32, dirX, dirY);
+        if (events != null) events.publish(CombatEvents.SHOOT, id, x, y, 0);
     }
 
     public void kill() {
         if (state == State.DEAD) return;
-        deathSound.play();
         state = State.DEAD;
         stateTime = 0f;
     }
 
+    //walking direction, for Steering
+    void setDirection(float x, float y) {
+        dirX = x;
+        dirY = y;
+    }
+
+    //only a dead enemy can finish its death animation
     public boolean isDeathAnimationFinished() {
-        return stateTime > deathAnimation.getAnimationDuration();
+        return state == State.DEAD && stateTime > archetype.getDeathDuration();
+    }
+
+    void saveState(Snapshot snapshot, int i) {
+        snapshot.id[i] = id;
+        snapshot.archetype[i] = (byte) archetype.id;
+        snapshot.state[i] = (byte) state.ordinal();
+        snapshot.flags[i] = (byte) ((alive ? FLAG_ALIVE : 0) | (flipped ? FLAG_FLIPPED : 0)
+            | (hasShotThisCycle ? FLAG_SHOT : 0) | (deathAnimationFinished ? FLAG_DEATH_FINISHED : 0));
+        snapshot.attackCount[i] = (byte) attackCount;
+        snapshot.health[i] = health;
+        snapshot.x[i] = x;
+        snapshot.y[i] = y;
+        snapshot.prevX[i] = prevX;
+        snapshot.prevY[i] = prevY;
+        snapshot.dirX[i] = dirX;
+        snapshot.dirY[i] = dirY;
+        snapshot.stateTime[i] = stateTime;
+        snapshot.damageTimer[i] = damageTimer;
+        snapshot.restTime[i] = restTime;
     }
 
+    void loadState(Snapshot snapshot, int i) {
+        id = snapshot.id[i];
+        archetype = EnemyArchetype.get(snapshot.archetype[i]);
+        state = STATES[snapshot.state[i]];
+        int flags = snapshot.flags[i];
+        alive = (flags & FLAG_ALIVE) != 0;
+        flipped = (flags & FLAG_FLIPPED) != 0;
+        hasShotThisCycle = (flags & FLAG_SHOT) != 0;
+        deathAnimationFinished = (flags & FLAG_DEATH_FINISHED) != 0;
+        attackCount = snapshot.attackCount[i];
+        health = snapshot.health[i];
+        x = snapshot.x[i];
+        y = snapshot.y[i];
+        prevX = snapshot.prevX[i];
+        prevY = snapshot.prevY[i];
+        dirX = snapshot.dirX[i];
+        dirY = snapshot.dirY[i];
+        stateTime = snapshot.stateTime[i];
+        damageTimer = snapshot.damageTimer[i];
+        restTime = snapshot.restTime[i];
+    }
+
+    public int getId() { return id; }
     public float getX() { return x; }
     public float getY() { return y; }
+    public float getX(float alpha) { return prevX + (x - prevX) * alpha; }
+    public float getY(float alpha) { return prevY + (y - prevY) * alpha; }
+    //unit walking direction, zero before the first step
+    public float getDirectionX() { return dirX; }
+    public float getDirectionY() { return dirY; }
+    public EnemyArchetype getArchetype() { return archetype; }
+    public State getState() { return state; }
+    public float getStateTime() { return stateTime; }
+    public boolean isFlipped() { return flipped; }
     public boolean isAlive() { return alive; }
+    public boolean isDead() { return state == State.DEAD; }
+    public int getHealth() { return health; }
 }
-
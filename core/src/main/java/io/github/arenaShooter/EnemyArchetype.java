@@ -0,0 +1,57 @@
+package io.github.arenaShooter;
+
+/**
+ * Everything enemies of one kind have in common: movement, combat tuning and animation timings.
+ * Instances are shared, an enemy only points at its archetype.
+ */
+public class EnemyArchetype {
+    public static final EnemyArchetype SKELETON = new EnemyArchetype(0, "skeleton");
+
+    //all archetypes by id, so struct-of-arrays storage can refer to them with a byte
+    private static final EnemyArchetype[] REGISTRY = { SKELETON };
+
+    public final int id;
+    public final String name;
+
+    public final float speed = 100f;
+    public final float attackRange = 150f;
+    public final int health = 100;
+    public final int contactDamage = 50;
+    public final float damageCooldown = 1f;
+    public final int maxAttacks = 3;
+    public final float restDuration = 1f;
+
+    public final float walkFrameDuration = 0.15f;
+    public final int walkFrames = 3;
+    public final float attackFrameDuration = 0.15f;
+    public final int attackFrames = 2;
+    public final float deathFrameDuration = 0.05f;
+    public final int deathFrames = 47;
+    //atlas region names of the frames, followed by the frame index
+    public final String walkRegion, attackRegion, deathRegion;
+
+    private EnemyArchetype(int id, String name) {
+        this.id = id;
+        this.name = name;
+        this.walkRegion = name + "_walk_";
+        this.attackRegion = name + "_attack_";
+        this.deathRegion = "death_animation";
+    }
+
+    public static int count() {
+        return REGISTRY.length;
+    }
+
+    public static EnemyArchetype get(int id) {
+        return REGISTRY[id];
+    }
+
+    public float getDeathDuration() {
+        return deathFrames * deathFrameDuration;
+    }
+
+    //same rule as Animation.isAnimationFinished for PlayMode.NORMAL
+    public static boolean isFinished(float time, float frameDuration, int frames) {
+        return (int) (time / frameDuration) > frames - 1;
+    }
+}
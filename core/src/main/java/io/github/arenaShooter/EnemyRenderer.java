@@ -0,0 +1,80 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Draws enemies. Frames come from an {@link AnimationCatalog} shared by every enemy, picked by the enemy's
+ * archetype and state time. Walk and attack frames come from the gameplay atlas, death frames from their own
+ * (lazily loaded) atlas, so callers draw dying enemies in a separate pass to keep texture switches down.
+ */
+public class EnemyRenderer {
+    private final AnimationCatalog catalog;
+
+    public EnemyRenderer(TextureAtlas atlasEnemy) {
+        this(new AnimationCatalog());
+        catalog.load(atlasEnemy, AnimationCatalog.WALK);
+        catalog.load(atlasEnemy, AnimationCatalog.ATTACK);
+    }
+
+    //a catalog with the walk and attack clips loaded
+    public EnemyRenderer(AnimationCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    //the death frames are loaded on the first kill, until then the dead keep their idle frame
+    public void setDeathFrames(TextureAtlas atlasDeath) {
+        catalog.load(atlasDeath, AnimationCatalog.DEATH);
+    }
+
+    public boolean hasDeathFrames() {
+        return catalog.isLoaded(AnimationCatalog.DEATH);
+    }
+
+    public AnimationCatalog getCatalog() { return catalog; }
+
+    //drawing
+    public void render(Batch batch, Enemy enemy, float alpha) {
+        if (!enemy.isAlive()) return;
+
+        float drawX = enemy.getX(alpha);
+        float drawY = enemy.getY(alpha);
+        float stateTime = enemy.getStateTime();
+        int archetype = enemy.getArchetype().id;
+
+        TextureRegion currentFrame;
+        switch (enemy.getState()) {
+            case ATTACK:
+                currentFrame = catalog.frame(archetype, AnimationCatalog.ATTACK, stateTime);
+                break;
+            case WALK:
+                currentFrame = catalog.frame(archetype, AnimationCatalog.WALK, stateTime);
+                break;
+            case DEAD:
+                if (!hasDeathFrames()) {
+                    currentFrame = catalog.firstFrame(archetype, AnimationCatalog.WALK);
+                    break;
+                }
+                drawFrame(batch, catalog.frame(archetype, AnimationCatalog.DEATH, stateTime), drawX, drawY, 72, enemy.isFlipped());
+                return;
+            case IDLE:
+            default:
+                currentFrame = catalog.firstFrame(archetype, AnimationCatalog.WALK);
+                break;
+        }
+
+        drawFrame(batch, currentFrame, drawX, drawY, 64, enemy.isFlipped());
+    }
+
+    //flip with a negative scale around the centre instead of copying the region
+    private void drawFrame(Batch batch, TextureRegion frame, float drawX, float drawY, float size, boolean flipped) {
+        float half = size / 2f;
+        batch.draw(frame,
+            drawX, drawY,           //position
+            half, half,             //pivot point (centre)
+            size, size,             //size
+            flipped ? -1f : 1f, 1f, //scale (flip)
+            0f);                    //rotation
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.arenaShooter;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays alternative to a list of {@link Enemy} objects. Every field lives in a primitive array
+ * indexed by slot and the WALK/ATTACK/IDLE/DEAD state machine runs as one loop over all slots. Per entity
+ * it stores a byte archetype id, tuning and animation timings come from the shared {@link EnemyArchetype}.
+ * Enemies whose death animation has finished are swap-removed, so slot order is not stable.
+ */
+public class EnemySwarm {
+    public static final byte WALK = 0;
+    public static final byte ATTACK = 1;
+    public static final byte IDLE = 2;
+    public static final byte DEAD = 3;
+
+    //wake times are set a little early, the exact rule is checked in transition()
+    private static final float WAKE_EARLY = 0.999f;
+
+    private float[] x, y, stateTime, damageTimer;
+    private float[] wake, removeAfter; //stateTime at which the slot needs a transition check / is removed
+    private int[] health;
+    private byte[] state, archetype, attackCount;
+    private boolean[] shotThisCycle, flipped;
+    private int size = 0;
+
+    public EnemySwarm() {
+        this(64);
+    }
+
+    public EnemySwarm(int capacity) {
+        resize(Math.max(1, capacity));
+    }
+
+    public int spawn(float startX, float startY, EnemyArchetype type) {
+        if (size == x.length) resize(size * 2);
+
+        int i = size++;
+        x[i] = startX;
+        y[i] = startY;
+        stateTime[i] = 0f;
+        damageTimer[i] = 0f;
+        wake[i] = Float.POSITIVE_INFINITY;
+        removeAfter[i] = Float.POSITIVE_INFINITY;
+        health[i] = type.health;
+        state[i] = WALK;
+        archetype[i] = (byte) type.id;
+        attackCount[i] = 0;
+        shotThisCycle[i] = false;
+        flipped[i] = false;
+        return i;
+    }
+
+    /**
+     * The batched AI kernel, same rules as Enemy.update. The per-slot work is written without data-dependent
+     * branches: every slot pays for the distance and the step, and selects whether to apply it. Everything that
+     * changes state is rare and goes through {@link #transition}, triggered when stateTime reaches the slot's
+     * wake time or a walker gets in range, so the hot loop stays predictable even with all states mixed.
+     */
+    public void update(float delta, float playerX, float playerY, Projectiles projectiles) {
+        int i = 0;
+        while (i < size) {
+            float time = stateTime[i];
+            if (time > removeAfter[i]) {
+                //death animation done, the last slot moves in and gets updated next
+                remove(i);
+                continue;
+            }
+
+            EnemyArchetype type = EnemyArchetype.get(archetype[i]);
+            byte current = state[i];
+            boolean walking = current == WALK;
+
+            time += delta;
+            stateTime[i] = time;
+            damageTimer[i] += delta;
+
+            float dx = playerX - x[i];
+            float dy = playerY - y[i];
+            float dist = (float) Math.sqrt(dx * dx + dy * dy);
+            boolean moving = walking & dist > type.attackRange;
+            float stepX = (dx / dist) * type.speed * delta;
+            float stepY = (dy / dist) * type.speed * delta;
+            x[i] = moving ? x[i] + stepX : x[i];
+            y[i] = moving ? y[i] + stepY : y[i];
+
+            //the dead keep facing where they fell
+            flipped[i] = current == DEAD ? flipped[i] : playerX < x[i];
+
+            if ((walking & !moving) | time >= wake[i]) {
+                transition(i, type, playerX, playerY, projectiles);
+            }
+            i++;
+        }
+    }
+
+    private void transition(int i, EnemyArchetype type, float playerX, float playerY, Projectiles projectiles) {
+        switch (state[i]) {
+            case WALK:
+                setState(i, ATTACK, type);
+                break;
+
+            case ATTACK:
+                if (!shotThisCycle[i] && stateTime[i] >= type.attackFrameDuration) {
+                    shoot(i, playerX, playerY, projectiles);
+                    attackCount[i]++;
+                    shotThisCycle[i] = true;
+                    //next thing to happen is the end of the animation
+                    wake[i] = type.attackFrames * type.attackFrameDuration * WAKE_EARLY;
+                }
+
+                if (EnemyArchetype.isFinished(stateTime[i], type.attackFrameDuration, type.attackFrames)) {
+                    setState(i, attackCount[i] >= type.maxAttacks ? IDLE : WALK, type);
+                }
+                break;
+
+            case IDLE:
+                //rest time runs alongside stateTime, both start at zero when resting begins
+                if (stateTime[i] >= type.restDuration) {
+                    attackCount[i] = 0;
+                    setState(i, WALK, type);
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void setState(int i, byte next, EnemyArchetype type) {
+        state[i] = next;
+        stateTime[i] = 0f;
+        switch (next) {
+            case ATTACK:
+                shotThisCycle[i] = false;
+                wake[i] = type.attackFrameDuration;
+                break;
+            case IDLE:
+                wake[i] = type.restDuration;
+                break;
+            case DEAD:
+                wake[i] = Float.POSITIVE_INFINITY;
+                removeAfter[i] = type.getDeathDuration();
+                break;
+            default:
+                wake[i] = Float.POSITIVE_INFINITY;
+                break;
+        }
+    }
+
+    private void shoot(int i, float targetX, float targetY, Projectiles projectiles) {
+        float dirX = targetX - (x[i] + 32);
+        float dirY = targetY - (y[i] + 32);
+        float len = (float) Math.sqrt(dirX * dirX + dirY * dirY);
+        if (len != 0f) {
+            dirX /= len;
+            dirY /= len;
+        }
+        projectiles.spawn(x[i] + 32, y[i] + 32, dirX, dirY);
+    }
+
+    public void onPlayerContact(int i) {
+        if (state[i] == DEAD) return;
+
+        EnemyArchetype type = EnemyArchetype.get(archetype[i]);
+        if (damageTimer[i] >= type.damageCooldown) {
+            takeDamage(i, type.contactDamage);
+            damageTimer[i] = 0f;
+        }
+    }
+
+    public void takeDamage(int i, int amount) {
+        if (state[i] == DEAD) return;
+        health[i] -= amount;
+
+        if (health[i] <= 0) {
+            health[i] = 0;
+            setState(i, DEAD, EnemyArchetype.get(archetype[i]));
+        }
+    }
+
+    public void remove(int i) {
+        int last = --size;
+        if (i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        stateTime[i] = stateTime[last];
+        damageTimer[i] = damageTimer[last];
+        wake[i] = wake[last];
+        removeAfter[i] = removeAfter[last];
+        health[i] = health[last];
+        state[i] = state[last];
+        archetype[i] = archetype[last];
+        attackCount[i] = attackCount[last];
+        shotThisCycle[i] = shotThisCycle[last];
+        flipped[i] = flipped[last];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    public byte getState(int i) { return state[i]; }
+    public float getStateTime(int i) { return stateTime[i]; }
+    public int getHealth(int i) { return health[i]; }
+    public int getAttackCount(int i) { return attackCount[i]; }
+    public boolean isFlipped(int i) { return flipped[i]; }
+    public EnemyArchetype getArchetype(int i) { return EnemyArchetype.get(archetype[i]); }
+
+    private void resize(int capacity) {
+        x = x == null ? new float[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new float[capacity] : Arrays.copyOf(y, capacity);
+        stateTime = stateTime == null ? new float[capacity] : Arrays.copyOf(stateTime, capacity);
+        damageTimer = damageTimer == null ? new float[capacity] : Arrays.copyOf(damageTimer, capacity);
+        wake = wake == null ? new float[capacity] : Arrays.copyOf(wake, capacity);
+        removeAfter = removeAfter == null ? new float[capacity] : Arrays.copyOf(removeAfter, capacity);
+        health = health == null ? new int[capacity] : Arrays.copyOf(health, capacity);
+        state = state == null ? new byte[capacity] : Arrays.copyOf(state, capacity);
+        archetype = archetype == null ? new byte[capacity] : Arrays.copyOf(archetype, capacity);
+        attackCount = attackCount == null ? new byte[capacity] : Arrays.copyOf(attackCount, capacity);
+        shotThisCycle = shotThisCycle == null ? new boolean[capacity] : Arrays.copyOf(shotThisCycle, capacity);
+        flipped = flipped == null ? new boolean[capacity] : Arrays.copyOf(flipped, capacity);
+    }
+}
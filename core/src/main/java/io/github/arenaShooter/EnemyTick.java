@@ -0,0 +1,100 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * What enemy AI needs for one tick besides the enemies' own state: the step, whom they chase, who only
+ * marches, how they steer and where their bullets and events go. The world fills one in per tick and runs
+ * its enemies through {@link #update}, on the calling thread or in chunks on a {@link ParallelEnemyUpdater}.
+ * Interest, steering and events are optional, null leaves them out.
+ */
+public class EnemyTick {
+    private float delta;
+    private float playerX, playerY;
+    private float[] targetX, targetY; //per enemy targets, null when all chase one player
+    private InterestManager interest;
+    private Steering steering;
+    private Projectiles projectiles;
+    private CombatEvents events;
+
+    //a new tick: the step and where bullets and events go, everyone chases 0, 0 until a target is set
+    public EnemyTick begin(float delta, Projectiles projectiles, CombatEvents events) {
+        this.delta = delta;
+        this.projectiles = projectiles;
+        this.events = events;
+        return setTarget(0f, 0f);
+    }
+
+    //every enemy chases this point
+    public EnemyTick setTarget(float x, float y) {
+        playerX = x;
+        playerY = y;
+        targetX = targetY = null;
+        return this;
+    }
+
+    //each enemy chases its own point, by index
+    public EnemyTick setTargets(float[] x, float[] y) {
+        targetX = x;
+        targetY = y;
+        return this;
+    }
+
+    //InterestManager.begin has to be called before the enemies update
+    public EnemyTick setInterest(InterestManager interest) {
+        this.interest = interest;
+        return this;
+    }
+
+    //Steering.prepare has to be called before the enemies update
+    public EnemyTick setSteering(Steering steering) {
+        this.steering = steering;
+        return this;
+    }
+
+    //the same tick with other bullet and event sinks, for a chunk of enemies updated on another thread
+    EnemyTick set(EnemyTick tick, Projectiles projectiles, CombatEvents events) {
+        delta = tick.delta;
+        playerX = tick.playerX;
+        playerY = tick.playerY;
+        targetX = tick.targetX;
+        targetY = tick.targetY;
+        interest = tick.interest;
+        steering = tick.steering;
+        this.projectiles = projectiles;
+        this.events = events;
+        return this;
+    }
+
+    //lets go of the world's arrays and helpers once the tick is done
+    void clear() {
+        targetX = targetY = null;
+        interest = null;
+        steering = null;
+        projectiles = null;
+        events = null;
+    }
+
+    /**
+     * Runs the enemies from start to end, indices into the world's list: full AI for those the interest manager
+     * wants this tick, {@link Enemy#march} for the rest.
+     */
+    public void update(Array<Enemy> enemies, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Enemy enemy = enemies.get(i);
+            if (interest == null || interest.isDue(i, enemy, getTargetX(i), getTargetY(i))) {
+                enemy.update(this, i);
+            } else {
+                enemy.march(delta);
+            }
+        }
+    }
+
+    public float getDelta() { return delta; }
+    public float getTargetX(int index) { return targetX == null ? playerX : targetX[index]; }
+    public float getTargetY(int index) { return targetY == null ? playerY : targetY[index]; }
+    public InterestManager getInterest() { return interest; }
+    public Steering getSteering() { return steering; }
+    public Projectiles getProjectiles() { return projectiles; }
+    public CombatEvents getEvents() { return events; }
+}
@@ -0,0 +1,273 @@
+package io.github.arenaShooter;
+
+import java.util.Arrays;
+
+/**
+ * Shared way to the players over a grid on the arena. Every cell stores the direction to walk in, towards
+ * the nearest player and around blocked cells, so an enemy finds its way with one lookup however many
+ * enemies there are. The field is only rebuilt when a player moves into another cell, joins or leaves, or
+ * the blocked cells change; in between {@link #update} costs a few comparisons.
+ *
+ * Distances are octile, a diagonal step costs 14 against 10 for a straight one, and diagonals never cut the
+ * corner of a blocked cell. Cell directions only come in eight angles, so every cell also records which
+ * players it has a clear straight line to, and an enemy whose target is {@link #isVisible visible} goes
+ * straight at it instead. That is the player the enemy walks at, not necessarily the one the field leads
+ * to. Positions outside the grid are clamped into the border cells. Without blocked cells every cell sees
+ * every player, so the field is not built at all until a cell is blocked.
+ */
+public class FlowField {
+    public static final float DEFAULT_CELL_SIZE = Enemy.SIZE;
+
+    private static final int STRAIGHT = 10;
+    private static final int DIAGONAL = 14;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final float INV_SQRT2 = 0.70710677f;
+    //neighbour offsets, straight ones first
+    private static final int[] STEP_COLUMN = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] STEP_ROW = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final float originX, originY;
+    private final float cellSize;
+    private final int columns, rows;
+
+    private final boolean[] blocked;
+    private int blockedCount = 0;
+    private final int[] distance;
+    private final float[] directionX, directionY;
+    private final int[] visible; //bit per target the cell has a straight line to
+
+    //dijkstra queue of distance << 32 | cell, stale entries are skipped when popped
+    private long[] heap = new long[256];
+    private int heapSize = 0;
+
+    private final int[] targets = new int[World.MAX_PLAYERS];
+    private final int[] nextTargets = new int[World.MAX_PLAYERS];
+    private int targetCount = 0;
+    private boolean dirty = true;
+    private int rebuilds = 0;
+
+    public FlowField() {
+        this(World.AREA_OFFSET_X, World.AREA_OFFSET_Y, World.PLAYABLE_AREA_SIZE, World.PLAYABLE_AREA_SIZE,
+            DEFAULT_CELL_SIZE);
+    }
+
+    public FlowField(float originX, float originY, float width, float height, float cellSize) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        int cells = columns * rows;
+        blocked = new boolean[cells];
+        distance = new int[cells];
+        directionX = new float[cells];
+        directionY = new float[cells];
+        visible = new int[cells];
+    }
+
+    //blocks or frees every cell the rectangle touches, the field follows with the next update
+    public void setBlocked(float x, float y, float width, float height, boolean block) {
+        int c0 = column(x), c1 = column(x + width);
+        int r0 = row(y), r1 = row(y + height);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                if (blocked[cell] == block) continue;
+                blocked[cell] = block;
+                blockedCount += block ? 1 : -1;
+                dirty = true;
+            }
+        }
+    }
+
+    //rebuilds when a player changed cells, joined or left since the last call, returns whether it did
+    public boolean update(World world) {
+        if (blockedCount == 0) {
+            //nothing to walk around, enemies everywhere go straight at their player
+            if (dirty) {
+                Arrays.fill(directionX, 0f);
+                Arrays.fill(directionY, 0f);
+                dirty = false;
+            }
+            return false;
+        }
+
+        int count = 0;
+        for (int slot = 0; slot < World.MAX_PLAYERS; slot++) {
+            if (world.isPlayerActive(slot)) {
+                nextTargets[count++] = cellAt(world.getPlayerX(slot), world.getPlayerY(slot));
+            }
+        }
+        boolean changed = dirty || count != targetCount;
+        for (int i = 0; i < count && !changed; i++) {
+            changed = targets[i] != nextTargets[i];
+        }
+        if (!changed) return false;
+
+        System.arraycopy(nextTargets, 0, targets, 0, count);
+        targetCount = count;
+        rebuild();
+        dirty = false;
+        rebuilds++;
+        return true;
+    }
+
+    private void rebuild() {
+        Arrays.fill(distance, UNREACHABLE);
+        heapSize = 0;
+        for (int i = 0; i < targetCount; i++) {
+            int cell = targets[i];
+            if (blocked[cell] || distance[cell] == 0) continue;
+            distance[cell] = 0;
+            push(0, cell);
+        }
+
+        while (heapSize > 0) {
+            long entry = pop();
+            int cellDistance = (int) (entry >>> 32);
+            int cell = (int) entry;
+            if (cellDistance > distance[cell]) continue;
+
+            int c = cell % columns, r = cell / columns;
+            for (int k = 0; k < 8; k++) {
+                int next = neighbour(c, r, k);
+                if (next < 0) continue;
+                int nextDistance = cellDistance + (k < 4 ? STRAIGHT : DIAGONAL);
+                if (nextDistance < distance[next]) {
+                    distance[next] = nextDistance;
+                    push(nextDistance, next);
+                }
+            }
+        }
+
+        int everyTarget = (1 << targetCount) - 1;
+        for (int cell = 0; cell < distance.length; cell++) {
+            directionX[cell] = directionY[cell] = 0f;
+            if (distance[cell] == UNREACHABLE) {
+                //nowhere to lead to, enemies there fall back to going straight
+                visible[cell] = everyTarget;
+                continue;
+            }
+            int sees = 0;
+            for (int i = 0; i < targetCount; i++) {
+                if (lineOfSight(cell, targets[i])) sees |= 1 << i;
+            }
+            visible[cell] = sees;
+            if (distance[cell] == 0) continue;
+
+            int c = cell % columns, r = cell / columns;
+            int best = -1;
+            int bestDistance = distance[cell];
+            for (int k = 0; k < 8; k++) {
+                int next = neighbour(c, r, k);
+                if (next >= 0 && distance[next] < bestDistance) {
+                    best = k;
+                    bestDistance = distance[next];
+                }
+            }
+            if (best >= 0) {
+                float length = best < 4 ? 1f : INV_SQRT2;
+                directionX[cell] = STEP_COLUMN[best] * length;
+                directionY[cell] = STEP_ROW[best] * length;
+            }
+        }
+    }
+
+    //neighbour cell k of the cell at c, r or -1 when it is off the grid, blocked or a diagonal cuts a corner
+    private int neighbour(int c, int r, int k) {
+        int nc = c + STEP_COLUMN[k], nr = r + STEP_ROW[k];
+        if (nc < 0 || nc >= columns || nr < 0 || nr >= rows) return -1;
+        int next = nr * columns + nc;
+        if (blocked[next]) return -1;
+        if (k >= 4 && (blocked[r * columns + nc] || blocked[nr * columns + c])) return -1;
+        return next;
+    }
+
+    //walks the cells between the two, diagonal steps need both cells beside them free
+    private boolean lineOfSight(int from, int to) {
+        int c = from % columns, r = from / columns;
+        int c1 = to % columns, r1 = to / columns;
+        int dc = Math.abs(c1 - c), dr = Math.abs(r1 - r);
+        int sc = c < c1 ? 1 : -1, sr = r < r1 ? 1 : -1;
+        int error = dc - dr;
+        while (c != c1 || r != r1) {
+            int e2 = error * 2;
+            boolean stepColumn = e2 > -dr, stepRow = e2 < dc;
+            if (stepColumn && stepRow
+                && (blocked[r * columns + c + sc] || blocked[(r + sr) * columns + c])) return false;
+            if (stepColumn) {
+                error -= dr;
+                c += sc;
+            }
+            if (stepRow) {
+                error += dc;
+                r += sr;
+            }
+            if (blocked[r * columns + c]) return false;
+        }
+        return true;
+    }
+
+    private void push(int cellDistance, int cell) {
+        if (heapSize == heap.length) heap = Arrays.copyOf(heap, heapSize * 2);
+        long entry = (long) cellDistance << 32 | cell;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heap[parent] <= entry) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = i * 2 + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) child++;
+            if (last <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    public int cellAt(float x, float y) {
+        return row(y) * columns + column(x);
+    }
+
+    //unit direction to walk in from the cell, zero on a target cell
+    public float getDirectionX(int cell) { return directionX[cell]; }
+    public float getDirectionY(int cell) { return directionY[cell]; }
+    //whether the cell has a clear straight line to the player in the target cell
+    public boolean isVisible(int cell, int targetCell) {
+        if (blockedCount == 0) return true;
+        for (int i = 0; i < targetCount; i++) {
+            if (targets[i] == targetCell) return (visible[cell] & 1 << i) != 0;
+        }
+        //not a player the field was built for
+        return lineOfSight(cell, targetCell);
+    }
+
+    public boolean isBlocked(int cell) { return blocked[cell]; }
+
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public float getCellSize() { return cellSize; }
+    public int getRebuilds() { return rebuilds; }
+
+    private int column(float x) {
+        int c = (int) Math.floor((x - originX) / cellSize);
+        return c < 0 ? 0 : (c >= columns ? columns - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) Math.floor((y - originY) / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frame pacing and batching numbers, drawn as a text overlay in screen space. Samples are cheap to record
+ * every frame; percentiles and the text are only rebuilt a few times per second.
+ */
+public class FrameStats implements Disposable, CombatEvents.Subscriber {
+    private static final int SAMPLES = 256;
+    private static final float REFRESH_INTERVAL = 0.25f;
+
+    private final float[] frameTimes = new float[SAMPLES];
+    private final float[] sorted = new float[SAMPLES];
+    private int sampleCount = 0;
+    private int sampleIndex = 0;
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final StringBuilder text = new StringBuilder(256);
+    private final Matrix4 projection = new Matrix4();
+    private BitmapFont font;
+    private GLProfiler profiler;
+
+    private boolean visible = false;
+    private float sinceRefresh = REFRESH_INTERVAL;
+
+    //per frame numbers, set by the renderer
+    private int renderCalls;
+    private int maxSpritesInBatch;
+    private int drawnSprites;
+    private int culledSprites;
+    private int drawCalls;
+    private int textureBindings;
+    private long textureMemory;
+    private long soundsPlayed, soundsMerged, soundsDropped;
+    private boolean online = false;
+    private long bytesReceived, bytesSent, lastBytesReceived, lastBytesSent;
+    private float roundTrip;
+    private int corrections;
+    private int mapResident, mapCapacity;
+    private TickProfiler tickProfiler;
+    private final long[] combat = new long[CombatEvents.TYPES];
+    private int playerHealth;
+    private long mapLoads, mapEvictions;
+
+    public void recordFrame(float frameTime) {
+        frameTimes[sampleIndex] = frameTime;
+        sampleIndex = (sampleIndex + 1) % SAMPLES;
+        if (sampleCount < SAMPLES) sampleCount++;
+        sinceRefresh += frameTime;
+    }
+
+    //call right before the world batch begins, so the GL counters only cover the world
+    public void beginBatch() {
+        if (profiler != null && profiler.isEnabled()) profiler.reset();
+    }
+
+    public void recordBatch(SpriteBatch batch, int drawn, int culled) {
+        renderCalls = batch.renderCalls;
+        maxSpritesInBatch = batch.maxSpritesInBatch;
+        drawnSprites = drawn;
+        culledSprites = culled;
+        if (profiler != null && profiler.isEnabled()) {
+            drawCalls = profiler.getDrawCalls();
+            textureBindings = profiler.getTextureBindings();
+        }
+    }
+
+    public void recordTextureMemory(long bytes) {
+        textureMemory = bytes;
+    }
+
+    public void recordAudio(long played, long merged, long dropped) {
+        soundsPlayed = played;
+        soundsMerged = merged;
+        soundsDropped = dropped;
+    }
+
+    public void recordMap(int resident, int capacity, long loads, long evictions) {
+        mapResident = resident;
+        mapCapacity = capacity;
+        mapLoads = loads;
+        mapEvictions = evictions;
+    }
+
+    public void recordPlayerHealth(int health) {
+        playerHealth = health;
+    }
+
+    //counts every combat event, shown or not
+    @Override
+    public void onCombatEvent(int type, int enemyId, float x, float y, int value) {
+        combat[type]++;
+    }
+
+    //phase times shown while the profiler runs
+    public void setTickProfiler(TickProfiler profiler) {
+        this.tickProfiler = profiler;
+    }
+
+    public void recordNetwork(long received, long sent, float roundTripSeconds, int predictionCorrections) {
+        online = true;
+        bytesReceived = received;
+        bytesSent = sent;
+        roundTrip = roundTripSeconds;
+        corrections = predictionCorrections;
+    }
+
+    //the GL profiler wraps every GL call, so it only runs while the overlay is shown
+    public void toggle() {
+        visible = !visible;
+        if (profiler == null) profiler = new GLProfiler(Gdx.graphics);
+        if (visible) {
+            profiler.enable();
+        } else {
+            profiler.disable();
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void resize(int width, int height) {
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    //call outside of any other begin/end pair
+    public void render(SpriteBatch batch) {
+        if (!visible) return;
+
+        if (font == null) {
+            font = new BitmapFont();
+            projection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        }
+        if (sinceRefresh >= REFRESH_INTERVAL) {
+            rebuildText(sinceRefresh);
+            sinceRefresh = 0f;
+        }
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.draw(batch, text, 8, Gdx.graphics.getHeight() - 8);
+        batch.end();
+    }
+
+    private void rebuildText(float elapsed) {
+        System.arraycopy(frameTimes, 0, sorted, 0, sampleCount);
+        Arrays.sort(sorted, 0, sampleCount);
+
+        text.setLength(0);
+        text.append("FPS: ").append(Gdx.graphics.getFramesPerSecond()).append('\n');
+        text.append("frame ms  p50 ").append(millis(percentile(0.5f)))
+            .append("  p95 ").append(millis(percentile(0.95f)))
+            .append("  p99 ").append(millis(percentile(0.99f)))
+            .append("  max ").append(millis(percentile(1f))).append('\n');
+        if (tickProfiler != null && tickProfiler.isEnabled()) {
+            text.append("phase ms p50/p99 ");
+            for (int phase = TickProfiler.INPUT; phase < TickProfiler.PHASES; phase++) {
+                if (phase == TickProfiler.AI) text.append("\n    ");
+                text.append(' ').append(TickProfiler.getName(phase)).append(' ')
+                    .append(millis(tickProfiler.getRecentPercentile(phase, 0.5) / 1e9f)).append('/')
+                    .append(millis(tickProfiler.getRecentPercentile(phase, 0.99) / 1e9f));
+            }
+            text.append('\n');
+        }
+        text.append("render calls: ").append(renderCalls)
+            .append("  max sprites/batch: ").append(maxSpritesInBatch).append('\n');
+        text.append("GL draw calls: ").append(drawCalls)
+            .append("  texture binds: ").append(textureBindings).append('\n');
+        text.append("texture memory: ").append(textureMemory / 1024).append(" KB\n");
+        text.append("sounds played: ").append(soundsPlayed)
+            .append("  merged: ").append(soundsMerged)
+            .append("  dropped: ").append(soundsDropped).append('\n');
+        text.append("spawns: ").append(combat[CombatEvents.SPAWN])
+            .append("  shots: ").append(combat[CombatEvents.SHOOT])
+            .append("  hits: ").append(combat[CombatEvents.DAMAGE])
+            .append("  kills: ").append(combat[CombatEvents.KILL]).append('\n');
+        text.append("health: ").append(playerHealth)
+            .append("  player hits: ").append(combat[CombatEvents.PLAYER_HIT])
+            .append("  downs: ").append(combat[CombatEvents.PLAYER_DOWN]).append('\n');
+        text.append("map chunks: ").append(mapResident).append('/').append(mapCapacity)
+            .append("  loads: ").append(mapLoads)
+            .append("  evictions: ").append(mapEvictions).append('\n');
+        if (online) {
+            text.append("net KB/s down: ").append(Math.round((bytesReceived - lastBytesReceived) / 102.4f / elapsed) / 10f)
+                .append("  up: ").append(Math.round((bytesSent - lastBytesSent) / 102.4f / elapsed) / 10f)
+                .append("  input rtt ms: ").append(Math.round(roundTrip * 1000f))
+                .append("  corrections: ").append(corrections).append('\n');
+            lastBytesReceived = bytesReceived;
+            lastBytesSent = bytesSent;
+        }
+        text.append("sprites drawn: ").append(drawnSprites)
+            .append("  culled: ").append(culledSprites).append('\n');
+        text.append("GC count: ").append(gcCount());
+    }
+
+    private float percentile(float p) {
+        if (sampleCount == 0) return 0f;
+        int index = Math.min(sampleCount - 1, (int) (p * sampleCount));
+        return sorted[index];
+    }
+
+    //one decimal, without String.format garbage
+    private static float millis(float seconds) {
+        return Math.round(seconds * 10000f) / 10f;
+    }
+
+    public long gcCount() {
+        long count = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            count += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return count;
+    }
+
+    @Override
+    public void dispose() {
+        if (font != null) font.dispose();
+        if (profiler != null) profiler.disable();
+    }
+}
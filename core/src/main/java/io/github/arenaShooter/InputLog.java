@@ -0,0 +1,136 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The player's input for every fixed tick of a session, one {@link PlayerInput} byte per tick, together with
+ * the world seed and the simulation options that change what a tick does, interest management and steering.
+ * Played back into a world built with that seed and those options it reproduces the session exactly, on the
+ * desktop or headless. An hour of play is about 216 KB.
+ *
+ * File layout, big endian: int magic, int version, long seed, int option bits, float near and far interest
+ * radius, int mid and far interest interval, long checksum of the world after the last tick, int tick count,
+ * then the input bytes. The version goes up whenever the same input stops giving the same session.
+ */
+public class InputLog {
+    public static final int MAGIC = 0x41535250; //"ASRP"
+    public static final int VERSION = 2;
+    //option bits of the header
+    public static final int INTEREST = 1;
+    public static final int STEERING = 2;
+
+    private final long seed;
+    private int options = 0;
+    private float nearRadius, farRadius;
+    private int midInterval, farInterval;
+    private byte[] inputs;
+    private int size = 0;
+    private long checksum = 0;
+
+    public InputLog(long seed) {
+        this(seed, new byte[60 * 60]);
+    }
+
+    private InputLog(long seed, byte[] inputs) {
+        this.seed = seed;
+        this.inputs = inputs;
+    }
+
+    public void record(int input) {
+        if (size == inputs.length) inputs = Arrays.copyOf(inputs, size * 2);
+        inputs[size++] = (byte) input;
+    }
+
+    //takes the options of the world being recorded, once it is set up
+    public InputLog setOptions(World world) {
+        InterestManager interest = world.getInterest();
+        options = (interest != null ? INTEREST : 0) | (world.getSteering() != null ? STEERING : 0);
+        if (interest != null) {
+            nearRadius = interest.getNearRadius();
+            farRadius = interest.getFarRadius();
+            midInterval = interest.getMidInterval();
+            farInterval = interest.getFarInterval();
+        }
+        return this;
+    }
+
+    //sets the world up with the recorded options, replacing its own
+    public void applyOptions(World world) {
+        world.setInterest(hasOption(INTEREST)
+            ? new InterestManager().setRadii(nearRadius, farRadius).setIntervals(midInterval, farInterval) : null);
+        world.setSteering(hasOption(STEERING) ? new Steering() : null);
+    }
+
+    public boolean hasOption(int option) {
+        return (options & option) != 0;
+    }
+
+    //input of the given tick, 0 past the end
+    public int get(long tick) {
+        return tick < size ? inputs[(int) tick] & 0xff : 0;
+    }
+
+    public void write(FileHandle file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeInt(options);
+            out.writeFloat(nearRadius);
+            out.writeFloat(farRadius);
+            out.writeInt(midInterval);
+            out.writeInt(farInterval);
+            out.writeLong(checksum);
+            out.writeInt(size);
+            out.write(inputs, 0, size);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write input log: " + file, e);
+        }
+    }
+
+    public static InputLog read(FileHandle file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.read()))) {
+            if (in.readInt() != MAGIC) throw new GdxRuntimeException("Not an input log: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new GdxRuntimeException("Unsupported input log version " + version + ": " + file);
+
+            long seed = in.readLong();
+            int options = in.readInt();
+            float nearRadius = in.readFloat();
+            float farRadius = in.readFloat();
+            int midInterval = in.readInt();
+            int farInterval = in.readInt();
+            long checksum = in.readLong();
+            int size = in.readInt();
+            if (size < 0) throw new GdxRuntimeException("Corrupt input log, " + size + " ticks: " + file);
+            byte[] inputs = new byte[Math.max(1, size)];
+            in.readFully(inputs, 0, size);
+
+            InputLog log = new InputLog(seed, inputs);
+            log.options = options;
+            log.nearRadius = nearRadius;
+            log.farRadius = farRadius;
+            log.midInterval = midInterval;
+            log.farInterval = farInterval;
+            log.size = size;
+            log.checksum = checksum;
+            return log;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read input log: " + file, e);
+        }
+    }
+
+    //world checksum after the last recorded tick, written with the log so a replay can be verified
+    public void setChecksum(long checksum) { this.checksum = checksum; }
+    public long getChecksum() { return checksum; }
+    public long getSeed() { return seed; }
+    public int size() { return size; }
+}
@@ -0,0 +1,106 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Area of interest rings around the players. Each tick every enemy gets a tier from its distance to the
+ * nearest player: near enemies run the full AI every tick, farther ones only every few ticks and
+ * {@link Enemy#march} in between, so they still move smoothly but skip the distance math and state checks.
+ * Which tick an enemy gets its full update is staggered by id, so the work is spread evenly.
+ *
+ * Tiers only depend on the simulation state, so a world with interest management is as deterministic as one
+ * without. The rings are fixed in world units and must not follow the window size for that reason, nor decide
+ * what is drawn or sent to a client. Marching mostly saves the {@link Steering} of an enemy; enemies walking
+ * straight at their player are about as cheap to update as to tier.
+ */
+public class InterestManager {
+    public static final int NEAR = 0;
+    public static final int MID = 1;
+    public static final int FAR = 2;
+
+    //between two updates in the slowest ring an enemy walks a few pixels, so inside twice the attack range
+    //none can reach attack range while it only marches
+    public static final float DEFAULT_NEAR_RADIUS = EnemyArchetype.SKELETON.attackRange * 2;
+    //the half of the arena away from the player
+    public static final float DEFAULT_FAR_RADIUS = World.PLAYABLE_AREA_SIZE / 2;
+
+    private float nearRadius = DEFAULT_NEAR_RADIUS;
+    private float farRadius = DEFAULT_FAR_RADIUS;
+    private int midInterval = 2;
+    private int farInterval = 4;
+
+    private static final int DUE = 4; //bit next to the tier in the table
+
+    private byte[] tiers = new byte[64];
+    private int size = 0;
+    //per tier, an enemy is due when its id plus the phase has no bits of the mask set
+    private final int[] phases = new int[3];
+    private final int[] masks = new int[3];
+
+    //sizes the table for this tick's enemies, before any isDue
+    public void begin(int count, long tick) {
+        if (tiers.length < count) tiers = new byte[Math.max(count, tiers.length * 2)];
+        size = count;
+        masks[MID] = midInterval - 1;
+        masks[FAR] = farInterval - 1;
+        phases[MID] = (int) tick & masks[MID];
+        phases[FAR] = (int) tick & masks[FAR];
+    }
+
+    /**
+     * Tiers the enemy at this index by the distance to its target, the position of its nearest player, and
+     * returns whether it gets a full update this tick. Called from inside the update loops so there is no
+     * extra pass over the enemies; different indices may be scheduled from different threads. Tiers come out
+     * of the comparisons and table lookups rather than branches, enemies of all tiers are mixed in the loop.
+     */
+    public boolean isDue(int index, Enemy enemy, float targetX, float targetY) {
+        float dx = targetX - enemy.getX();
+        float dy = targetY - enemy.getY();
+        float distance2 = dx * dx + dy * dy;
+        int tier = (distance2 > nearRadius * nearRadius ? 1 : 0) + (distance2 > farRadius * farRadius ? 1 : 0);
+        int due = ((enemy.getId() + phases[tier]) & masks[tier]) == 0 ? DUE : 0;
+        tiers[index] = (byte) (tier | due);
+        return due != 0;
+    }
+
+    //tier of the enemy at this index in the last scheduled tick, near for enemies added since
+    public int getTier(int index) {
+        return index < size ? tiers[index] & ~DUE : NEAR;
+    }
+
+    //counted on demand, these are only read for stats
+    public int getCount(int tier) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if ((tiers[i] & ~DUE) == tier) count++;
+        }
+        return count;
+    }
+
+    public int getFullUpdates() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if ((tiers[i] & DUE) != 0) count++;
+        }
+        return count;
+    }
+
+    public InterestManager setRadii(float near, float far) {
+        this.nearRadius = near;
+        this.farRadius = Math.max(near, far);
+        return this;
+    }
+
+    //ticks between full updates in the mid and far rings, rounded up to powers of two so picking the
+    //enemies that are due is a mask instead of a division per enemy
+    public InterestManager setIntervals(int mid, int far) {
+        this.midInterval = MathUtils.nextPowerOfTwo(Math.max(1, mid));
+        this.farInterval = MathUtils.nextPowerOfTwo(Math.max(1, far));
+        return this;
+    }
+
+    public float getNearRadius() { return nearRadius; }
+    public float getFarRadius() { return farRadius; }
+    public int getMidInterval() { return midInterval; }
+    public int getFarInterval() { return farInterval; }
+}
@@ -0,0 +1,78 @@
+package io.github.arenaShooter;
+
+import java.util.Arrays;
+
+/**
+ * Counts of durations in nanoseconds, in log-linear buckets the way HdrHistogram lays them out: every power
+ * of two is split into 32 equal buckets, so any value is known to about 3% whether it is a microsecond or a
+ * second, in a fixed 4 KB. Recording is one array increment; values above about a minute count as a minute.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 35; //2^36 ns is 68 s
+    public static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    public static final long HIGHEST_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final int[] counts = new int[BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, HIGHEST_VALUE);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = sum = max = 0;
+    }
+
+    //the value at or below which the given fraction of samples lie, to bucket precision, 0 when empty
+    public long percentile(double fraction) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestIn(i), max);
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        //the leading one is dropped, the next five bits pick the bucket inside this power of two
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    //smallest value that lands in the bucket
+    public static long lowestIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << shift;
+    }
+
+    public static long highestIn(int bucket) {
+        return bucket + 1 < BUCKETS ? lowestIn(bucket + 1) - 1 : HIGHEST_VALUE;
+    }
+
+    public int getCount(int bucket) { return counts[bucket]; }
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+}
@@ -0,0 +1,49 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/** Progress bar shown while the assets load. Needs nothing from the AssetManager itself. */
+public class LoadingScreen implements Disposable {
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 16;
+
+    private final ShapeRenderer shapes = new ShapeRenderer();
+    private final BitmapFont font = new BitmapFont();
+    private final Matrix4 projection = new Matrix4();
+
+    public void render(SpriteBatch batch, float progress) {
+        int width = Gdx.graphics.getWidth();
+        int height = Gdx.graphics.getHeight();
+        projection.setToOrtho2D(0, 0, width, height);
+
+        ScreenUtils.clear(Color.BLACK);
+
+        float x = (width - BAR_WIDTH) / 2f;
+        float y = (height - BAR_HEIGHT) / 2f;
+        shapes.setProjectionMatrix(projection);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(Color.DARK_GRAY);
+        shapes.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapes.setColor(Color.WHITE);
+        shapes.rect(x, y, BAR_WIDTH * progress, BAR_HEIGHT);
+        shapes.end();
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.draw(batch, "Loading " + (int) (progress * 100) + "%", x, y - 8);
+        batch.end();
+    }
+
+    @Override
+    public void dispose() {
+        shapes.dispose();
+        font.dispose();
+    }
+}
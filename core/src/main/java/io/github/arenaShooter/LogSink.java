@@ -0,0 +1,103 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log lines written by a background thread, at most a set number per second. The caller never waits on the
+ * console: {@link #acquire} takes a line from the budget, so a message is only built when it will go out,
+ * and {@link #write} queues it without blocking. Lines over the budget or the queue are counted and reported
+ * as one line when logging resumes.
+ */
+public class LogSink implements Disposable {
+    private static final class Line {
+        final String tag, message;
+
+        Line(String tag, String message) {
+            this.tag = tag;
+            this.message = message;
+        }
+    }
+
+    private final ArrayBlockingQueue<Line> queue;
+    private final AtomicLong suppressed = new AtomicLong();
+    private final Thread writer;
+
+    //token bucket, refilled at linesPerSecond up to one second's worth
+    private final float linesPerSecond;
+    private float tokens;
+    private long lastRefill = System.nanoTime();
+
+    public LogSink(int linesPerSecond, int capacity) {
+        this.linesPerSecond = Math.max(1, linesPerSecond);
+        this.tokens = this.linesPerSecond;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        writer = new Thread(this::run, "log-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    //whether a line may go out now, taking it from the budget; a refused line counts as suppressed
+    public synchronized boolean acquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(linesPerSecond, tokens + (now - lastRefill) / 1e9f * linesPerSecond);
+        lastRefill = now;
+        if (tokens < 1f) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        tokens -= 1f;
+        return true;
+    }
+
+    public void write(String tag, String message) {
+        if (!queue.offer(new Line(tag, message))) suppressed.incrementAndGet();
+    }
+
+    //acquire and write in one, for messages that cost nothing to build
+    public void log(String tag, String message) {
+        if (acquire()) write(tag, message);
+    }
+
+    public long getSuppressed() { return suppressed.get(); }
+
+    private void run() {
+        try {
+            while (true) {
+                print(queue.take());
+            }
+        } catch (InterruptedException e) {
+            //disposed, flush what is left
+            Line line;
+            while ((line = queue.poll()) != null) print(line);
+        }
+    }
+
+    private void print(Line line) {
+        long skipped = suppressed.getAndSet(0);
+        if (skipped > 0) output(line.tag, skipped + " lines suppressed");
+        output(line.tag, line.message);
+    }
+
+    private static void output(String tag, String message) {
+        if (Gdx.app != null) {
+            Gdx.app.log(tag, message);
+        } else {
+            System.out.println("[" + tag + "] " + message);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,141 +3,398 @@ package io.github.arenaShooter;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
+import java.net.InetSocketAddress;
+
+
 public class Main extends ApplicationAdapter {
     private SpriteBatch batch;
     private OrthographicCamera camera;
     private ScreenViewport viewport;
-    private Texture player;
-    private Texture map;
-
-    private float playerX = 500;
-    private float playerY = 500;
-    private float playerSpeed = 300;
-    private final float MAP_TEXTURE_SIZE = 1500;
-    private final float PLAYABLE_AREA_SIZE = 1400;
-    private final float PLAYER_MARGIN = 28;
+    private TextureRegion player;
+    private TileMap tileMap;
+    private TileMapRenderer mapRenderer;
+    private TextureRegion bone;
+    private Sound deathSound;
 
     float WORLD_WIDTH = 1000f;
     float WORLD_HEIGHT = 1000f;
 
-    private final float AREA_OFFSET_X = (MAP_TEXTURE_SIZE - PLAYABLE_AREA_SIZE) / 2f;
-    private final float AREA_OFFSET_Y = (MAP_TEXTURE_SIZE - PLAYABLE_AREA_SIZE) / 2f;
+    private World world;
+    private EnemyRenderer enemyRenderer;
+    private Assets assets;
+    private final SimulationClock clock = new SimulationClock();
+    private final FrameStats stats = new FrameStats();
+    private final TickProfiler profiler = new TickProfiler();
+    private final AudioMixer mixer = new AudioMixer();
+    private LogSink log;
+    private AudioMixer.Effect deathEffect;
+    private final Rectangle view = new Rectangle();
+    private final StartupTimeline timeline = new StartupTimeline();
+    private LoadingScreen loadingScreen;
+    private boolean deathFramesRequested = false;
+    private boolean firstFrameDrawn = false;
+
+    //-DarenaShooter.record=file records the session, -DarenaShooter.replay=file plays one back
+    private final String recordPath = System.getProperty("arenaShooter.record");
+    private final String replayPath = System.getProperty("arenaShooter.replay");
+    private InputLog recording;
+    private InputLog replay;
 
-    private Array<Enemy> enemies;
-    private TextureAtlas atlasSkeleton;
-    private TextureAtlas atlasDeath;
+    //-DarenaShooter.connect=host[:port] joins a server instead of running the world locally
+    private final String connectAddress = System.getProperty("arenaShooter.connect");
+    private NetClient client;
+
+    //-DarenaShooter.profile=file.csv (or .json) times every frame and writes the histograms on exit;
+    //without it phases are only timed while the overlay is up or a flight recording takes tick events
+    private final String profilePath = System.getProperty("arenaShooter.profile");
+
+    //time per frame the loader may use while the loading screen is up
+    private static final int LOAD_BUDGET_MILLIS = 12;
+    private static final float DEATH_SOUND_LENGTH = 0.45f;
+    //map chunks kept in memory, a window and the ring around it
+    private static final int MAP_CHUNKS = 36;
 
 
     @Override
     public void create() {
+        timeline.mark("create");
+        profiler.setEnabled(isProfiling());
+        stats.setTickProfiler(profiler);
+        //hits and kills are logged from a background thread, a few lines a second at most
+        log = new LogSink(10, 256);
         batch = new SpriteBatch();
         camera = new OrthographicCamera();
         viewport = new ScreenViewport(camera); //camera view
         viewport.setUnitsPerPixel(1f);
 
-        player = new Texture("dummy.png");
-        map = new Texture("map.png");
+        //assets load in the background while the loading screen draws
+        assets = new Assets();
+        assets.setListener(path -> timeline.mark("loaded " + path));
+        assets.acquireAsync(Assets.GAMEPLAY_ATLAS, TextureAtlas.class);
+        assets.acquireAsync(Assets.DEATH_SOUND, Sound.class);
+        loadingScreen = new LoadingScreen();
+        timeline.mark("loading queued");
+    }
+
+    //everything that needs the loaded assets
+    private void startGame() {
+        loadingScreen.dispose();
+        loadingScreen = null;
 
-        atlasSkeleton = new TextureAtlas(Gdx.files.internal("skeleton.atlas"));
-        atlasDeath = new TextureAtlas(Gdx.files.internal("death.atlas"));
+        //everything but the death frames sits on one atlas page
+        TextureAtlas gameplay = assets.get(Assets.GAMEPLAY_ATLAS, TextureAtlas.class);
+        player = gameplay.findRegion(Assets.PLAYER);
+        //the arena is drawn from a small tileset, streamed in around the camera
+        tileMap = TileMap.open(Gdx.files.internal(Assets.ARENA_MAP));
+        mapRenderer = new TileMapRenderer(new TileChunks(tileMap, MAP_CHUNKS), gameplay.findRegion(Assets.TILESET),
+            Assets.TILESET_TILE_PIXELS);
+        bone = gameplay.findRegion(Assets.BONE);
+        deathSound = assets.get(Assets.DEATH_SOUND, Sound.class);
+        //a wave dying at once is heard as a few voices, not one per skeleton
+        deathEffect = mixer.register(deathSound, DEATH_SOUND_LENGTH, 4, 1);
+        enemyRenderer = new EnemyRenderer(gameplay);
 
-        enemies = new Array<>();
-        for (int i = 0; i < 3; i++) {
-            enemies.add(new Enemy((float)(Math.random() * 501), (float)(Math.random() * 501), atlasSkeleton, atlasDeath));
+        if (connectAddress != null) {
+            startNetworkGame();
+            return;
         }
 
-        camera.position.set(playerX, playerY, 0);
+        //a replay brings its own seed, -DarenaShooter.seed fixes one for a new session
+        if (replayPath != null) replay = InputLog.read(Gdx.files.absolute(replayPath));
+        long seed = replay != null ? replay.getSeed() : Long.getLong("arenaShooter.seed", MathUtils.random.nextLong());
+        if (recordPath != null) recording = new InputLog(seed);
+
+        world = new World(seed);
+        //audio, the overlay and the log hear about the tick's combat once it is over
+        world.getEvents().subscribe(this::combatEvent);
+        world.getEvents().subscribe(stats);
+        world.getEvents().subscribe(new CombatLog(log));
+        world.setWaveDirector(WaveDirector.createDefault());
+        world.setInterest(new InterestManager());
+        world.setSteering(new Steering());
+        //a replay runs with the options it was recorded with
+        if (replay != null) replay.applyOptions(world);
+        if (recording != null) recording.setOptions(world);
+        world.setProfiler(profiler);
+
+        camera.position.set(world.getPlayerX(), world.getPlayerY(), 0);
+        timeline.mark("world ready");
     }
 
-    @Override
-    public void render() {
-        input();
-        logic();
-        draw();
+    //the world here only holds what the server sent, it is never ticked
+    private void startNetworkGame() {
+        int colon = connectAddress.lastIndexOf(':');
+        String host = colon < 0 ? connectAddress : connectAddress.substring(0, colon);
+        int port = colon < 0 ? NetProtocol.DEFAULT_PORT : Integer.parseInt(connectAddress.substring(colon + 1));
+        client = new NetClient(new InetSocketAddress(host, port), clock.getStep());
+        world = new World(0);
+
+        camera.position.set(world.getPlayerX(), world.getPlayerY(), 0);
+        timeline.mark("connecting to " + host + ":" + port);
     }
 
-    private void input() {
-        float delta = Gdx.graphics.getDeltaTime();
+    private void combatEvent(int type, int enemyId, float x, float y, int value) {
+        if (type == CombatEvents.KILL) enemyKilled(x, y);
+    }
 
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) playerY += playerSpeed * delta;
-        if (Gdx.input.isKeyPressed(Input.Keys.S)) playerY -= playerSpeed * delta;
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) playerX -= playerSpeed * delta;
-        if (Gdx.input.isKeyPressed(Input.Keys.D)) playerX += playerSpeed * delta;
+    private void enemyKilled(float x, float y) {
+        mixer.play(deathEffect, x + Enemy.SIZE / 2, y + Enemy.SIZE / 2);
+        requestDeathFrames();
     }
 
-    private void logic() {
-        float delta = Gdx.graphics.getDeltaTime();
+    private void receiveSnapshots(float frameTime) {
+        if (!client.update(frameTime)) return;
+        world.loadState(client.getView());
+        IntArray killed = client.getKilled();
+        for (int i = 0; i < killed.size; i++) {
+            Enemy enemy = world.getEnemies().get(killed.get(i));
+            enemyKilled(enemy.getX(), enemy.getY());
+        }
+    }
 
-        //player does not exceed the border of the map
-        playerX = MathUtils.clamp(playerX,
-            AREA_OFFSET_X + PLAYER_MARGIN,
-            AREA_OFFSET_X + PLAYABLE_AREA_SIZE - PLAYER_MARGIN);
-        playerY = MathUtils.clamp(playerY,
-            AREA_OFFSET_Y + PLAYER_MARGIN,
-            AREA_OFFSET_Y + PLAYABLE_AREA_SIZE - PLAYER_MARGIN);
+    //nobody sees a death animation before the first kill, so its atlas loads in the background then
+    private void requestDeathFrames() {
+        if (deathFramesRequested) return;
+        deathFramesRequested = true;
+        assets.acquireAsync(Assets.DEATH_ATLAS, TextureAtlas.class);
+    }
 
-        for (int i = 0; i < enemies.size; i++) {
-            if (enemies.get(i).isDeathAnimationFinished()) {
-                enemies.get(i).dispose();
-                enemies.removeIndex(i);
-            } else {
-                enemies.get(i).update(delta, playerX, playerY);
+    private void updateLoading() {
+        if (!deathFramesRequested || enemyRenderer.hasDeathFrames()) return;
+        assets.update();
+        if (assets.isLoaded(Assets.DEATH_ATLAS)) {
+            enemyRenderer.setDeathFrames(assets.get(Assets.DEATH_ATLAS, TextureAtlas.class));
+            Gdx.app.log("Assets", "death frames loaded, texture memory " + megabytes(assets.getTextureMemory()) + " MB");
+        }
+    }
+
+    private static float megabytes(long bytes) {
+        return Math.round(bytes / 104857.6f) / 10f;
+    }
+
+    //profiler scopes are only there to be closed, they are never read
+    @Override
+    @SuppressWarnings("try")
+    public void render() {
+        if (loadingScreen != null) {
+            if (!assets.update(LOAD_BUDGET_MILLIS)) {
+                loadingScreen.render(batch, assets.getProgress());
+                return;
             }
+            startGame();
         }
+
+        float frameTime = Gdx.graphics.getDeltaTime();
+        stats.recordFrame(frameTime);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) stats.toggle();
+        //every frame, a recording can start or stop any time, jcmd JFR.start included
+        profiler.setEnabled(isProfiling());
+        TickProfiler.Scope frame = profiler.time(TickProfiler.FRAME);
+
+        //simulation runs in fixed ticks, rendering interpolates between the last two
+        int steps = clock.advance(frameTime);
+        mixer.setListener(camera.position.x, camera.position.y);
+        for (int i = 0; i < steps; i++) {
+            int input;
+            try (TickProfiler.Scope scope = profiler.time(TickProfiler.INPUT)) {
+                input = nextInput();
+            }
+            if (client != null) {
+                client.tick(input);
+                continue;
+            }
+            if (recording != null) recording.record(input);
+            try (TickProfiler.Scope scope = profiler.time(TickProfiler.LOGIC)) {
+                world.tick(clock.getStep(), input);
+            }
+        }
+        if (client != null) receiveSnapshots(frameTime);
+        mixer.update(frameTime);
+        updateLoading();
+        try (TickProfiler.Scope scope = profiler.time(TickProfiler.DRAW)) {
+            draw(clock.getAlpha());
+        }
+        if (stats.isVisible()) {
+            stats.recordTextureMemory(assets.getTextureMemory());
+            stats.recordAudio(mixer.getPlayed(), mixer.getMerged(), mixer.getDropped());
+            stats.recordPlayerHealth(world.getPlayerHealth(client != null ? Math.max(0, client.getSlot()) : 0));
+            TileChunks chunks = mapRenderer.getChunks();
+            stats.recordMap(chunks.getResident(), chunks.getCapacity(), chunks.getLoads(), chunks.getEvictions());
+            if (client != null) {
+                stats.recordNetwork(client.getBytesReceived(), client.getBytesSent(), client.getRoundTrip(),
+                    client.getCorrections());
+            }
+        }
+        stats.render(batch);
+        frame.close();
+        profiler.commit(world.getTick(), world.getEnemies().size, world.getProjectiles().size());
+
+        if (!firstFrameDrawn) {
+            firstFrameDrawn = true;
+            timeline.mark("first frame");
+            timeline.log("Startup");
+            Gdx.app.log("Startup", "to first frame " + timeline.getTotalMillis() + " ms, texture memory "
+                + megabytes(assets.getTextureMemory()) + " MB");
+        }
+    }
+
+    private boolean isProfiling() {
+        return profilePath != null || stats.isVisible() || TickProfiler.isRecording();
     }
 
-    private void draw() {
+    //recorded input while a replay lasts, the keyboard after that
+    private int nextInput() {
+        if (replay != null) {
+            if (world.getTick() < replay.size()) return replay.get(world.getTick());
+
+            boolean match = world.checksum() == replay.getChecksum();
+            Gdx.app.log("Replay", replay.size() + " ticks replayed, checksum " + (match ? "matches" : "DIFFERS"));
+            replay = null;
+        }
+        return input();
+    }
+
+    private int input() {
+        int input = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.W)) input |= PlayerInput.UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.S)) input |= PlayerInput.DOWN;
+        if (Gdx.input.isKeyPressed(Input.Keys.A)) input |= PlayerInput.LEFT;
+        if (Gdx.input.isKeyPressed(Input.Keys.D)) input |= PlayerInput.RIGHT;
+        return input;
+    }
+
+    private void draw(float alpha) {
         ScreenUtils.clear(Color.BLACK);
 
+        //online our own player is predicted and moves every tick, everything else moves between snapshots
         float delta = Gdx.graphics.getDeltaTime();
+        int ownSlot = client != null ? client.getSlot() : 0;
+        float drawPlayerX = client != null && client.hasSnapshot() ? client.getPredictedX(alpha) : world.getPlayerX(alpha);
+        float drawPlayerY = client != null && client.hasSnapshot() ? client.getPredictedY(alpha) : world.getPlayerY(alpha);
+        float step = clock.getStep();
+        if (client != null) {
+            alpha = client.getInterpolation();
+            step = client.getSnapshotInterval();
+        }
 
-        camera.position.x += (playerX - camera.position.x) * 5f * delta;
-        camera.position.y += (playerY - camera.position.y) * 5f * delta;
+        camera.position.x += (drawPlayerX - camera.position.x) * 5f * delta;
+        camera.position.y += (drawPlayerY - camera.position.y) * 5f * delta;
 
         float quarterWidth = WORLD_WIDTH / 4f;
         float quarterHeight = WORLD_HEIGHT / 4f;
 
-        camera.position.x = MathUtils.clamp(camera.position.x, quarterWidth, MAP_TEXTURE_SIZE - quarterWidth);
-        camera.position.y = MathUtils.clamp(camera.position.y, quarterHeight, MAP_TEXTURE_SIZE - quarterHeight);
+        camera.position.x = MathUtils.clamp(camera.position.x, quarterWidth, tileMap.getWidth() - quarterWidth);
+        camera.position.y = MathUtils.clamp(camera.position.y, quarterHeight, tileMap.getHeight() - quarterHeight);
 
         camera.update();
         batch.setProjectionMatrix(camera.combined);
 
+        //visible part of the world
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        view.set(camera.position.x - viewWidth / 2f, camera.position.y - viewHeight / 2f, viewWidth, viewHeight);
+
+        int drawn = 0;
+        int culled = 0;
+
+        stats.beginBatch();
         batch.begin();
-        batch.draw(map, 0, 0, MAP_TEXTURE_SIZE, MAP_TEXTURE_SIZE);
-        batch.draw(player, playerX - 32, playerY - 32, 64, 64);
+        drawn += mapRenderer.draw(batch, view);
+        batch.draw(player, drawPlayerX - 32, drawPlayerY - 32, 64, 64);
+        drawn++;
+        for (int slot = 0; slot < World.MAX_PLAYERS; slot++) {
+            if (slot == ownSlot || !world.isPlayerActive(slot)) continue;
+            batch.draw(player, world.getPlayerX(slot, alpha) - 32, world.getPlayerY(slot, alpha) - 32, 64, 64);
+            drawn++;
+        }
 
+        //sorted by texture: everything on the gameplay page first, dying enemies (death atlas) last,
+        //so the batch flushes at most once for the texture switch
+        Array<Enemy> enemies = world.getEnemies();
+        int dying = 0;
         for (int i = 0; i < enemies.size; i++) {
-            enemies.get(i).render(batch);
+            Enemy enemy = enemies.get(i);
+            if (!isVisible(enemy, alpha)) {
+                culled++;
+                continue;
+            }
+            if (enemy.isDead()) {
+                dying++;
+                continue;
+            }
+            enemyRenderer.render(batch, enemy, alpha);
+            drawn++;
+        }
+
+        Projectiles projectiles = world.getProjectiles();
+        int culledBullets = projectiles.render(batch, bone, alpha, step, view);
+        drawn += projectiles.size() - culledBullets;
+        culled += culledBullets;
+
+        for (int i = 0; i < enemies.size && dying > 0; i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.isDead() && isVisible(enemy, alpha)) {
+                enemyRenderer.render(batch, enemy, alpha);
+                drawn++;
+                dying--;
+            }
         }
 
         batch.end();
+        stats.recordBatch(batch, drawn, culled);
+    }
+
+    private boolean isVisible(Enemy enemy, float alpha) {
+        float x = enemy.getX(alpha);
+        float y = enemy.getY(alpha);
+        //72 is the biggest frame we draw (death animation)
+        return x + 72 >= view.x && x <= view.x + view.width && y + 72 >= view.y && y <= view.y + view.height;
     }
 
     @Override
     public void resize(int width, int height) {
         viewport.update(width, height, true);
+        stats.resize(width, height);
     }
 
     @Override
     public void dispose() {
         batch.dispose();
-        player.dispose();
-        map.dispose();
-
-        for (int i = 0; i < enemies.size; i++) {
-            enemies.get(i).dispose();
+        stats.dispose();
+        log.dispose();
+        //closed while still loading
+        if (loadingScreen != null) loadingScreen.dispose();
+        if (client != null) client.dispose();
+        if (recording != null) {
+            recording.setChecksum(world.checksum());
+            recording.write(Gdx.files.absolute(recordPath));
+            Gdx.app.log("Replay", recording.size() + " ticks recorded to " + recordPath + ", seed " + recording.getSeed());
         }
+        if (profilePath != null) {
+            profiler.dump(Gdx.files.absolute(profilePath));
+            Gdx.app.log("Profile", profiler.getFrames() + " frames written to " + profilePath);
+        }
+        if (world != null) world.dispose();
+        if (tileMap != null) tileMap.dispose();
+
+        assets.release(Assets.GAMEPLAY_ATLAS);
+        assets.release(Assets.DEATH_SOUND);
+        if (deathFramesRequested) assets.release(Assets.DEATH_ATLAS);
+
+        Gdx.app.log("Assets", "loads: " + assets.getLoads() + ", loads avoided: " + assets.getLoadsAvoided());
+        assets.dispose();
     }
 }
@@ -0,0 +1,317 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Client side of a networked match, see {@link NetProtocol}. Non-blocking, everything happens in
+ * {@link #tick} and {@link #update} on the render thread.
+ *
+ * The client's own player is predicted: every tick its input is applied locally right away and sent to the
+ * server, together with all inputs the server has not confirmed yet, so a lost packet costs nothing. When a
+ * snapshot says which input the server got to, the player is put at the server's position and the inputs
+ * after that are applied again. Both sides move with {@link World#movePlayerX}, so this only corrects
+ * anything when the server had to skip inputs.
+ *
+ * Everything else is shown one snapshot interval in the past: {@link #getView()} holds the latest snapshot
+ * with each enemy's previous position taken from the snapshot before, so interpolating with
+ * {@link #getInterpolation()} moves smoothly from one snapshot to the next.
+ */
+public class NetClient implements Disposable {
+    private static final float JOIN_RETRY = 0.25f;
+    //received snapshots kept as delta baselines, covers the server's history
+    private static final int HISTORY = 32;
+    private static final int INPUT_HISTORY = 256;
+    //below this a reconciled position counts as the prediction being right
+    private static final float CORRECTION_EPSILON = 0.01f;
+
+    private final DatagramChannel channel;
+    private final float step;
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(64 + NetProtocol.MAX_INPUTS_PER_PACKET);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+
+    private final Snapshot[] received = new Snapshot[HISTORY];
+    private int nextReceived = 0;
+    private Snapshot latest;
+    private Snapshot previous;
+    private final Snapshot view = new Snapshot();
+    private final IntArray killed = new IntArray();
+
+    private int slot = -1;
+    private boolean full = false;
+    private float time = 0f;
+    private float lastJoin = -JOIN_RETRY;
+    private float snapshotTime = 0f;
+    private float snapshotInterval;
+
+    //inputs by sequence number, the first input is 1
+    private final byte[] inputs = new byte[INPUT_HISTORY];
+    private final float[] inputSent = new float[INPUT_HISTORY];
+    private int nextSequence = 1;
+    private int appliedSequence = 0;
+    private float predictedX, predictedY, prevPredictedX, prevPredictedY;
+
+    private long bytesSent, bytesReceived;
+    private long packetsSent, packetsReceived;
+    private long snapshotsReceived, snapshotsDropped, snapshotsCorrupt;
+    private int corrections = 0;
+    private float lastCorrection = 0f;
+    private float roundTrip = 0f;
+
+    public NetClient(InetSocketAddress server, float step) {
+        this.step = step;
+        this.snapshotInterval = step;
+        for (int i = 0; i < HISTORY; i++) {
+            received[i] = new Snapshot();
+            received[i].tick = -1; //matches no baseline
+        }
+        try {
+            channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.connect(server);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't open a socket to " + server, e);
+        }
+    }
+
+    /**
+     * One fixed tick of the local player. Does nothing until the first snapshot placed the player, the
+     * input is dropped then.
+     */
+    public void tick(int input) {
+        if (!hasSnapshot()) return;
+
+        int sequence = nextSequence++;
+        inputs[sequence % INPUT_HISTORY] = (byte) input;
+        inputSent[sequence % INPUT_HISTORY] = time;
+        prevPredictedX = predictedX;
+        prevPredictedY = predictedY;
+        predictedX = World.movePlayerX(predictedX, input, step);
+        predictedY = World.movePlayerY(predictedY, input, step);
+
+        //everything the server has not applied yet, newest last
+        int first = Math.max(appliedSequence + 1, nextSequence - NetProtocol.MAX_INPUTS_PER_PACKET);
+        sendBuffer.clear();
+        sendBuffer.putInt(NetProtocol.PROTOCOL_ID);
+        sendBuffer.put(NetProtocol.INPUT);
+        sendBuffer.putLong(latest.tick);
+        sendBuffer.putInt(first);
+        sendBuffer.put((byte) (nextSequence - first));
+        for (int s = first; s < nextSequence; s++) {
+            sendBuffer.put(inputs[s % INPUT_HISTORY]);
+        }
+        send();
+    }
+
+    /**
+     * Receives everything that arrived. Returns true when a new snapshot made it into {@link #getView()},
+     * {@link #getKilled()} then lists the enemies that died since the one before.
+     */
+    public boolean update(float frameTime) {
+        time += frameTime;
+        if (slot < 0 && !full && time - lastJoin >= JOIN_RETRY) {
+            lastJoin = time;
+            sendBuffer.clear();
+            sendBuffer.putInt(NetProtocol.PROTOCOL_ID);
+            sendBuffer.put(NetProtocol.JOIN);
+            send();
+        }
+
+        boolean updated = false;
+        while (true) {
+            receiveBuffer.clear();
+            int size;
+            try {
+                size = channel.read(receiveBuffer);
+            } catch (IOException e) {
+                //nobody listening yet, the join is retried
+                break;
+            }
+            if (size <= 0) break;
+            bytesReceived += size;
+            packetsReceived++;
+            receiveBuffer.flip();
+            if (receiveBuffer.remaining() < 5 || receiveBuffer.getInt() != NetProtocol.PROTOCOL_ID) continue;
+
+            byte type = receiveBuffer.get();
+            if (type == NetProtocol.WELCOME) {
+                int welcomeSlot = receiveBuffer.hasRemaining() ? receiveBuffer.get() : -1;
+                if (welcomeSlot >= 0 && welcomeSlot < World.MAX_PLAYERS) slot = welcomeSlot;
+            } else if (type == NetProtocol.SERVER_FULL) {
+                full = true;
+            } else if (type == NetProtocol.SNAPSHOT) {
+                updated |= receiveSnapshot(receiveBuffer);
+            }
+        }
+        return updated;
+    }
+
+    private boolean receiveSnapshot(ByteBuffer in) {
+        //anyone can send us a datagram, a malformed one is dropped without touching the baselines
+        Snapshot snapshot = null;
+        try {
+            int newSlot = in.get();
+            int applied = in.getInt();
+            if (newSlot < 0 || newSlot >= World.MAX_PLAYERS) throw new GdxRuntimeException("Bad slot " + newSlot);
+
+            //late or duplicate, or against a baseline we no longer have
+            long baseTick = SnapshotCodec.peekBaseTick(in);
+            long tick = in.getLong(in.position() + 5);
+            Snapshot base = baseTick < 0 ? null : find(baseTick);
+            if ((latest != null && tick <= latest.tick) || (baseTick >= 0 && base == null)) {
+                snapshotsDropped++;
+                return false;
+            }
+
+            int next = nextReceived;
+            if (received[next] == base) next = (next + 1) % HISTORY;
+            snapshot = received[next];
+            SnapshotCodec.read(in, base, snapshot);
+            nextReceived = (next + 1) % HISTORY;
+            slot = newSlot;
+            snapshotsReceived++;
+
+            previous = latest;
+            latest = snapshot;
+            snapshotTime = time;
+            if (previous != null) snapshotInterval = (latest.tick - previous.tick) * step;
+
+            reconcile(applied);
+            buildView();
+            return true;
+        } catch (BufferUnderflowException | GdxRuntimeException e) {
+            //the slot may be half written, it must not pass for a baseline
+            if (snapshot != null && snapshot != latest) snapshot.tick = -1;
+            snapshotsCorrupt++;
+            return false;
+        }
+    }
+
+    private Snapshot find(long tick) {
+        for (int i = 0; i < HISTORY; i++) {
+            if (received[i].tick == tick) return received[i];
+        }
+        return null;
+    }
+
+    //back to the server's position of our player, then the inputs it has not seen yet on top
+    private void reconcile(int applied) {
+        if (slot < 0 || !latest.isPlayerActive(slot)) return;
+
+        boolean first = appliedSequence == 0 && nextSequence == 1;
+        if (applied > appliedSequence) {
+            roundTrip = time - inputSent[applied % INPUT_HISTORY];
+            appliedSequence = applied;
+        }
+
+        float x = latest.getPlayerX(slot);
+        float y = latest.getPlayerY(slot);
+        for (int s = appliedSequence + 1; s < nextSequence; s++) {
+            x = World.movePlayerX(x, inputs[s % INPUT_HISTORY], step);
+            y = World.movePlayerY(y, inputs[s % INPUT_HISTORY], step);
+        }
+
+        if (first) {
+            predictedX = prevPredictedX = x;
+            predictedY = prevPredictedY = y;
+            return;
+        }
+        float error = Math.abs(x - predictedX) + Math.abs(y - predictedY);
+        if (error > CORRECTION_EPSILON) {
+            corrections++;
+            lastCorrection = error;
+        }
+        //move the interpolation start along, so the correction does not jump back and forth
+        prevPredictedX += x - predictedX;
+        prevPredictedY += y - predictedY;
+        predictedX = x;
+        predictedY = y;
+    }
+
+    //latest snapshot, interpolating from where the one before had everything
+    private void buildView() {
+        view.set(latest);
+        killed.clear();
+        if (previous == null) return;
+
+        for (int s = 0; s < World.MAX_PLAYERS; s++) {
+            if (!latest.isPlayerActive(s) || !previous.isPlayerActive(s)) continue;
+            view.prevPlayerX[s] = previous.playerX[s];
+            view.prevPlayerY[s] = previous.playerY[s];
+        }
+
+        //both are in id order, new enemies keep their own previous position
+        int count = latest.getEnemyCount();
+        int previousCount = previous.getEnemyCount();
+        int p = 0;
+        for (int i = 0; i < count; i++) {
+            int id = latest.id[i];
+            while (p < previousCount && previous.id[p] < id) p++;
+            if (p == previousCount || previous.id[p] != id) continue;
+
+            view.prevX[i] = previous.x[p];
+            view.prevY[i] = previous.y[p];
+            int dead = Enemy.State.DEAD.ordinal();
+            if (latest.state[i] == dead && previous.state[p] != dead) killed.add(i);
+        }
+    }
+
+    private void send() {
+        sendBuffer.flip();
+        try {
+            bytesSent += channel.write(sendBuffer);
+            packetsSent++;
+        } catch (IOException e) {
+            //unreachable for now, UDP makes no promises anyway
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (slot >= 0) {
+            sendBuffer.clear();
+            sendBuffer.putInt(NetProtocol.PROTOCOL_ID);
+            sendBuffer.put(NetProtocol.LEAVE);
+            send();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close the client socket", e);
+        }
+    }
+
+    public boolean hasSnapshot() { return latest != null && slot >= 0 && latest.isPlayerActive(slot); }
+    public boolean isServerFull() { return full; }
+    public int getSlot() { return slot; }
+    public Snapshot getView() { return view; }
+    //indices into the view of enemies that died with the last snapshot
+    public IntArray getKilled() { return killed; }
+
+    //0 when the latest snapshot arrived, 1 one snapshot interval later
+    public float getInterpolation() { return MathUtils.clamp((time - snapshotTime) / snapshotInterval, 0f, 1f); }
+    public float getSnapshotInterval() { return snapshotInterval; }
+    public float getPredictedX(float alpha) { return prevPredictedX + (predictedX - prevPredictedX) * alpha; }
+    public float getPredictedY(float alpha) { return prevPredictedY + (predictedY - prevPredictedY) * alpha; }
+
+    public long getBytesSent() { return bytesSent; }
+    public long getBytesReceived() { return bytesReceived; }
+    public long getPacketsSent() { return packetsSent; }
+    public long getPacketsReceived() { return packetsReceived; }
+    public long getSnapshotsReceived() { return snapshotsReceived; }
+    public long getSnapshotsDropped() { return snapshotsDropped; }
+    //malformed snapshots, dropped
+    public long getSnapshotsCorrupt() { return snapshotsCorrupt; }
+    public int getCorrections() { return corrections; }
+    public float getLastCorrection() { return lastCorrection; }
+    //from sending an input to a snapshot that includes it
+    public float getRoundTrip() { return roundTrip; }
+}
@@ -0,0 +1,32 @@
+package io.github.arenaShooter;
+
+/**
+ * Datagram layout shared by {@link NetClient} and the server. Every datagram starts with the protocol id and a
+ * type byte, all numbers are big endian.
+ *
+ * Client to server: JOIN; INPUT with long last snapshot tick received, int sequence of the first input, byte
+ * count, then one {@link PlayerInput} byte per tick; LEAVE.
+ * Server to client: WELCOME with byte slot and byte ticks between snapshots; SNAPSHOT with byte slot, int
+ * sequence of the last input applied to that player, then a {@link SnapshotCodec} snapshot; SERVER_FULL.
+ */
+public final class NetProtocol {
+    public static final int PROTOCOL_ID = 0x4153_4e31; //"ASN1"
+    public static final int DEFAULT_PORT = 7777;
+    //biggest UDP payload over IPv4
+    public static final int MAX_DATAGRAM = 65507;
+    //snapshots are cut down to this, under a 1280 byte IPv6 minimum MTU with headers, so IP never fragments them
+    public static final int MAX_SNAPSHOT_DATAGRAM = 1200;
+    //unacknowledged inputs are resent with every packet, up to this many
+    public static final int MAX_INPUTS_PER_PACKET = 32;
+
+    public static final byte JOIN = 1;
+    public static final byte INPUT = 2;
+    public static final byte LEAVE = 3;
+
+    public static final byte WELCOME = 10;
+    public static final byte SNAPSHOT = 11;
+    public static final byte SERVER_FULL = 12;
+
+    private NetProtocol() {
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs Enemy.update for one tick across worker threads. Enemies are split into contiguous chunks, every chunk
+ * spawns its bullets and publishes its events into buffers of its own, and the buffers are appended in chunk
+ * order on the calling thread afterwards, so the resulting world and event stream are identical to updating
+ * the enemies one by one on the calling thread.
+ *
+ * The workers live as long as the updater and park between ticks. A tick hands out its chunks through one
+ * counter that the workers and the calling thread claim from, and the last chunk to finish unparks the
+ * calling thread, so a tick allocates nothing.
+ */
+public class ParallelEnemyUpdater implements Disposable {
+    //below this many enemies per chunk the hand-off costs more than it saves
+    public static final int MIN_CHUNK = 512;
+
+    private final int threads;
+    private final Thread[] workers;
+    private final Array<Chunk> chunks = new Array<>();
+
+    //tick number in the high half, next chunk to claim in the low half; a new tick wakes the workers
+    private final AtomicLong work = new AtomicLong();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private int chunkCount;
+    private Array<Enemy> enemies;
+    private volatile Thread caller;
+    private volatile Throwable failure;
+    private volatile boolean disposed;
+
+    public ParallelEnemyUpdater(int threads) {
+        this.threads = Math.max(1, threads);
+        //the calling thread works through chunks too
+        workers = new Thread[this.threads - 1];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::work, "enemy-update-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    //runs the tick over all enemies, its interest manager and steering have to be prepared already
+    public void update(Array<Enemy> enemies, EnemyTick tick) {
+        if (disposed) throw new GdxRuntimeException("Enemy updater is disposed");
+        int size = enemies.size;
+        //a few chunks per thread so a slow chunk does not stall the others
+        int chunkSize = Math.max(MIN_CHUNK, (size + threads * 4 - 1) / (threads * 4));
+        int chunkCount = (size + chunkSize - 1) / chunkSize;
+
+        if (chunkCount <= 1) {
+            tick.update(enemies, 0, size);
+            return;
+        }
+
+        this.enemies = enemies;
+        this.failure = null;
+        this.chunkCount = chunkCount;
+        this.caller = Thread.currentThread();
+        while (chunks.size < chunkCount) chunks.add(new Chunk());
+
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks.get(c);
+            chunk.start = c * chunkSize;
+            chunk.end = Math.min(size, chunk.start + chunkSize);
+            chunk.spawned.clear();
+            chunk.tick.set(tick, chunk.spawned, chunk.events(tick.getEvents()));
+        }
+        remaining.set(chunkCount);
+        //published last, workers only claim chunks of the tick they see here
+        long round = (work.get() >>> 32) + 1;
+        work.set(round << 32);
+        for (Thread worker : workers) LockSupport.unpark(worker);
+
+        runChunks(round);
+        boolean interrupted = false;
+        while (remaining.get() > 0) {
+            LockSupport.park(this);
+            //the workers are still in the chunks, keep waiting and pass the interrupt on afterwards
+            if (Thread.interrupted()) interrupted = true;
+        }
+        this.enemies = null;
+        if (interrupted) Thread.currentThread().interrupt();
+        if (failure != null) {
+            throw new GdxRuntimeException("Enemy update failed", failure);
+        }
+
+        //merge in chunk order, same order the sequential loop would have spawned them
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks.get(c);
+            tick.getProjectiles().append(chunk.spawned);
+            if (chunk.target != null) chunk.buffer.drain();
+            chunk.target = null;
+            chunk.tick.clear();
+        }
+    }
+
+    private void work() {
+        long seen = 0;
+        while (!disposed) {
+            long round = work.get() >>> 32;
+            if (round == seen) {
+                LockSupport.park(this);
+                continue;
+            }
+            seen = round;
+            runChunks(round);
+        }
+    }
+
+    //claims and runs chunks of the given tick until none are left
+    private void runChunks(long round) {
+        while (true) {
+            long claim = work.get();
+            if (claim >>> 32 != round || (int) claim >= chunkCount) return;
+            if (!work.compareAndSet(claim, claim + 1)) continue;
+            Chunk chunk = chunks.get((int) claim);
+            try {
+                chunk.tick.update(enemies, chunk.start, chunk.end);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            if (remaining.decrementAndGet() == 0) LockSupport.unpark(caller);
+        }
+    }
+
+    public int getThreads() { return threads; }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        for (Thread worker : workers) LockSupport.unpark(worker);
+    }
+
+    private static class Chunk implements CombatEvents.Subscriber {
+        int start, end;
+        final Projectiles spawned = new Projectiles(64);
+        final EnemyTick tick = new EnemyTick();
+        //events of the chunk, handed on to the target when drained
+        CombatEvents buffer;
+        CombatEvents target;
+
+        //the chunk's buffer for events bound for target, null when the tick publishes none
+        CombatEvents events(CombatEvents target) {
+            this.target = target;
+            if (target == null) return null;
+            //an enemy shoots at most once a tick, so a buffer as long as the chunk never drops
+            if (buffer == null || buffer.getCapacity() < end - start) {
+                buffer = new CombatEvents(end - start);
+                buffer.subscribe(this);
+            }
+            return buffer;
+        }
+
+        @Override
+        public void onCombatEvent(int type, int enemyId, float x, float y, int value) {
+            target.publish(type, enemyId, x, y, value);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.arenaShooter;
+
+/** Player input for one simulation tick, packed as a bit mask so it can be produced by any front end. */
+public final class PlayerInput {
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+
+    private PlayerInput() {
+    }
+
+    public static boolean isSet(int input, int button) {
+        return (input & button) != 0;
+    }
+}
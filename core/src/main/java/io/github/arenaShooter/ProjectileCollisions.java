@@ -0,0 +1,228 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Which bullets hit a target during a tick, for all bullets in one pass. Bullets are circles and targets
+ * boxes, both moving in a straight line over the tick, so the test is swept: a bullet that crosses a target
+ * between two ticks hits it, however fast either moves or however long the tick.
+ *
+ * Targets are registered every tick with {@link #addTarget}, then {@link #detect} narrows things down. A
+ * bullet whose path misses the box around every target's sweep is done after four comparisons, one in no
+ * cell a sweep touches after four lookups; that is nearly all of them away from the players. The rest check
+ * the targets' sweeps, through a grid once there are many, and only those it overlaps get the exact test:
+ * the bullet's path, relative to the target, against the box grown by the bullet's radius with rounded
+ * corners. Each bullet hits the target it reaches first, at most one.
+ */
+public class ProjectileCollisions {
+    public static final float DEFAULT_BULLET_RADIUS = 8f;
+    private static final float CELL_SIZE = 64f;
+    //up to this many targets a plain loop over their boxes beats asking the grid
+    private static final int GRID_TARGETS = 16;
+    private static final float NO_HIT = 2f;
+
+    private final float radius;
+    private final SpatialGrid grid = new SpatialGrid(World.AREA_OFFSET_X, World.AREA_OFFSET_Y,
+        World.PLAYABLE_AREA_SIZE, World.PLAYABLE_AREA_SIZE, CELL_SIZE);
+    private final IntArray candidates = new IntArray();
+    //cells any target's sweep touches, a bullet in none of them is done
+    private final int columns = grid.getColumns(), rows = grid.getRows();
+    private final boolean[] occupied = new boolean[columns * rows];
+
+    //targets of the tick: box at the start of the tick and how far it moves during it
+    private int[] targetId = new int[8];
+    private float[] minX = new float[8], minY = new float[8], maxX = new float[8], maxY = new float[8];
+    private float[] moveX = new float[8], moveY = new float[8];
+    private float[] sweepMinX = new float[8], sweepMinY = new float[8], sweepMaxX = new float[8], sweepMaxY = new float[8];
+    private int targetCount = 0;
+    //around every target's sweep, grown by the radius
+    private float boundsMinX, boundsMinY, boundsMaxX, boundsMaxY;
+
+    //bullet index and target id of every hit, by ascending bullet index
+    private final IntArray hitBullets = new IntArray();
+    private final IntArray hitTargets = new IntArray();
+
+    public ProjectileCollisions() {
+        this(DEFAULT_BULLET_RADIUS);
+    }
+
+    public ProjectileCollisions(float bulletRadius) {
+        this.radius = bulletRadius;
+    }
+
+    public void clearTargets() {
+        targetCount = 0;
+        grid.clear();
+        Arrays.fill(occupied, false);
+        boundsMinX = boundsMinY = Float.MAX_VALUE;
+        boundsMaxX = boundsMaxY = -Float.MAX_VALUE;
+    }
+
+    /**
+     * A box that is at x, y at the start of the tick and moves by moveX, moveY during it. The id is handed
+     * back with every hit on it.
+     */
+    public void addTarget(int id, float x, float y, float width, float height, float moveX, float moveY) {
+        if (targetCount == targetId.length) grow(targetCount * 2);
+        int t = targetCount;
+        targetId[t] = id;
+        minX[t] = x;
+        minY[t] = y;
+        maxX[t] = x + width;
+        maxY[t] = y + height;
+        this.moveX[t] = moveX;
+        this.moveY[t] = moveY;
+
+        float sweepX = Math.min(x, x + moveX) - radius, sweepY = Math.min(y, y + moveY) - radius;
+        float sweepWidth = width + Math.abs(moveX) + radius * 2, sweepHeight = height + Math.abs(moveY) + radius * 2;
+        sweepMinX[t] = sweepX;
+        sweepMinY[t] = sweepY;
+        sweepMaxX[t] = sweepX + sweepWidth;
+        sweepMaxY[t] = sweepY + sweepHeight;
+        grid.insert(t, sweepX, sweepY, sweepWidth, sweepHeight);
+        for (int r = row(sweepY), r1 = row(sweepY + sweepHeight); r <= r1; r++) {
+            for (int c = column(sweepX), c1 = column(sweepX + sweepWidth); c <= c1; c++) {
+                occupied[r * columns + c] = true;
+            }
+        }
+        boundsMinX = Math.min(boundsMinX, sweepX);
+        boundsMinY = Math.min(boundsMinY, sweepY);
+        boundsMaxX = Math.max(boundsMaxX, sweepX + sweepWidth);
+        boundsMaxY = Math.max(boundsMaxY, sweepY + sweepHeight);
+        targetCount++;
+    }
+
+    //tests the bullets' moves over the next delta seconds, returns the number of hits
+    public int detect(Projectiles bullets, float delta) {
+        hitBullets.clear();
+        hitTargets.clear();
+        if (targetCount == 0) return 0;
+
+        for (int i = 0, n = bullets.size(); i < n; i++) {
+            float x = bullets.getX(i), y = bullets.getY(i);
+            float dx = bullets.getVelocityX(i) * delta, dy = bullets.getVelocityY(i) * delta;
+            float left = Math.min(x, x + dx), right = Math.max(x, x + dx);
+            float bottom = Math.min(y, y + dy), top = Math.max(y, y + dy);
+            //broad phase, nowhere near any target
+            if (right < boundsMinX || left > boundsMaxX || top < boundsMinY || bottom > boundsMaxY) continue;
+            //then by cell, the corners cover every cell of a path shorter than a cell
+            int c0 = column(left), c1 = column(right), r0 = row(bottom) * columns, r1 = row(top) * columns;
+            if (!occupied[r0 + c0] && !occupied[r0 + c1] && !occupied[r1 + c0] && !occupied[r1 + c1]
+                && right - left < CELL_SIZE && top - bottom < CELL_SIZE) continue;
+
+            candidates.clear();
+            if (targetCount <= GRID_TARGETS) {
+                for (int t = 0; t < targetCount; t++) {
+                    if (right >= sweepMinX[t] && left <= sweepMaxX[t] && top >= sweepMinY[t] && bottom <= sweepMaxY[t]) {
+                        candidates.add(t);
+                    }
+                }
+            } else {
+                grid.query(left, bottom, right - left, top - bottom, candidates);
+            }
+            if (candidates.size == 0) continue;
+
+            int best = -1;
+            float bestTime = NO_HIT;
+            for (int c = 0; c < candidates.size; c++) {
+                int t = candidates.get(c);
+                //in the target's frame, the target stands still and the bullet moves for both
+                float time = sweep(x, y, dx - moveX[t], dy - moveY[t], radius, minX[t], minY[t], maxX[t], maxY[t]);
+                if (time < bestTime || (time == bestTime && best >= 0 && t < best)) {
+                    best = t;
+                    bestTime = time;
+                }
+            }
+            if (best >= 0) {
+                hitBullets.add(i);
+                hitTargets.add(targetId[best]);
+            }
+        }
+        return hitBullets.size;
+    }
+
+    /**
+     * Earliest fraction of the move at which a circle moving from x, y by dx, dy touches the box, 0 when it
+     * starts inside, or a value above 1 when it misses. The box grown by the radius with rounded corners is
+     * two crossed boxes and four circles, the moving centre is tested against each.
+     */
+    public static float sweep(float x, float y, float dx, float dy, float radius,
+                              float minX, float minY, float maxX, float maxY) {
+        //miss the square grown box and you miss the rounded one
+        if (segmentBox(x, y, dx, dy, minX - radius, minY - radius, maxX + radius, maxY + radius) > 1f) return NO_HIT;
+
+        float time = Math.min(segmentBox(x, y, dx, dy, minX - radius, minY, maxX + radius, maxY),
+            segmentBox(x, y, dx, dy, minX, minY - radius, maxX, maxY + radius));
+        time = Math.min(time, segmentCircle(x, y, dx, dy, minX, minY, radius));
+        time = Math.min(time, segmentCircle(x, y, dx, dy, maxX, minY, radius));
+        time = Math.min(time, segmentCircle(x, y, dx, dy, minX, maxY, radius));
+        time = Math.min(time, segmentCircle(x, y, dx, dy, maxX, maxY, radius));
+        return time;
+    }
+
+    //slab test of the segment against the box
+    private static float segmentBox(float x, float y, float dx, float dy,
+                                    float minX, float minY, float maxX, float maxY) {
+        float enter = 0f, exit = 1f;
+        if (dx == 0f) {
+            if (x < minX || x > maxX) return NO_HIT;
+        } else {
+            float t0 = (minX - x) / dx, t1 = (maxX - x) / dx;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        if (dy == 0f) {
+            if (y < minY || y > maxY) return NO_HIT;
+        } else {
+            float t0 = (minY - y) / dy, t1 = (maxY - y) / dy;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        return enter <= exit ? enter : NO_HIT;
+    }
+
+    private static float segmentCircle(float x, float y, float dx, float dy, float cx, float cy, float radius) {
+        float mx = x - cx, my = y - cy;
+        float c = mx * mx + my * my - radius * radius;
+        if (c <= 0f) return 0f;
+        float b = mx * dx + my * dy;
+        if (b >= 0f) return NO_HIT; //outside and moving away
+        float a = dx * dx + dy * dy;
+        float discriminant = b * b - a * c;
+        if (discriminant < 0f) return NO_HIT;
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= 1f ? t : NO_HIT;
+    }
+
+    private int column(float x) {
+        int c = (int) ((x - World.AREA_OFFSET_X) / CELL_SIZE);
+        return c < 0 ? 0 : (c >= columns ? columns - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) ((y - World.AREA_OFFSET_Y) / CELL_SIZE);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+
+    public int getHitCount() { return hitBullets.size; }
+    //index into the bullets given to detect
+    public int getHitBullet(int hit) { return hitBullets.get(hit); }
+    public int getHitTarget(int hit) { return hitTargets.get(hit); }
+    public float getBulletRadius() { return radius; }
+
+    private void grow(int capacity) {
+        targetId = Arrays.copyOf(targetId, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        moveX = Arrays.copyOf(moveX, capacity);
+        moveY = Arrays.copyOf(moveY, capacity);
+        sweepMinX = Arrays.copyOf(sweepMinX, capacity);
+        sweepMinY = Arrays.copyOf(sweepMinY, capacity);
+        sweepMaxX = Arrays.copyOf(sweepMaxX, capacity);
+        sweepMaxY = Arrays.copyOf(sweepMaxY, capacity);
+    }
+}
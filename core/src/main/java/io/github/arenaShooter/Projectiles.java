@@ -0,0 +1,196 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/** World-owned bullet store. Bullets live in parallel float arrays, expired ones are swap-removed. */
+public class Projectiles {
+
+    public static final float DEFAULT_SPEED = 200f;
+    public static final float DEFAULT_ROTATION_SPEED = 720f;
+    public static final float DEFAULT_LIFETIME = 3f;
+
+    private float[] x, y, vx, vy, rotation, rotationSpeed, timeAlive, lifetime;
+    private int size = 0;
+
+    public Projectiles() {
+        this(64);
+    }
+
+    public Projectiles(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    //direction should be normalized
+    public void spawn(float startX, float startY, float dirX, float dirY) {
+        spawn(startX, startY, dirX, dirY, DEFAULT_SPEED, DEFAULT_ROTATION_SPEED, DEFAULT_LIFETIME);
+    }
+
+    public void spawn(float startX, float startY, float dirX, float dirY, float speed, float spin, float life) {
+        if (size == x.length) grow(size * 2);
+
+        int i = size++;
+        x[i] = startX;
+        y[i] = startY;
+        vx[i] = dirX * speed;
+        vy[i] = dirY * speed;
+        rotation[i] = 0f;
+        rotationSpeed[i] = spin;
+        timeAlive[i] = 0f;
+        lifetime[i] = life;
+    }
+
+    //appends a bullet with its full state, for restoring snapshots
+    public void add(float startX, float startY, float velocityX, float velocityY,
+                    float angle, float spin, float age, float life) {
+        if (size == x.length) grow(size * 2);
+
+        int i = size++;
+        x[i] = startX;
+        y[i] = startY;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        rotation[i] = angle;
+        rotationSpeed[i] = spin;
+        timeAlive[i] = age;
+        lifetime[i] = life;
+    }
+
+    public void update(float delta) {
+        for (int i = size - 1; i >= 0; i--) {
+            //update position
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+
+            //update rotation
+            rotation[i] += rotationSpeed[i] * delta;
+            if (rotation[i] >= 360f) {
+                rotation[i] -= 360f;
+            }
+
+            timeAlive[i] += delta;
+            if (timeAlive[i] >= lifetime[i]) {
+                remove(i);
+            }
+        }
+    }
+
+    //moves the last bullet into the freed slot
+    public void remove(int index) {
+        int last = --size;
+        if (index == last) return;
+
+        x[index] = x[last];
+        y[index] = y[last];
+        vx[index] = vx[last];
+        vy[index] = vy[last];
+        rotation[index] = rotation[last];
+        rotationSpeed[index] = rotationSpeed[last];
+        timeAlive[index] = timeAlive[last];
+        lifetime[index] = lifetime[last];
+    }
+
+    /**
+     * Draws the bullets that overlap the view. Alpha is the interpolation factor between the last two ticks,
+     * step the tick length. Returns how many bullets were culled.
+     */
+    public int render(Batch batch, TextureRegion region, float alpha, float step, Rectangle view) {
+        float width = region.getRegionWidth();
+        float height = region.getRegionHeight();
+
+        //bullets move linearly, so extrapolate back from the current state
+        float back = (alpha - 1f) * step;
+
+        //a rotated sprite stays inside the circle around its centre
+        float reach = (float) Math.sqrt(width * width + height * height) / 2f;
+        float left = view.x - reach, right = view.x + view.width + reach;
+        float bottom = view.y - reach, top = view.y + view.height + reach;
+
+        int culled = 0;
+        for (int i = 0; i < size; i++) {
+            float drawX = x[i] + vx[i] * back;
+            float drawY = y[i] + vy[i] * back;
+
+            if (drawX < left || drawX > right || drawY < bottom || drawY > top) {
+                culled++;
+                continue;
+            }
+
+            batch.draw(region,
+                drawX - width/2, drawY - height/2, //position (centre)
+                width/2, height/2,                 //pivot point (centre)
+                width, height,                     //size
+                1f, 1f,                            //scale
+                rotation[i] + rotationSpeed[i] * back); //rotation
+        }
+        return culled;
+    }
+
+    //copies every bullet of other to the end of this store, in order
+    public void append(Projectiles other) {
+        int count = other.size;
+        if (count == 0) return;
+        if (size + count > x.length) grow(Math.max(x.length * 2, size + count));
+
+        System.arraycopy(other.x, 0, x, size, count);
+        System.arraycopy(other.y, 0, y, size, count);
+        System.arraycopy(other.vx, 0, vx, size, count);
+        System.arraycopy(other.vy, 0, vy, size, count);
+        System.arraycopy(other.rotation, 0, rotation, size, count);
+        System.arraycopy(other.rotationSpeed, 0, rotationSpeed, size, count);
+        System.arraycopy(other.timeAlive, 0, timeAlive, size, count);
+        System.arraycopy(other.lifetime, 0, lifetime, size, count);
+        size += count;
+    }
+
+    //copies the bullets of other within the radius of the point, in order
+    public void appendAround(Projectiles other, float centerX, float centerY, float radius) {
+        float radius2 = radius * radius;
+        for (int i = 0; i < other.size; i++) {
+            float dx = other.x[i] - centerX;
+            float dy = other.y[i] - centerY;
+            if (dx * dx + dy * dy > radius2) continue;
+            add(other.x[i], other.y[i], other.vx[i], other.vy[i],
+                other.rotation[i], other.rotationSpeed[i], other.timeAlive[i], other.lifetime[i]);
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public float getX(int index) { return x[index]; }
+    public float getY(int index) { return y[index]; }
+    public float getVelocityX(int index) { return vx[index]; }
+    public float getVelocityY(int index) { return vy[index]; }
+    public float getRotation(int index) { return rotation[index]; }
+    public float getTimeAlive(int index) { return timeAlive[index]; }
+    public float getRotationSpeed(int index) { return rotationSpeed[index]; }
+    public float getLifetime(int index) { return lifetime[index]; }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        rotation = new float[capacity];
+        rotationSpeed = new float[capacity];
+        timeAlive = new float[capacity];
+        lifetime = new float[capacity];
+    }
+
+    private void grow(int capacity) {
+        float[] ox = x, oy = y, ovx = vx, ovy = vy, orot = rotation, ospin = rotationSpeed, otime = timeAlive, olife = lifetime;
+        allocate(capacity);
+        System.arraycopy(ox, 0, x, 0, size);
+        System.arraycopy(oy, 0, y, 0, size);
+        System.arraycopy(ovx, 0, vx, 0, size);
+        System.arraycopy(ovy, 0, vy, 0, size);
+        System.arraycopy(orot, 0, rotation, 0, size);
+        System.arraycopy(ospin, 0, rotationSpeed, 0, size);
+        System.arraycopy(otime, 0, timeAlive, 0, size);
+        System.arraycopy(olife, 0, lifetime, 0, size);
+    }
+}
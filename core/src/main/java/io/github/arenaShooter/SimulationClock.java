@@ -0,0 +1,56 @@
+package io.github.arenaShooter;
+
+/**
+ * Fixed-step clock. Frame time goes into an accumulator and comes out as whole simulation ticks,
+ * the remainder is exposed as an interpolation factor for rendering.
+ */
+public class SimulationClock {
+    public static final float DEFAULT_STEP = 1f / 60f;
+    public static final int DEFAULT_MAX_STEPS = 5;
+
+    private final float step;
+    private final int maxSteps;
+
+    private float accumulator = 0f;
+    private long ticks = 0;
+    private long droppedTicks = 0;
+
+    public SimulationClock() {
+        this(DEFAULT_STEP, DEFAULT_MAX_STEPS);
+    }
+
+    public SimulationClock(float step, int maxSteps) {
+        this.step = step;
+        this.maxSteps = maxSteps;
+    }
+
+    //returns how many ticks the simulation should run for this frame
+    public int advance(float frameDelta) {
+        accumulator += frameDelta;
+
+        int steps = 0;
+        while (accumulator >= step && steps < maxSteps) {
+            accumulator -= step;
+            steps++;
+        }
+
+        //too far behind, drop the backlog instead of spiralling
+        if (accumulator >= step) {
+            long behind = (long) (accumulator / step);
+            droppedTicks += behind;
+            accumulator -= behind * step;
+        }
+
+        ticks += steps;
+        return steps;
+    }
+
+    //how far we are between the last tick and the next one, 0..1
+    public float getAlpha() {
+        return accumulator / step;
+    }
+
+    public float getStep() { return step; }
+    public long getTicks() { return ticks; }
+    public long getDroppedTicks() { return droppedTicks; }
+}
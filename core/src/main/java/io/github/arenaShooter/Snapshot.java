@@ -0,0 +1,167 @@
+package io.github.arenaShooter;
+
+import java.util.Arrays;
+
+/**
+ * The complete simulation state of a {@link World} at one tick, held in flat arrays. Fill it with
+ * {@link World#saveState}, put it back with {@link World#loadState}, and turn it into bytes with
+ * {@link SnapshotCodec}. Instances are meant to be reused, the arrays only grow.
+ */
+public class Snapshot {
+    long tick;
+    int playerMask; //bit per active player slot
+    final float[] playerX = new float[World.MAX_PLAYERS], playerY = new float[World.MAX_PLAYERS];
+    final float[] prevPlayerX = new float[World.MAX_PLAYERS], prevPlayerY = new float[World.MAX_PLAYERS];
+    final int[] playerHealth = new int[World.MAX_PLAYERS], playerDeaths = new int[World.MAX_PLAYERS];
+    //random state, next enemy id and wave progress: what it takes to run the world on, not to show it;
+    //only the server has them, snapshots for clients leave them out
+    boolean hasServerState;
+    long randomState0, randomState1;
+    int nextEnemyId;
+
+    boolean hasWaveDirector;
+    int wave;
+    float untilNextWave;
+    int toSpawn;
+    float spawnBudget;
+    long spawned;
+
+    //enemies, in world order, which is also ascending id order
+    private int enemyCount = 0;
+    int[] id = new int[0];
+    byte[] archetype = new byte[0], state = new byte[0], flags = new byte[0], attackCount = new byte[0];
+    int[] health = new int[0];
+    float[] x = new float[0], y = new float[0], prevX = new float[0], prevY = new float[0];
+    float[] dirX = new float[0], dirY = new float[0];
+    float[] stateTime = new float[0], damageTimer = new float[0], restTime = new float[0];
+
+    final Projectiles projectiles = new Projectiles(64);
+    //scratch for nearestRadius
+    private float[] distances = new float[0];
+
+    void setEnemyCount(int count) {
+        if (count > id.length) {
+            int capacity = Math.max(count, id.length * 2);
+            id = Arrays.copyOf(id, capacity);
+            archetype = Arrays.copyOf(archetype, capacity);
+            state = Arrays.copyOf(state, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            attackCount = Arrays.copyOf(attackCount, capacity);
+            health = Arrays.copyOf(health, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            prevX = Arrays.copyOf(prevX, capacity);
+            prevY = Arrays.copyOf(prevY, capacity);
+            dirX = Arrays.copyOf(dirX, capacity);
+            dirY = Arrays.copyOf(dirY, capacity);
+            stateTime = Arrays.copyOf(stateTime, capacity);
+            damageTimer = Arrays.copyOf(damageTimer, capacity);
+            restTime = Arrays.copyOf(restTime, capacity);
+        }
+        enemyCount = count;
+    }
+
+    //deep copy, the arrays of this snapshot are reused
+    public void set(Snapshot other) {
+        setHeader(other);
+        setEnemyCount(other.enemyCount);
+        for (int i = 0; i < other.enemyCount; i++) copyEnemy(other, i, i);
+        projectiles.clear();
+        projectiles.append(other.projectiles);
+    }
+
+    /**
+     * Copy of other with only the enemies and bullets within the radius of the point, and without the server
+     * state, for replicating to a client that only cares about its surroundings.
+     */
+    public void setAround(Snapshot other, float centerX, float centerY, float radius) {
+        setHeader(other);
+        hasServerState = false;
+        hasWaveDirector = false;
+        float radius2 = radius * radius;
+
+        setEnemyCount(other.enemyCount);
+        int kept = 0;
+        for (int i = 0; i < other.enemyCount; i++) {
+            float dx = other.x[i] + Enemy.SIZE / 2 - centerX;
+            float dy = other.y[i] + Enemy.SIZE / 2 - centerY;
+            if (dx * dx + dy * dy <= radius2) copyEnemy(other, i, kept++);
+        }
+        enemyCount = kept;
+
+        projectiles.clear();
+        projectiles.appendAround(other.projectiles, centerX, centerY, radius);
+    }
+
+    /**
+     * Distance from the point within which the given number of this snapshot's enemies and bullets lie,
+     * counting the nearest first. Measured as {@link #setAround} measures, so cutting a snapshot down to this
+     * radius keeps about that many.
+     */
+    public float nearestRadius(float centerX, float centerY, int count) {
+        int total = enemyCount + projectiles.size();
+        if (count <= 0) return 0f;
+        if (count >= total) return Float.MAX_VALUE;
+        if (distances.length < total) distances = new float[Math.max(total, distances.length * 2)];
+        for (int i = 0; i < enemyCount; i++) {
+            float dx = x[i] + Enemy.SIZE / 2 - centerX;
+            float dy = y[i] + Enemy.SIZE / 2 - centerY;
+            distances[i] = dx * dx + dy * dy;
+        }
+        for (int i = 0; i < projectiles.size(); i++) {
+            float dx = projectiles.getX(i) - centerX;
+            float dy = projectiles.getY(i) - centerY;
+            distances[enemyCount + i] = dx * dx + dy * dy;
+        }
+        Arrays.sort(distances, 0, total);
+        return (float) Math.sqrt(distances[count - 1]);
+    }
+
+    private void setHeader(Snapshot other) {
+        tick = other.tick;
+        playerMask = other.playerMask;
+        System.arraycopy(other.playerX, 0, playerX, 0, World.MAX_PLAYERS);
+        System.arraycopy(other.playerY, 0, playerY, 0, World.MAX_PLAYERS);
+        System.arraycopy(other.prevPlayerX, 0, prevPlayerX, 0, World.MAX_PLAYERS);
+        System.arraycopy(other.prevPlayerY, 0, prevPlayerY, 0, World.MAX_PLAYERS);
+        System.arraycopy(other.playerHealth, 0, playerHealth, 0, World.MAX_PLAYERS);
+        System.arraycopy(other.playerDeaths, 0, playerDeaths, 0, World.MAX_PLAYERS);
+        hasServerState = other.hasServerState;
+        randomState0 = other.randomState0;
+        randomState1 = other.randomState1;
+        nextEnemyId = other.nextEnemyId;
+
+        hasWaveDirector = other.hasWaveDirector;
+        wave = other.wave;
+        untilNextWave = other.untilNextWave;
+        toSpawn = other.toSpawn;
+        spawnBudget = other.spawnBudget;
+        spawned = other.spawned;
+    }
+
+    private void copyEnemy(Snapshot other, int from, int to) {
+        id[to] = other.id[from];
+        archetype[to] = other.archetype[from];
+        state[to] = other.state[from];
+        flags[to] = other.flags[from];
+        attackCount[to] = other.attackCount[from];
+        health[to] = other.health[from];
+        x[to] = other.x[from];
+        y[to] = other.y[from];
+        prevX[to] = other.prevX[from];
+        prevY[to] = other.prevY[from];
+        dirX[to] = other.dirX[from];
+        dirY[to] = other.dirY[from];
+        stateTime[to] = other.stateTime[from];
+        damageTimer[to] = other.damageTimer[from];
+        restTime[to] = other.restTime[from];
+    }
+
+    public long getTick() { return tick; }
+    public boolean isPlayerActive(int slot) { return (playerMask & 1 << slot) != 0; }
+    public float getPlayerX(int slot) { return playerX[slot]; }
+    public float getPlayerY(int slot) { return playerY[slot]; }
+    public int getPlayerHealth(int slot) { return playerHealth[slot]; }
+    public int getEnemyCount() { return enemyCount; }
+    public int getProjectileCount() { return projectiles.size(); }
+}
@@ -0,0 +1,424 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary wire format for {@link Snapshot}s, written field by field into a {@link ByteBuffer}.
+ *
+ * A full snapshot carries every field. A delta carries the same header, but each enemy only carries the fields
+ * that differ from a prediction made from the baseline enemy with the same id, as the int difference of the
+ * float bits in a zigzag varint. For values close to the prediction that takes one to three bytes instead of
+ * four. Enemies are matched by walking both lists in id order, so enemies missing from the new snapshot are
+ * simply not mentioned and new ones are written in full. Bullets have no identity across ticks and are always written in full.
+ *
+ * Decoding a delta needs the exact baseline it was written against, the baseline tick is checked. Snapshots
+ * come off the network, so decoding trusts nothing: counts are checked against the bytes left and against
+ * hard caps before anything is allocated, and anything malformed throws a GdxRuntimeException, or a
+ * BufferUnderflowException when the data runs out, with out left half written.
+ */
+public final class SnapshotCodec {
+    public static final int MAGIC = 0x4153534e; //"ASSN"
+    public static final byte FULL = 0;
+    public static final byte DELTA = 1;
+
+    //changed fields of a delta-encoded enemy, everything that changes every tick fits in the first varint byte
+    private static final int X = 1;
+    private static final int Y = 2;
+    private static final int PREV_X = 4;
+    private static final int PREV_Y = 8;
+    private static final int STATE_TIME = 16;
+    private static final int DAMAGE_TIMER = 32;
+    private static final int DIRECTION = 64;
+    private static final int DISCRETE = 128; //archetype, state, flags, attack count
+    private static final int HEALTH = 256;
+    private static final int NEW = 512;
+    private static final int REST_TIME = 1024; //predicted exactly while resting
+
+    //header flags
+    private static final int SERVER_STATE = 1;
+    private static final int WAVE_DIRECTOR = 2;
+
+    //decoding refuses more, whatever the buffer holds
+    public static final int MAX_ENEMIES = 1 << 20;
+    public static final int MAX_PROJECTILES = 1 << 20;
+    //fewest bytes an enemy takes: id and change mask in a delta, id and every field in full
+    private static final int MIN_DELTA_ENEMY = 2;
+    private static final int MIN_FULL_ENEMY = 42;
+    private static final int STATES = Enemy.State.values().length;
+
+    private static final int MAX_HEADER_SIZE = 96 + World.MAX_PLAYERS * 24;
+    private static final int MAX_ENEMY_SIZE = 64;
+    private static final int PROJECTILE_SIZE = 32;
+
+    //scratch for predicted enemy fields, one per thread so codecs can run in parallel
+    private static final ThreadLocal<float[]> PREDICTION = ThreadLocal.withInitial(() -> new float[7]);
+
+    private SnapshotCodec() {
+    }
+
+    //upper bound of the encoded size, full or delta
+    public static int maxSize(Snapshot snapshot) {
+        return MAX_HEADER_SIZE + snapshot.getEnemyCount() * MAX_ENEMY_SIZE
+            + snapshot.getProjectileCount() * PROJECTILE_SIZE;
+    }
+
+    public static void writeFull(Snapshot snapshot, ByteBuffer out) {
+        writeHeader(snapshot, FULL, -1, out);
+
+        int count = snapshot.getEnemyCount();
+        writeVarInt(out, count);
+        int previousId = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarInt(out, zigZag(snapshot.id[i] - previousId));
+            previousId = snapshot.id[i];
+            writeEnemy(snapshot, i, out);
+        }
+
+        writeProjectiles(snapshot, out);
+    }
+
+    public static void writeDelta(Snapshot base, Snapshot snapshot, ByteBuffer out) {
+        writeHeader(snapshot, DELTA, base.tick, out);
+
+        int count = snapshot.getEnemyCount();
+        int baseCount = base.getEnemyCount();
+        writeVarInt(out, count);
+        int previousId = 0;
+        int b = 0;
+        for (int i = 0; i < count; i++) {
+            int id = snapshot.id[i];
+            writeVarInt(out, zigZag(id - previousId));
+            previousId = id;
+
+            //skip baseline enemies that are gone
+            while (b < baseCount && base.id[b] < id) b++;
+            if (b < baseCount && base.id[b] == id) {
+                writeChanges(base, b, snapshot, i, out);
+                b++;
+            } else {
+                writeVarInt(out, NEW);
+                writeEnemy(snapshot, i, out);
+            }
+        }
+
+        writeProjectiles(snapshot, out);
+    }
+
+    //tick a delta was written against, -1 for a full snapshot; does not move the buffer
+    public static long peekBaseTick(ByteBuffer in) {
+        int start = in.position();
+        if (in.remaining() < 21 || in.getInt(start) != MAGIC) throw new GdxRuntimeException("Not a snapshot");
+        return in.get(start + 4) == DELTA ? in.getLong(start + 13) : -1;
+    }
+
+    /** Decodes one snapshot into out. Base is only read for deltas and may be null for full snapshots. */
+    public static void read(ByteBuffer in, Snapshot base, Snapshot out) {
+        if (in.getInt() != MAGIC) throw new GdxRuntimeException("Not a snapshot");
+        byte type = in.get();
+        out.tick = in.getLong();
+        if (type == DELTA) {
+            long baseTick = in.getLong();
+            if (base == null || base.tick != baseTick) {
+                throw new GdxRuntimeException("Delta against tick " + baseTick + " needs that snapshot as base");
+            }
+        } else if (type != FULL) {
+            throw new GdxRuntimeException("Unknown snapshot type " + type);
+        }
+        readHeaderFields(in, out);
+
+        int count = readVarInt(in);
+        checkCount(count, MAX_ENEMIES, type == FULL ? MIN_FULL_ENEMY : MIN_DELTA_ENEMY, in, "enemies");
+        out.setEnemyCount(count);
+        int id = 0;
+        int b = 0;
+        int baseCount = type == DELTA ? base.getEnemyCount() : 0;
+        for (int i = 0; i < count; i++) {
+            id += unZigZag(readVarInt(in));
+            out.id[i] = id;
+            if (type == FULL) {
+                readEnemy(in, out, i);
+                continue;
+            }
+
+            while (b < baseCount && base.id[b] < id) b++;
+            int mask = readVarInt(in);
+            if ((mask & NEW) != 0) {
+                readEnemy(in, out, i);
+            } else {
+                if (b == baseCount || base.id[b] != id) throw new GdxRuntimeException("Delta for unknown enemy " + id);
+                readChanges(in, mask, base, b, out, i);
+                b++;
+            }
+        }
+
+        readProjectiles(in, out);
+    }
+
+    private static void writeHeader(Snapshot snapshot, byte type, long baseTick, ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.put(type);
+        out.putLong(snapshot.tick);
+        if (type == DELTA) out.putLong(baseTick);
+
+        //only active player slots
+        out.put((byte) snapshot.playerMask);
+        for (int slot = 0; slot < World.MAX_PLAYERS; slot++) {
+            if (!snapshot.isPlayerActive(slot)) continue;
+            out.putFloat(snapshot.playerX[slot]);
+            out.putFloat(snapshot.playerY[slot]);
+            out.putFloat(snapshot.prevPlayerX[slot]);
+            out.putFloat(snapshot.prevPlayerY[slot]);
+            out.putInt(snapshot.playerHealth[slot]);
+            out.putInt(snapshot.playerDeaths[slot]);
+        }
+
+        boolean waves = snapshot.hasServerState && snapshot.hasWaveDirector;
+        out.put((byte) ((snapshot.hasServerState ? SERVER_STATE : 0) | (waves ? WAVE_DIRECTOR : 0)));
+        if (!snapshot.hasServerState) return;
+        out.putLong(snapshot.randomState0);
+        out.putLong(snapshot.randomState1);
+        out.putInt(snapshot.nextEnemyId);
+        if (waves) {
+            out.putInt(snapshot.wave);
+            out.putFloat(snapshot.untilNextWave);
+            out.putInt(snapshot.toSpawn);
+            out.putFloat(snapshot.spawnBudget);
+            out.putLong(snapshot.spawned);
+        }
+    }
+
+    private static void readHeaderFields(ByteBuffer in, Snapshot out) {
+        out.playerMask = in.get() & 0xff;
+        for (int slot = 0; slot < World.MAX_PLAYERS; slot++) {
+            if (!out.isPlayerActive(slot)) continue;
+            out.playerX[slot] = in.getFloat();
+            out.playerY[slot] = in.getFloat();
+            out.prevPlayerX[slot] = in.getFloat();
+            out.prevPlayerY[slot] = in.getFloat();
+            out.playerHealth[slot] = in.getInt();
+            out.playerDeaths[slot] = in.getInt();
+        }
+
+        int flags = in.get();
+        out.hasServerState = (flags & SERVER_STATE) != 0;
+        out.hasWaveDirector = (flags & WAVE_DIRECTOR) != 0;
+        if (!out.hasServerState) return;
+        out.randomState0 = in.getLong();
+        out.randomState1 = in.getLong();
+        out.nextEnemyId = in.getInt();
+        if (out.hasWaveDirector) {
+            out.wave = in.getInt();
+            out.untilNextWave = in.getFloat();
+            out.toSpawn = in.getInt();
+            out.spawnBudget = in.getFloat();
+            out.spawned = in.getLong();
+        }
+    }
+
+    private static void writeEnemy(Snapshot s, int i, ByteBuffer out) {
+        out.put(s.archetype[i]);
+        out.put(s.state[i]);
+        out.put(s.flags[i]);
+        out.put(s.attackCount[i]);
+        writeVarInt(out, zigZag(s.health[i]));
+        out.putFloat(s.x[i]);
+        out.putFloat(s.y[i]);
+        out.putFloat(s.prevX[i]);
+        out.putFloat(s.prevY[i]);
+        out.putFloat(s.dirX[i]);
+        out.putFloat(s.dirY[i]);
+        out.putFloat(s.stateTime[i]);
+        out.putFloat(s.damageTimer[i]);
+        out.putFloat(s.restTime[i]);
+    }
+
+    private static void readEnemy(ByteBuffer in, Snapshot s, int i) {
+        readDiscrete(in, s, i);
+        s.health[i] = unZigZag(readVarInt(in));
+        s.x[i] = in.getFloat();
+        s.y[i] = in.getFloat();
+        s.prevX[i] = in.getFloat();
+        s.prevY[i] = in.getFloat();
+        s.dirX[i] = in.getFloat();
+        s.dirY[i] = in.getFloat();
+        s.stateTime[i] = in.getFloat();
+        s.damageTimer[i] = in.getFloat();
+        s.restTime[i] = in.getFloat();
+    }
+
+    //archetype and state index tables on the receiving side, so they are checked
+    private static void readDiscrete(ByteBuffer in, Snapshot s, int i) {
+        s.archetype[i] = in.get();
+        s.state[i] = in.get();
+        s.flags[i] = in.get();
+        s.attackCount[i] = in.get();
+        if (s.archetype[i] < 0 || s.archetype[i] >= EnemyArchetype.count()
+            || s.state[i] < 0 || s.state[i] >= STATES) {
+            throw new GdxRuntimeException("Corrupt enemy " + s.id[i]);
+        }
+    }
+
+    /**
+     * What a baseline enemy most likely looks like the given number of ticks later: timers advanced by the
+     * fixed step, the position moved on with its last velocity. Encoder and decoder run the same float math.
+     * One tick later the timers and the previous position are usually exact, and the position is off by the
+     * turn towards the player, which then takes a byte or two.
+     */
+    private static void predict(Snapshot base, int b, long ticks, float[] out) {
+        float elapsed = ticks * SimulationClock.DEFAULT_STEP;
+        boolean dead = base.state[b] == Enemy.State.DEAD.ordinal();
+        boolean resting = base.state[b] == Enemy.State.IDLE.ordinal();
+        out[0] = base.x[b] + (base.x[b] - base.prevX[b]) * ticks;
+        out[1] = base.y[b] + (base.y[b] - base.prevY[b]) * ticks;
+        out[2] = ticks == 1 ? base.x[b] : out[0] - (base.x[b] - base.prevX[b]);
+        out[3] = ticks == 1 ? base.y[b] : out[1] - (base.y[b] - base.prevY[b]);
+        out[4] = base.stateTime[b] + elapsed;
+        out[5] = dead ? base.damageTimer[b] : base.damageTimer[b] + elapsed;
+        out[6] = resting ? base.restTime[b] + elapsed : base.restTime[b];
+    }
+
+    private static void writeChanges(Snapshot base, int b, Snapshot s, int i, ByteBuffer out) {
+        float[] p = PREDICTION.get();
+        predict(base, b, s.tick - base.tick, p);
+
+        int mask = 0;
+        if (differs(s.x[i], p[0])) mask |= X;
+        if (differs(s.y[i], p[1])) mask |= Y;
+        if (differs(s.prevX[i], p[2])) mask |= PREV_X;
+        if (differs(s.prevY[i], p[3])) mask |= PREV_Y;
+        if (differs(s.stateTime[i], p[4])) mask |= STATE_TIME;
+        if (differs(s.damageTimer[i], p[5])) mask |= DAMAGE_TIMER;
+        if (differs(s.restTime[i], p[6])) mask |= REST_TIME;
+        if (s.archetype[i] != base.archetype[b] || s.state[i] != base.state[b]
+            || s.flags[i] != base.flags[b] || s.attackCount[i] != base.attackCount[b]) mask |= DISCRETE;
+        if (s.health[i] != base.health[b]) mask |= HEALTH;
+        //only turns while walking towards a moving player
+        if (differs(s.dirX[i], base.dirX[b]) || differs(s.dirY[i], base.dirY[b])) mask |= DIRECTION;
+
+        writeVarInt(out, mask);
+        if ((mask & X) != 0) writeFloatDelta(out, s.x[i], p[0]);
+        if ((mask & Y) != 0) writeFloatDelta(out, s.y[i], p[1]);
+        if ((mask & PREV_X) != 0) writeFloatDelta(out, s.prevX[i], p[2]);
+        if ((mask & PREV_Y) != 0) writeFloatDelta(out, s.prevY[i], p[3]);
+        if ((mask & STATE_TIME) != 0) writeFloatDelta(out, s.stateTime[i], p[4]);
+        if ((mask & DAMAGE_TIMER) != 0) writeFloatDelta(out, s.damageTimer[i], p[5]);
+        if ((mask & REST_TIME) != 0) writeFloatDelta(out, s.restTime[i], p[6]);
+        if ((mask & DISCRETE) != 0) {
+            out.put(s.archetype[i]);
+            out.put(s.state[i]);
+            out.put(s.flags[i]);
+            out.put(s.attackCount[i]);
+        }
+        if ((mask & HEALTH) != 0) writeVarInt(out, zigZag(s.health[i] - base.health[b]));
+        if ((mask & DIRECTION) != 0) {
+            writeFloatDelta(out, s.dirX[i], base.dirX[b]);
+            writeFloatDelta(out, s.dirY[i], base.dirY[b]);
+        }
+    }
+
+    private static void readChanges(ByteBuffer in, int mask, Snapshot base, int b, Snapshot s, int i) {
+        float[] p = PREDICTION.get();
+        predict(base, b, s.tick - base.tick, p);
+
+        s.x[i] = (mask & X) != 0 ? readFloatDelta(in, p[0]) : p[0];
+        s.y[i] = (mask & Y) != 0 ? readFloatDelta(in, p[1]) : p[1];
+        s.prevX[i] = (mask & PREV_X) != 0 ? readFloatDelta(in, p[2]) : p[2];
+        s.prevY[i] = (mask & PREV_Y) != 0 ? readFloatDelta(in, p[3]) : p[3];
+        s.stateTime[i] = (mask & STATE_TIME) != 0 ? readFloatDelta(in, p[4]) : p[4];
+        s.damageTimer[i] = (mask & DAMAGE_TIMER) != 0 ? readFloatDelta(in, p[5]) : p[5];
+        s.restTime[i] = (mask & REST_TIME) != 0 ? readFloatDelta(in, p[6]) : p[6];
+        if ((mask & DISCRETE) != 0) {
+            readDiscrete(in, s, i);
+        } else {
+            s.archetype[i] = base.archetype[b];
+            s.state[i] = base.state[b];
+            s.flags[i] = base.flags[b];
+            s.attackCount[i] = base.attackCount[b];
+        }
+        s.health[i] = (mask & HEALTH) != 0 ? base.health[b] + unZigZag(readVarInt(in)) : base.health[b];
+        if ((mask & DIRECTION) != 0) {
+            s.dirX[i] = readFloatDelta(in, base.dirX[b]);
+            s.dirY[i] = readFloatDelta(in, base.dirY[b]);
+        } else {
+            s.dirX[i] = base.dirX[b];
+            s.dirY[i] = base.dirY[b];
+        }
+    }
+
+    private static void writeProjectiles(Snapshot s, ByteBuffer out) {
+        Projectiles projectiles = s.projectiles;
+        out.putInt(projectiles.size());
+        for (int i = 0; i < projectiles.size(); i++) {
+            out.putFloat(projectiles.getX(i));
+            out.putFloat(projectiles.getY(i));
+            out.putFloat(projectiles.getVelocityX(i));
+            out.putFloat(projectiles.getVelocityY(i));
+            out.putFloat(projectiles.getRotation(i));
+            out.putFloat(projectiles.getRotationSpeed(i));
+            out.putFloat(projectiles.getTimeAlive(i));
+            out.putFloat(projectiles.getLifetime(i));
+        }
+    }
+
+    private static void readProjectiles(ByteBuffer in, Snapshot s) {
+        Projectiles projectiles = s.projectiles;
+        projectiles.clear();
+        int count = in.getInt();
+        checkCount(count, MAX_PROJECTILES, PROJECTILE_SIZE, in, "bullets");
+        for (int i = 0; i < count; i++) {
+            projectiles.add(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat(),
+                in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat());
+        }
+    }
+
+    //a count read off the wire, before anything is sized by it
+    private static void checkCount(int count, int max, int minSize, ByteBuffer in, String what) {
+        if (count < 0 || count > max || (long) count * minSize > in.remaining()) {
+            throw new GdxRuntimeException("Corrupt snapshot: " + count + " " + what + " in " + in.remaining() + " bytes");
+        }
+    }
+
+    private static boolean differs(float value, float predicted) {
+        return Float.floatToRawIntBits(value) != Float.floatToRawIntBits(predicted);
+    }
+
+    //nearby floats of the same sign have nearby bit patterns
+    private static void writeFloatDelta(ByteBuffer out, float value, float predicted) {
+        writeVarInt(out, zigZag(Float.floatToRawIntBits(value) - Float.floatToRawIntBits(predicted)));
+    }
+
+    private static float readFloatDelta(ByteBuffer in, float predicted) {
+        return Float.intBitsToFloat(Float.floatToRawIntBits(predicted) + unZigZag(readVarInt(in)));
+    }
+
+    private static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) throw new GdxRuntimeException("Varint too long");
+            b = in.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid for broad-phase overlap queries. Entities are identified by int ids chosen by the caller,
+ * the grid is meant to be cleared and refilled every tick. Anything outside the covered area is clamped
+ * into the border cells, so queries stay correct for entities that left the arena.
+ */
+public class SpatialGrid {
+    private final float originX, originY;
+    private final float cellSize;
+    private final int columns, rows;
+
+    //first entry of every cell, -1 when empty
+    private final int[] cellHead;
+
+    //entries form per cell linked lists, one entity can sit in several cells
+    private int[] entryId = new int[256];
+    private int[] entryNext = new int[256];
+    private int entryCount = 0;
+
+    //bounds per id
+    private float[] minX = new float[64], minY = new float[64], maxX = new float[64], maxY = new float[64];
+
+    //query stamps, to report an id only once per query
+    private int[] seen = new int[64];
+    private int queryStamp = 0;
+
+    public SpatialGrid(float originX, float originY, float width, float height, float cellSize) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellHead = new int[columns * rows];
+        Arrays.fill(cellHead, -1);
+    }
+
+    public void clear() {
+        Arrays.fill(cellHead, -1);
+        entryCount = 0;
+    }
+
+    public void insert(int id, float x, float y, float width, float height) {
+        ensureIdCapacity(id + 1);
+        minX[id] = x;
+        minY[id] = y;
+        maxX[id] = x + width;
+        maxY[id] = y + height;
+
+        int c0 = column(x), c1 = column(x + width);
+        int r0 = row(y), r1 = row(y + height);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (entryCount == entryId.length) growEntries();
+                int cell = r * columns + c;
+                entryId[entryCount] = id;
+                entryNext[entryCount] = cellHead[cell];
+                cellHead[cell] = entryCount++;
+            }
+        }
+    }
+
+    //adds every id whose bounds overlap the rectangle to out, returns how many were added
+    public int query(float x, float y, float width, float height, IntArray out) {
+        if (++queryStamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            queryStamp = 1;
+        }
+
+        float right = x + width, top = y + height;
+        int found = 0;
+        int c0 = column(x), c1 = column(right);
+        int r0 = row(y), r1 = row(top);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int e = cellHead[r * columns + c]; e != -1; e = entryNext[e]) {
+                    int id = entryId[e];
+                    if (seen[id] == queryStamp) continue;
+                    seen[id] = queryStamp;
+
+                    //same rule as Rectangle.overlaps
+                    if (minX[id] < right && x < maxX[id] && minY[id] < top && y < maxY[id]) {
+                        out.add(id);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public float getCellSize() { return cellSize; }
+
+    private int column(float x) {
+        int c = (int) Math.floor((x - originX) / cellSize);
+        return c < 0 ? 0 : (c >= columns ? columns - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) Math.floor((y - originY) / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+
+    private void growEntries() {
+        int capacity = entryId.length * 2;
+        entryId = Arrays.copyOf(entryId, capacity);
+        entryNext = Arrays.copyOf(entryNext, capacity);
+    }
+
+    private void ensureIdCapacity(int required) {
+        if (required <= minX.length) return;
+        int capacity = Math.max(required, minX.length * 2);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Startup milestones, timed from JVM start. Each mark also shows the time since the previous one, which for
+ * assets loaded one after the other is that asset's load and decode time.
+ */
+public class StartupTimeline {
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Array<String> names = new Array<>();
+    private final LongArray times = new LongArray();
+
+    public StartupTimeline() {
+        mark("JVM start", jvmStart);
+    }
+
+    public void mark(String name) {
+        mark(name, System.currentTimeMillis());
+    }
+
+    private void mark(String name, long time) {
+        names.add(name);
+        times.add(time);
+    }
+
+    public long getTotalMillis() {
+        return times.peek() - jvmStart;
+    }
+
+    public void log(String tag) {
+        for (int i = 0; i < names.size; i++) {
+            long sinceStart = times.get(i) - jvmStart;
+            long sincePrevious = i == 0 ? 0 : times.get(i) - times.get(i - 1);
+            Gdx.app.log(tag, String.format("%6d ms  (+%5d ms)  %s", sinceStart, sincePrevious, names.get(i)));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * Where walking enemies go: along a {@link FlowField} towards their player, pushed apart from the enemies
+ * next to them so a wave does not collapse into one stack.
+ *
+ * {@link #prepare} runs once per tick before the enemies move. It updates the flow field and copies the
+ * living enemies' positions into a grid of cells one separation radius wide, sorted by cell. {@link #steer}
+ * only reads those copies, so enemies can be steered from several threads in any order with the same
+ * result, and at most {@link #MAX_NEIGHBOURS} neighbours count, so an enemy in a crowd costs no more than
+ * one on its own.
+ */
+public class Steering {
+    public static final float DEFAULT_RADIUS = Enemy.SIZE * 0.75f;
+    public static final int MAX_NEIGHBOURS = 8;
+    //column and row offsets of the cells searched, own cell first, in a crowd most neighbours are there
+    private static final int[] NEIGHBOUR_CELLS = {0, 0, -1, -1, 0, -1, 1, -1, -1, 0, 1, 0, -1, 1, 0, 1, 1, 1};
+
+    private final FlowField field;
+    private final float radius;
+    private float separationWeight = 1.5f;
+
+    private final float originX, originY;
+    private final int columns, rows;
+    //cell c holds the sorted entries cellStart[c] until cellStart[c + 1]
+    private final int[] cellStart;
+    private int[] cellOf = new int[64];
+    private int[] entryIndex = new int[64]; //the enemy's index in the world's list
+    private float[] entryX = new float[64], entryY = new float[64];
+    private int entryCount = 0;
+
+    public Steering() {
+        this(new FlowField(), DEFAULT_RADIUS);
+    }
+
+    public Steering(FlowField field, float radius) {
+        this.field = field;
+        this.radius = radius;
+        this.originX = World.AREA_OFFSET_X;
+        this.originY = World.AREA_OFFSET_Y;
+        this.columns = Math.max(1, (int) Math.ceil(World.PLAYABLE_AREA_SIZE / radius));
+        this.rows = columns;
+        this.cellStart = new int[columns * rows + 1];
+    }
+
+    //once per tick, after finished enemies are dropped and before any steer
+    public void prepare(World world) {
+        field.update(world);
+
+        Array<Enemy> enemies = world.getEnemies();
+        if (cellOf.length < enemies.size) {
+            int capacity = Math.max(enemies.size, cellOf.length * 2);
+            cellOf = new int[capacity];
+            entryIndex = new int[capacity];
+            entryX = new float[capacity];
+            entryY = new float[capacity];
+        }
+
+        //counting sort by cell, enemies keep their order inside a cell
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            int cell = enemy.getState() == Enemy.State.DEAD ? -1 : cell(enemy.getX(), enemy.getY());
+            cellOf[i] = cell;
+            if (cell >= 0) cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) cellStart[c + 1] += cellStart[c];
+        entryCount = cellStart[columns * rows];
+
+        for (int i = 0; i < enemies.size; i++) {
+            int cell = cellOf[i];
+            if (cell < 0) continue;
+            Enemy enemy = enemies.get(i);
+            int at = cellStart[cell]++;
+            entryIndex[at] = i;
+            entryX[at] = enemy.getX();
+            entryY[at] = enemy.getY();
+        }
+        //every start moved up by its own count, which is where the cell before ends
+        for (int c = columns * rows; c > 0; c--) cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+    }
+
+    /**
+     * Sets the walking direction of the enemy at this index in the world's list. dx, dy and distance are
+     * towards the target the enemy picked, its nearest player, which it walks at directly when the flow field
+     * sees no obstacle between the enemy's cell and that player's; otherwise it follows the field. The index
+     * tells the enemy apart from its neighbours, ids need not be unique.
+     */
+    public void steer(int index, Enemy enemy, float dx, float dy, float distance) {
+        float x = enemy.getX(), y = enemy.getY();
+        int fieldCell = field.cellAt(x, y);
+        float dirX, dirY;
+        if (distance < field.getCellSize() || field.isVisible(fieldCell, field.cellAt(x + dx, y + dy))) {
+            dirX = dx / distance;
+            dirY = dy / distance;
+        } else {
+            dirX = field.getDirectionX(fieldCell);
+            dirY = field.getDirectionY(fieldCell);
+        }
+
+        float pushX = 0f, pushY = 0f;
+        int neighbours = 0;
+        int c = column(x), r = row(y);
+        for (int k = 0; k < NEIGHBOUR_CELLS.length && neighbours < MAX_NEIGHBOURS; k += 2) {
+            int nc = c + NEIGHBOUR_CELLS[k], nr = r + NEIGHBOUR_CELLS[k + 1];
+            if (nc < 0 || nc >= columns || nr < 0 || nr >= rows) continue;
+            int cell = nr * columns + nc;
+            for (int e = cellStart[cell]; e < cellStart[cell + 1] && neighbours < MAX_NEIGHBOURS; e++) {
+                if (entryIndex[e] == index) continue;
+                float ox = x - entryX[e], oy = y - entryY[e];
+                float distance2 = ox * ox + oy * oy;
+                if (distance2 >= radius * radius) continue;
+                neighbours++;
+                if (distance2 == 0f) {
+                    //right on top of each other, the older one, earlier in the list, stays and the newer one steps aside
+                    pushX += entryIndex[e] < index ? 1f : -1f;
+                    continue;
+                }
+                float d = (float) Math.sqrt(distance2);
+                float strength = (1f - d / radius) / d;
+                pushX += ox * strength;
+                pushY += oy * strength;
+            }
+        }
+
+        float steerX = dirX + pushX * separationWeight;
+        float steerY = dirY + pushY * separationWeight;
+        float length = (float) Math.sqrt(steerX * steerX + steerY * steerY);
+        if (length > 1e-4f) {
+            enemy.setDirection(steerX / length, steerY / length);
+        } else {
+            enemy.setDirection(dirX, dirY);
+        }
+    }
+
+    //how hard neighbours push compared to the pull of the path, 0 turns separation off
+    public Steering setSeparationWeight(float weight) {
+        this.separationWeight = weight;
+        return this;
+    }
+
+    public FlowField getField() { return field; }
+    public float getRadius() { return radius; }
+    //living enemies in the separation grid this tick
+    public int getEntryCount() { return entryCount; }
+
+    private int cell(float x, float y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(float x) {
+        int c = (int) Math.floor((x - originX) / radius);
+        return c < 0 ? 0 : (c >= columns ? columns - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) Math.floor((y - originY) / radius);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.arenaShooter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event committed by {@link TickProfiler#commit} for every frame or tick, with the time each
+ * phase took and how much there was to simulate. Shows up under arenaShooter in JDK Mission Control when
+ * the game runs with -XX:StartFlightRecording.
+ */
+@Name("arenaShooter.Tick")
+@Label("Tick")
+@Category("arenaShooter")
+@Description("Phase times of one frame or simulation tick")
+@StackTrace(false)
+class TickEvent extends Event {
+    @Label("Tick")
+    long tick;
+    @Label("Enemies")
+    int enemies;
+    @Label("Bullets")
+    int bullets;
+
+    @Label("Frame") @Timespan(Timespan.NANOSECONDS)
+    long frame;
+    @Label("Input") @Timespan(Timespan.NANOSECONDS)
+    long input;
+    @Label("Logic") @Timespan(Timespan.NANOSECONDS)
+    long logic;
+    @Label("Waves") @Timespan(Timespan.NANOSECONDS)
+    long waves;
+    @Label("Enemy AI") @Timespan(Timespan.NANOSECONDS)
+    long ai;
+    @Label("Bullets update") @Timespan(Timespan.NANOSECONDS)
+    long bulletUpdate;
+    @Label("Contacts") @Timespan(Timespan.NANOSECONDS)
+    long contacts;
+    @Label("Draw") @Timespan(Timespan.NANOSECONDS)
+    long draw;
+
+    private static final EventType TYPE = EventType.getEventType(TickEvent.class);
+
+    //whether a running recording wants these events, without making one
+    static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+}
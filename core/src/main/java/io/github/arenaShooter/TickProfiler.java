@@ -0,0 +1,215 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Where the time of a frame or tick goes. Phases are timed with scopes that need no allocation:
+ *
+ * <pre>
+ * try (TickProfiler.Scope scope = profiler.time(TickProfiler.AI)) {
+ *     updateEnemies(delta);
+ * }
+ * </pre>
+ *
+ * and {@link #commit} closes the frame: every phase's time of the frame goes into its histograms and into a
+ * {@link TickEvent} for Flight Recorder. A phase timed several times in one frame, logic with two ticks to
+ * catch up, adds up. Phases nest, logic holds waves, AI, bullets and contacts, but a phase must not nest in
+ * itself.
+ *
+ * Disabled, {@link #time} hands out a scope that does nothing and {@link #commit} returns at once, so the
+ * timers can stay in the code for good. Recent histograms roll over {@link #WINDOWS} windows of a set number
+ * of frames for the overlay; whole-run histograms are kept for {@link #dump}.
+ */
+public class TickProfiler {
+    public static final int FRAME = 0;
+    public static final int INPUT = 1;
+    public static final int LOGIC = 2;
+    public static final int WAVES = 3;
+    public static final int AI = 4;
+    public static final int BULLETS = 5;
+    public static final int CONTACTS = 6;
+    public static final int DRAW = 7;
+    public static final int PHASES = 8;
+    private static final String[] NAMES = {"frame", "input", "logic", "waves", "ai", "bullets", "contacts", "draw"};
+
+    public static final int WINDOWS = 8;
+
+    /** Stops its phase's timer when closed. */
+    public static final class Scope implements AutoCloseable {
+        private final TickProfiler profiler;
+        private final int phase;
+        private long start;
+
+        private Scope(TickProfiler profiler, int phase) {
+            this.profiler = profiler;
+            this.phase = phase;
+        }
+
+        @Override
+        public void close() {
+            if (profiler != null) profiler.elapsed[phase] += System.nanoTime() - start;
+        }
+    }
+
+    /** A scope that does nothing, for code running without a profiler. */
+    public static final Scope OFF = new Scope(null, -1);
+
+    private final Scope[] scopes = new Scope[PHASES];
+    private final long[] elapsed = new long[PHASES];
+    //recent[phase][window], the window being written is the one at current
+    private final LatencyHistogram[][] recent = new LatencyHistogram[PHASES][WINDOWS];
+    private final LatencyHistogram[] total = new LatencyHistogram[PHASES];
+    private final LatencyHistogram merged = new LatencyHistogram();
+    private final int windowFrames;
+    private int current = 0;
+    private int framesInWindow = 0;
+    private long frames = 0;
+    private boolean enabled = false;
+
+    public TickProfiler() {
+        this(64);
+    }
+
+    public TickProfiler(int windowFrames) {
+        this.windowFrames = Math.max(1, windowFrames);
+        for (int phase = 0; phase < PHASES; phase++) {
+            scopes[phase] = new Scope(this, phase);
+            total[phase] = new LatencyHistogram();
+            for (int window = 0; window < WINDOWS; window++) recent[phase][window] = new LatencyHistogram();
+        }
+    }
+
+    //starts timing the phase, until the returned scope is closed
+    public Scope time(int phase) {
+        if (!enabled) return OFF;
+        Scope scope = scopes[phase];
+        scope.start = System.nanoTime();
+        return scope;
+    }
+
+    /**
+     * Ends the frame: records every phase that ran, commits a {@link TickEvent} if a recording wants one and
+     * starts over. Phases that did not run this frame are not recorded, so waves only counts ticks with waves.
+     */
+    public void commit(long tick, int enemies, int bullets) {
+        if (!enabled) return;
+        for (int phase = 0; phase < PHASES; phase++) {
+            if (elapsed[phase] == 0) continue;
+            recent[phase][current].record(elapsed[phase]);
+            total[phase].record(elapsed[phase]);
+        }
+
+        //an event is only made while a recording is on, the check itself allocates nothing
+        if (TickEvent.isRecording()) {
+            TickEvent event = new TickEvent();
+            event.tick = tick;
+            event.enemies = enemies;
+            event.bullets = bullets;
+            event.frame = elapsed[FRAME];
+            event.input = elapsed[INPUT];
+            event.logic = elapsed[LOGIC];
+            event.waves = elapsed[WAVES];
+            event.ai = elapsed[AI];
+            event.bulletUpdate = elapsed[BULLETS];
+            event.contacts = elapsed[CONTACTS];
+            event.draw = elapsed[DRAW];
+            if (event.shouldCommit()) event.commit();
+        }
+
+        Arrays.fill(elapsed, 0);
+        frames++;
+        if (++framesInWindow == windowFrames) {
+            framesInWindow = 0;
+            current = (current + 1) % WINDOWS;
+            for (int phase = 0; phase < PHASES; phase++) recent[phase][current].reset();
+        }
+    }
+
+    //value of the phase at the fraction over the recent windows, in nanoseconds
+    public long getRecentPercentile(int phase, double fraction) {
+        merged.reset();
+        for (int window = 0; window < WINDOWS; window++) merged.add(recent[phase][window]);
+        return merged.percentile(fraction);
+    }
+
+    /** Writes the whole-run histograms, as JSON when the file name ends in .json and as CSV otherwise. */
+    public void dump(FileHandle file) {
+        try (Writer out = file.writer(false, "UTF-8")) {
+            if ("json".equalsIgnoreCase(file.extension())) {
+                writeJson(out);
+            } else {
+                writeCsv(out);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write profile: " + file, e);
+        }
+    }
+
+    //one row per phase, times in microseconds
+    private void writeCsv(Writer out) throws IOException {
+        out.write("phase,count,mean_us,p50_us,p90_us,p99_us,p999_us,max_us\n");
+        for (int phase = 0; phase < PHASES; phase++) {
+            LatencyHistogram histogram = total[phase];
+            if (histogram.getCount() == 0) continue;
+            out.write(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n", NAMES[phase],
+                histogram.getCount(), histogram.getMean() / 1e3, micros(histogram, 0.5), micros(histogram, 0.9),
+                micros(histogram, 0.99), micros(histogram, 0.999), histogram.getMax() / 1e3));
+        }
+    }
+
+    //the same numbers, plus the non-empty buckets as [highest value in ns, count] to rebuild the distribution
+    private void writeJson(Writer out) throws IOException {
+        out.write("{\"frames\":" + frames + ",\"phases\":{");
+        boolean first = true;
+        for (int phase = 0; phase < PHASES; phase++) {
+            LatencyHistogram histogram = total[phase];
+            if (histogram.getCount() == 0) continue;
+            if (!first) out.write(',');
+            first = false;
+            out.write(String.format(Locale.ROOT,
+                "\n\"%s\":{\"count\":%d,\"mean_us\":%.3f,\"p50_us\":%.3f,\"p90_us\":%.3f,\"p99_us\":%.3f,"
+                    + "\"p999_us\":%.3f,\"max_us\":%.3f,\"buckets\":[", NAMES[phase], histogram.getCount(),
+                histogram.getMean() / 1e3, micros(histogram, 0.5), micros(histogram, 0.9), micros(histogram, 0.99),
+                micros(histogram, 0.999), histogram.getMax() / 1e3));
+            boolean firstBucket = true;
+            for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+                int count = histogram.getCount(bucket);
+                if (count == 0) continue;
+                if (!firstBucket) out.write(',');
+                firstBucket = false;
+                out.write("[" + LatencyHistogram.highestIn(bucket) + "," + count + "]");
+            }
+            out.write("]}");
+        }
+        out.write("\n}}\n");
+    }
+
+    private static double micros(LatencyHistogram histogram, double fraction) {
+        return histogram.percentile(fraction) / 1e3;
+    }
+
+    //cheap when nothing changes, so it can follow a recording frame by frame
+    public TickProfiler setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return this;
+        this.enabled = enabled;
+        //a frame that was half timed when switched on or off is dropped
+        Arrays.fill(elapsed, 0);
+        return this;
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public long getFrames() { return frames; }
+    public LatencyHistogram getTotal(int phase) { return total[phase]; }
+    public static String getName(int phase) { return NAMES[phase]; }
+
+    //whether a Flight Recorder recording that takes tick events is running
+    public static boolean isRecording() {
+        return TickEvent.isRecording();
+    }
+}
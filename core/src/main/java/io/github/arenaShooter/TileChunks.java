@@ -0,0 +1,109 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.util.Arrays;
+
+/**
+ * The chunks of a {@link TileMap} around the camera, in a fixed number of slots. {@link #stream} loads the
+ * chunks the view touches plus a margin of one chunk, so walking into a new chunk finds it loaded already,
+ * and a chunk that is needed when every slot is taken replaces the one used least recently. Memory stays at
+ * the slot count whatever the size of the map.
+ */
+public class TileChunks {
+    private final TileMap map;
+    private final int chunkSize;
+    private final float chunkWorldSize;
+
+    //slot contents, key is chunkY * chunkColumns + chunkX, -1 when free
+    private final short[][] tiles;
+    private final int[] keys;
+    private final long[] lastUsed;
+    private final IntIntMap slotOf = new IntIntMap();
+    private long frame = 0;
+
+    //chunk range the view touched in the last stream, inclusive
+    private int visibleX0, visibleY0, visibleX1 = -1, visibleY1 = -1;
+
+    private long loads, evictions;
+
+    public TileChunks(TileMap map, int capacity) {
+        this.map = map;
+        this.chunkSize = map.getChunkSize();
+        this.chunkWorldSize = (float) chunkSize * map.getTileSize();
+        tiles = new short[Math.max(1, capacity)][chunkSize * chunkSize];
+        keys = new int[tiles.length];
+        lastUsed = new long[tiles.length];
+        Arrays.fill(keys, -1);
+    }
+
+    /**
+     * Makes sure the chunks under the view and one chunk around it are loaded. When the slots do not cover
+     * all of them the visible ones go first, the margin gets what is left.
+     */
+    public void stream(Rectangle view) {
+        frame++;
+        int columns = map.getChunkColumns(), rows = map.getChunkRows();
+        visibleX0 = Math.max(0, (int) Math.floor(view.x / chunkWorldSize));
+        visibleY0 = Math.max(0, (int) Math.floor(view.y / chunkWorldSize));
+        visibleX1 = Math.min(columns - 1, (int) Math.floor((view.x + view.width) / chunkWorldSize));
+        visibleY1 = Math.min(rows - 1, (int) Math.floor((view.y + view.height) / chunkWorldSize));
+
+        for (int cy = visibleY0; cy <= visibleY1; cy++) {
+            for (int cx = visibleX0; cx <= visibleX1; cx++) {
+                touch(cx, cy);
+            }
+        }
+        int visible = Math.max(0, visibleX1 - visibleX0 + 1) * Math.max(0, visibleY1 - visibleY0 + 1);
+        int margin = tiles.length - visible;
+        for (int cy = Math.max(0, visibleY0 - 1); cy <= Math.min(rows - 1, visibleY1 + 1) && margin > 0; cy++) {
+            for (int cx = Math.max(0, visibleX0 - 1); cx <= Math.min(columns - 1, visibleX1 + 1) && margin > 0; cx++) {
+                if (cx >= visibleX0 && cx <= visibleX1 && cy >= visibleY0 && cy <= visibleY1) continue;
+                touch(cx, cy);
+                margin--;
+            }
+        }
+    }
+
+    //loads the chunk into the least recently used slot if it is not resident
+    private void touch(int cx, int cy) {
+        int key = cy * map.getChunkColumns() + cx;
+        int slot = slotOf.get(key, -1);
+        if (slot < 0) {
+            slot = 0;
+            for (int i = 1; i < keys.length; i++) {
+                if (lastUsed[i] < lastUsed[slot]) slot = i;
+            }
+            if (keys[slot] >= 0) {
+                slotOf.remove(keys[slot], -1);
+                evictions++;
+            }
+            map.readChunk(cx, cy, tiles[slot]);
+            keys[slot] = key;
+            slotOf.put(key, slot);
+            loads++;
+        }
+        lastUsed[slot] = frame;
+    }
+
+    /**
+     * Tiles of a resident chunk, row by row from its bottom left, or null when it is not loaded. Chunks
+     * inside {@link #getVisibleX0()}..{@link #getVisibleX1()} and the y range are loaded after a stream,
+     * as long as there are enough slots for them.
+     */
+    public short[] get(int cx, int cy) {
+        int slot = slotOf.get(cy * map.getChunkColumns() + cx, -1);
+        return slot < 0 ? null : tiles[slot];
+    }
+
+    public TileMap getMap() { return map; }
+    public int getVisibleX0() { return visibleX0; }
+    public int getVisibleY0() { return visibleY0; }
+    public int getVisibleX1() { return visibleX1; }
+    public int getVisibleY1() { return visibleY1; }
+    public int getCapacity() { return tiles.length; }
+    public int getResident() { return slotOf.size; }
+    public long getLoads() { return loads; }
+    public long getEvictions() { return evictions; }
+}
@@ -0,0 +1,163 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A tile map on disk, read one chunk at a time. The file is memory mapped, so opening it costs nothing and
+ * a chunk is only paged in by the OS when it is read; maps inside a jar, which cannot be mapped, are read
+ * into memory instead. See {@link TileChunks} for the chunks kept around the camera.
+ *
+ * File layout, big endian: int magic, int version, int tile size in world units, int chunk size in tiles,
+ * int columns, int rows, then the chunks row by row from the bottom left, each chunk its tiles as shorts row
+ * by row from the bottom left. Chunks are all the same size, so any chunk is found without an index; tiles
+ * past the map's edge are {@link #EMPTY}. Row 0 is at the bottom, as world y goes up.
+ */
+public class TileMap implements Disposable {
+    public static final int MAGIC = 0x4154494d; //"ATIM"
+    public static final int VERSION = 1;
+    public static final short EMPTY = -1;
+    private static final int HEADER_SIZE = 24;
+    private static final int MAX_CHUNK_SIZE = 1024;
+
+    /** Tile at the given column and row, from the bottom left. */
+    public interface TileSource {
+        int tile(int column, int row);
+    }
+
+    private final FileChannel channel; //null when read into memory
+    private final ShortBuffer tiles;
+    private final int tileSize;
+    private final int chunkSize;
+    private final int columns, rows;
+    private final int chunkColumns, chunkRows;
+
+    private TileMap(FileChannel channel, ByteBuffer data, FileHandle file) {
+        this.channel = channel;
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC) {
+            throw new GdxRuntimeException("Not a tile map: " + file);
+        }
+        int version = data.getInt();
+        if (version != VERSION) throw new GdxRuntimeException("Unsupported tile map version " + version + ": " + file);
+        tileSize = data.getInt();
+        chunkSize = data.getInt();
+        columns = data.getInt();
+        rows = data.getInt();
+        checkSize(tileSize, chunkSize, columns, rows, file);
+        chunkColumns = chunks(columns, chunkSize);
+        chunkRows = chunks(rows, chunkSize);
+        tiles = data.asShortBuffer();
+        if (tiles.remaining() < (long) chunkColumns * chunkRows * chunkSize * chunkSize) {
+            throw new GdxRuntimeException("Tile map is cut short: " + file);
+        }
+    }
+
+    public static TileMap open(FileHandle file) {
+        File path = file.type() == Files.FileType.Classpath ? null : file.file();
+        if (path == null || !path.isFile()) {
+            return new TileMap(null, ByteBuffer.wrap(file.readBytes()), file);
+        }
+        try {
+            FileChannel channel = FileChannel.open(path.toPath(), StandardOpenOption.READ);
+            if (channel.size() > Integer.MAX_VALUE) {
+                channel.close();
+                throw new GdxRuntimeException("Tile map over 2 GB: " + file);
+            }
+            return new TileMap(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't map tile map: " + file, e);
+        }
+    }
+
+    public static void write(FileHandle file, int tileSize, int chunkSize, int columns, int rows, TileSource source) {
+        checkSize(tileSize, chunkSize, columns, rows, file);
+        int chunkColumns = chunks(columns, chunkSize);
+        int chunkRows = chunks(rows, chunkSize);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(tileSize);
+            out.writeInt(chunkSize);
+            out.writeInt(columns);
+            out.writeInt(rows);
+            for (int cy = 0; cy < chunkRows; cy++) {
+                for (int cx = 0; cx < chunkColumns; cx++) {
+                    for (int y = 0; y < chunkSize; y++) {
+                        for (int x = 0; x < chunkSize; x++) {
+                            int column = cx * chunkSize + x, row = cy * chunkSize + y;
+                            boolean inside = column < columns && row < rows;
+                            out.writeShort(inside ? source.tile(column, row) : EMPTY);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write tile map: " + file, e);
+        }
+    }
+
+    //a chunk's tiles have to fit a short[], and a corrupt header must not divide by zero
+    private static void checkSize(int tileSize, int chunkSize, int columns, int rows, FileHandle file) {
+        if (tileSize <= 0 || chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE || columns <= 0 || rows <= 0) {
+            throw new GdxRuntimeException("Bad tile map size: tile " + tileSize + ", chunk " + chunkSize + ", "
+                + columns + "x" + rows + " tiles: " + file);
+        }
+    }
+
+    private static int chunks(int tiles, int chunkSize) {
+        return (int) (((long) tiles + chunkSize - 1) / chunkSize);
+    }
+
+    //copies the chunk's tiles into out, which holds chunkSize * chunkSize
+    public void readChunk(int chunkX, int chunkY, short[] out) {
+        int tilesPerChunk = chunkSize * chunkSize;
+        //absolute get, so chunks can be read while another thread reads another one
+        tiles.slice((chunkY * chunkColumns + chunkX) * tilesPerChunk, tilesPerChunk).get(out, 0, tilesPerChunk);
+    }
+
+    //reads the whole map, meant for checking it once when it is loaded
+    public int getHighestTile() {
+        short[] chunk = new short[chunkSize * chunkSize];
+        int highest = EMPTY;
+        for (int cy = 0; cy < chunkRows; cy++) {
+            for (int cx = 0; cx < chunkColumns; cx++) {
+                readChunk(cx, cy, chunk);
+                for (short tile : chunk) highest = Math.max(highest, tile);
+            }
+        }
+        return highest;
+    }
+
+    public int getTileSize() { return tileSize; }
+    public int getChunkSize() { return chunkSize; }
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public int getChunkColumns() { return chunkColumns; }
+    public int getChunkRows() { return chunkRows; }
+    public float getWidth() { return (float) columns * tileSize; }
+    public float getHeight() { return (float) rows * tileSize; }
+    //false when the map was read into memory
+    public boolean isMapped() { return channel != null; }
+
+    //the mapping itself goes away with the buffer, the JDK has no way to unmap it earlier
+    @Override
+    public void dispose() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close tile map", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Draws a {@link TileMap} from its resident {@link TileChunks}. Only chunks under the view are looked at and
+ * only their tiles that overlap it go into the batch, so the cost follows the window, not the map.
+ *
+ * Tile ids index the tileset cut into squares of the given size in texture pixels, row by row from its top
+ * left; each is stretched over the map's tile size in world units.
+ */
+public class TileMapRenderer {
+    private final TileChunks chunks;
+    private final TextureRegion[] tileset;
+
+    public TileMapRenderer(TileChunks chunks, TextureRegion tileset, int tilePixels) {
+        this.chunks = chunks;
+        TextureRegion[][] grid = tileset.split(tilePixels, tilePixels);
+        int columns = grid.length == 0 ? 0 : grid[0].length;
+        this.tileset = new TextureRegion[grid.length * columns];
+        for (int row = 0; row < grid.length; row++) {
+            System.arraycopy(grid[row], 0, this.tileset, row * columns, columns);
+        }
+        //checked once here, so draw() needs no bounds check per tile
+        int highest = chunks.getMap().getHighestTile();
+        if (highest >= this.tileset.length) {
+            throw new GdxRuntimeException("Tile map uses tile " + highest + ", the tileset has "
+                + this.tileset.length + " tiles of " + tilePixels + " pixels");
+        }
+    }
+
+    //streams the chunks around the view in and draws the tiles in it, returns how many were drawn
+    public int draw(Batch batch, Rectangle view) {
+        chunks.stream(view);
+
+        TileMap map = chunks.getMap();
+        int tileSize = map.getTileSize();
+        int chunkSize = map.getChunkSize();
+        int firstColumn = Math.max(0, (int) Math.floor(view.x / tileSize));
+        int firstRow = Math.max(0, (int) Math.floor(view.y / tileSize));
+        int lastColumn = Math.min(map.getColumns() - 1, (int) Math.floor((view.x + view.width) / tileSize));
+        int lastRow = Math.min(map.getRows() - 1, (int) Math.floor((view.y + view.height) / tileSize));
+
+        int drawn = 0;
+        for (int cy = chunks.getVisibleY0(); cy <= chunks.getVisibleY1(); cy++) {
+            for (int cx = chunks.getVisibleX0(); cx <= chunks.getVisibleX1(); cx++) {
+                short[] tiles = chunks.get(cx, cy);
+                if (tiles == null) continue;
+
+                //the part of the chunk inside the view, in tiles
+                int x0 = Math.max(firstColumn - cx * chunkSize, 0);
+                int x1 = Math.min(lastColumn - cx * chunkSize, chunkSize - 1);
+                int y0 = Math.max(firstRow - cy * chunkSize, 0);
+                int y1 = Math.min(lastRow - cy * chunkSize, chunkSize - 1);
+                for (int y = y0; y <= y1; y++) {
+                    for (int x = x0; x <= x1; x++) {
+                        int tile = tiles[y * chunkSize + x];
+                        if (tile < 0) continue;
+                        batch.draw(tileset[tile], (cx * chunkSize + x) * tileSize, (cy * chunkSize + y) * tileSize,
+                            tileSize, tileSize);
+                        drawn++;
+                    }
+                }
+            }
+        }
+        return drawn;
+    }
+
+    public TileChunks getChunks() { return chunks; }
+    public int getTileCount() { return tileset.length; }
+}
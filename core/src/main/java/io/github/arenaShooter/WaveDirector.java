@@ -0,0 +1,145 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Decides when and where enemies spawn. Waves start on a timer, or early once the arena is empty, and the
+ * count for each wave comes from a {@link CountCurve}. A wave does not appear at once: its enemies trickle
+ * in at a fixed rate, each in a random spawn zone away from the players. Runs inside {@link World#tick} and
+ * draws from the world's random, so with the same seed it spawns the same enemies in the same ticks.
+ */
+public class WaveDirector {
+
+    /** Enemies in a given wave, the first wave is 1. */
+    public interface CountCurve {
+        int count(int wave);
+    }
+
+    //eases from first to last over rampWaves waves, then stays at last
+    public static CountCurve ramp(int first, int last, int rampWaves, Interpolation shape) {
+        return wave -> {
+            float progress = MathUtils.clamp((wave - 1) / (float) Math.max(1, rampWaves - 1), 0f, 1f);
+            return Math.round(shape.apply(first, last, progress));
+        };
+    }
+
+    //the game's waves: 3 to 60 skeletons over ten waves, coming in along the four walls
+    public static WaveDirector createDefault() {
+        float min = World.AREA_OFFSET_X;
+        float size = World.PLAYABLE_AREA_SIZE;
+        float strip = 150;
+        return new WaveDirector(ramp(3, 60, 10, Interpolation.pow2In))
+            .addZone(min, min, size, strip)
+            .addZone(min, min + size - strip, size, strip)
+            .addZone(min, min, strip, size)
+            .addZone(min + size - strip, min, strip, size)
+            .setWaveInterval(20f)
+            .setSpawnRate(5f);
+    }
+
+    private final CountCurve curve;
+    private final Array<Rectangle> zones = new Array<>();
+
+    private float waveInterval = 20f;
+    private float spawnRate = 10f; //enemies per second while a wave is spawning
+    private float minPlayerDistance = 300f;
+    private int maxAlive = Integer.MAX_VALUE;
+
+    private int wave = 0;
+    private float untilNextWave = 0f;
+    private int toSpawn = 0;
+    private float spawnBudget = 0f;
+    private long spawned = 0;
+
+    public WaveDirector(CountCurve curve) {
+        this.curve = curve;
+    }
+
+    //zones are clipped to the playable area, enemies spawn fully inside
+    public WaveDirector addZone(float x, float y, float width, float height) {
+        Rectangle area = new Rectangle(World.AREA_OFFSET_X, World.AREA_OFFSET_Y,
+            World.PLAYABLE_AREA_SIZE - Enemy.SIZE, World.PLAYABLE_AREA_SIZE - Enemy.SIZE);
+        Rectangle zone = new Rectangle(x, y, width, height);
+        float left = Math.max(zone.x, area.x);
+        float bottom = Math.max(zone.y, area.y);
+        float right = Math.min(zone.x + zone.width, area.x + area.width);
+        float top = Math.min(zone.y + zone.height, area.y + area.height);
+        if (right > left && top > bottom) {
+            zones.add(zone.set(left, bottom, right - left, top - bottom));
+        }
+        return this;
+    }
+
+    public void update(float delta, World world) {
+        untilNextWave -= delta;
+        boolean cleared = toSpawn == 0 && world.getEnemies().size == 0;
+        if (untilNextWave <= 0f || cleared) {
+            wave++;
+            toSpawn += Math.max(0, curve.count(wave));
+            untilNextWave = waveInterval;
+        }
+
+        if (toSpawn == 0) {
+            spawnBudget = 0f;
+            return;
+        }
+
+        spawnBudget += spawnRate * delta;
+        while (spawnBudget >= 1f && toSpawn > 0 && world.getEnemies().size < maxAlive) {
+            spawnOne(world);
+            spawnBudget -= 1f;
+            toSpawn--;
+        }
+        //held back by maxAlive, don't save up a burst for when room frees up
+        if (toSpawn > 0) spawnBudget = Math.min(spawnBudget, 1f);
+    }
+
+    private void spawnOne(World world) {
+        if (zones.size == 0) {
+            addZone(0, 0, World.MAP_TEXTURE_SIZE, World.MAP_TEXTURE_SIZE);
+        }
+
+        //a few tries for a spot away from the players, else take the last one
+        float x = 0, y = 0;
+        for (int attempt = 0; attempt < 4; attempt++) {
+            Rectangle zone = zones.get(world.getRandom().nextInt(zones.size));
+            x = zone.x + world.getRandom().nextFloat() * zone.width;
+            y = zone.y + world.getRandom().nextFloat() * zone.height;
+            int player = world.nearestPlayer(x + Enemy.SIZE / 2, y + Enemy.SIZE / 2);
+            if (player < 0) break;
+            float dx = x + Enemy.SIZE / 2 - world.getPlayerX(player);
+            float dy = y + Enemy.SIZE / 2 - world.getPlayerY(player);
+            if (dx * dx + dy * dy >= minPlayerDistance * minPlayerDistance) break;
+        }
+        world.spawnEnemy(x, y);
+        spawned++;
+    }
+
+    void saveState(Snapshot snapshot) {
+        snapshot.wave = wave;
+        snapshot.untilNextWave = untilNextWave;
+        snapshot.toSpawn = toSpawn;
+        snapshot.spawnBudget = spawnBudget;
+        snapshot.spawned = spawned;
+    }
+
+    void loadState(Snapshot snapshot) {
+        wave = snapshot.wave;
+        untilNextWave = snapshot.untilNextWave;
+        toSpawn = snapshot.toSpawn;
+        spawnBudget = snapshot.spawnBudget;
+        spawned = snapshot.spawned;
+    }
+
+    public WaveDirector setWaveInterval(float seconds) { this.waveInterval = seconds; return this; }
+    public WaveDirector setSpawnRate(float perSecond) { this.spawnRate = perSecond; return this; }
+    public WaveDirector setMinPlayerDistance(float distance) { this.minPlayerDistance = distance; return this; }
+    public WaveDirector setMaxAlive(int maxAlive) { this.maxAlive = maxAlive; return this; }
+
+    public int getWave() { return wave; }
+    public int getPendingSpawns() { return toSpawn; }
+    public long getSpawned() { return spawned; }
+}
@@ -0,0 +1,448 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Render-independent game state: player, enemies and bullets. One call to {@link #tick(float, int)}
+ * advances the simulation by a fixed step, so the same world runs in the desktop game and headless.
+ * All randomness comes from {@link #getRandom()}: the same seed and the same inputs give the same world.
+ *
+ * A world starts with one player in slot 0. A server adds and removes players in up to {@link #MAX_PLAYERS}
+ * slots, each enemy then goes after the player nearest to it.
+ */
+public class World implements Disposable {
+    public static final float MAP_TEXTURE_SIZE = 1500;
+    public static final float PLAYABLE_AREA_SIZE = 1400;
+    public static final float PLAYER_MARGIN = 28;
+    public static final float PLAYER_SIZE = 64;
+    public static final float PLAYER_SPEED = 300;
+    public static final int MAX_PLAYERS = 8;
+    public static final int PLAYER_HEALTH = 100;
+    public static final int BULLET_DAMAGE = 5;
+
+    public static final float AREA_OFFSET_X = (MAP_TEXTURE_SIZE - PLAYABLE_AREA_SIZE) / 2f;
+    public static final float AREA_OFFSET_Y = (MAP_TEXTURE_SIZE - PLAYABLE_AREA_SIZE) / 2f;
+
+    //player slots, a free slot keeps its last position
+    private final boolean[] playerActive = new boolean[MAX_PLAYERS];
+    private final float[] playerX = new float[MAX_PLAYERS];
+    private final float[] playerY = new float[MAX_PLAYERS];
+    private final float[] prevPlayerX = new float[MAX_PLAYERS];
+    private final float[] prevPlayerY = new float[MAX_PLAYERS];
+    private final int[] playerInput = new int[MAX_PLAYERS];
+    private final int[] playerHealth = new int[MAX_PLAYERS];
+    private final int[] playerDeaths = new int[MAX_PLAYERS];
+    private int playerCount = 0;
+
+    private final Array<Enemy> enemies = new Array<>();
+    //finished enemies go back here instead of to the garbage collector
+    private final Pool<Enemy> enemyPool = new Pool<Enemy>(64) {
+        @Override
+        protected Enemy newObject() {
+            return new Enemy();
+        }
+    };
+    private final Projectiles projectiles = new Projectiles(256);
+    private final SpatialGrid enemyGrid = new SpatialGrid(AREA_OFFSET_X, AREA_OFFSET_Y,
+        PLAYABLE_AREA_SIZE, PLAYABLE_AREA_SIZE, Enemy.SIZE);
+    private final IntArray contacts = new IntArray();
+    private final CombatEvents events = new CombatEvents();
+    private final ProjectileCollisions bulletHits = new ProjectileCollisions();
+    //per enemy position of its nearest player, only filled with more than one player
+    private final FloatArray targetX = new FloatArray();
+    private final FloatArray targetY = new FloatArray();
+    private final EnemyTick enemyTick = new EnemyTick();
+
+    private final long seed;
+    private final RandomXS128 random;
+
+    private ParallelEnemyUpdater parallelUpdater;
+    private WaveDirector waveDirector;
+    private InterestManager interest;
+    private Steering steering;
+    private TickProfiler profiler;
+    private long tick = 0;
+    private int nextEnemyId = 1;
+
+    public World() {
+        this(MathUtils.random.nextLong());
+    }
+
+    public World(long seed) {
+        this.seed = seed;
+        this.random = new RandomXS128(seed);
+        addPlayer(500, 500);
+    }
+
+    //returns the slot, or -1 when all slots are taken
+    public int addPlayer(float x, float y) {
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (playerActive[slot]) continue;
+            playerActive[slot] = true;
+            playerX[slot] = prevPlayerX[slot] = x;
+            playerY[slot] = prevPlayerY[slot] = y;
+            playerInput[slot] = 0;
+            playerHealth[slot] = PLAYER_HEALTH;
+            playerDeaths[slot] = 0;
+            playerCount++;
+            return slot;
+        }
+        return -1;
+    }
+
+    public void removePlayer(int slot) {
+        if (!playerActive[slot]) return;
+        playerActive[slot] = false;
+        playerInput[slot] = 0;
+        playerCount--;
+    }
+
+    //input for the next ticks of the player in the slot, until set again
+    public void setPlayerInput(int slot, int input) {
+        playerInput[slot] = input;
+    }
+
+    //slot of the active player closest to the point, -1 without players
+    public int nearestPlayer(float x, float y) {
+        int nearest = -1;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (!playerActive[slot]) continue;
+            float dx = playerX[slot] - x;
+            float dy = playerY[slot] - y;
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = slot;
+            }
+        }
+        return nearest;
+    }
+
+    public Enemy spawnEnemy(float x, float y) {
+        return spawnEnemy(x, y, EnemyArchetype.SKELETON);
+    }
+
+    public Enemy spawnEnemy(float x, float y, EnemyArchetype archetype) {
+        Enemy enemy = enemyPool.obtain();
+        enemy.init(nextEnemyId++, x, y, archetype);
+        enemies.add(enemy);
+        events.publish(CombatEvents.SPAWN, enemy.getId(), x, y, archetype.id);
+        return enemy;
+    }
+
+    //single player tick, the input goes to slot 0
+    public void tick(float delta, int input) {
+        playerInput[0] = input;
+        tick(delta);
+    }
+
+    //profiler scopes are only there to be closed, they are never read
+    @SuppressWarnings("try")
+    public void tick(float delta) {
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (!playerActive[slot]) continue;
+            prevPlayerX[slot] = playerX[slot];
+            prevPlayerY[slot] = playerY[slot];
+            playerX[slot] = movePlayerX(playerX[slot], playerInput[slot], delta);
+            playerY[slot] = movePlayerY(playerY[slot], playerInput[slot], delta);
+        }
+
+        if (waveDirector != null) {
+            try (TickProfiler.Scope scope = time(TickProfiler.WAVES)) {
+                waveDirector.update(delta, this);
+            }
+        }
+        try (TickProfiler.Scope scope = time(TickProfiler.AI)) {
+            updateEnemies(delta);
+        }
+        try (TickProfiler.Scope scope = time(TickProfiler.BULLETS)) {
+            hitPlayers(delta);
+            projectiles.update(delta);
+        }
+        try (TickProfiler.Scope scope = time(TickProfiler.CONTACTS)) {
+            resolveContacts();
+        }
+        events.drain();
+
+        tick++;
+    }
+
+    private TickProfiler.Scope time(int phase) {
+        return profiler != null ? profiler.time(phase) : TickProfiler.OFF;
+    }
+
+    /**
+     * Player movement of one tick, one axis at a time. Public so a network client can predict its own player
+     * with exactly the math the server runs.
+     */
+    public static float movePlayerX(float x, int input, float delta) {
+        if (PlayerInput.isSet(input, PlayerInput.LEFT)) x -= PLAYER_SPEED * delta;
+        if (PlayerInput.isSet(input, PlayerInput.RIGHT)) x += PLAYER_SPEED * delta;
+        //player does not exceed the border of the map
+        return MathUtils.clamp(x, AREA_OFFSET_X + PLAYER_MARGIN, AREA_OFFSET_X + PLAYABLE_AREA_SIZE - PLAYER_MARGIN);
+    }
+
+    public static float movePlayerY(float y, int input, float delta) {
+        if (PlayerInput.isSet(input, PlayerInput.UP)) y += PLAYER_SPEED * delta;
+        if (PlayerInput.isSet(input, PlayerInput.DOWN)) y -= PLAYER_SPEED * delta;
+        return MathUtils.clamp(y, AREA_OFFSET_Y + PLAYER_MARGIN, AREA_OFFSET_Y + PLAYABLE_AREA_SIZE - PLAYER_MARGIN);
+    }
+
+    private void updateEnemies(float delta) {
+        //drop finished enemies first, keeping order, so no enemy misses its update;
+        //one pass for all removals of the tick instead of a shifting removeIndex per enemy
+        int kept = 0;
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.isDeathAnimationFinished()) {
+                enemyPool.free(enemy);
+            } else {
+                enemies.set(kept++, enemy);
+            }
+        }
+        enemies.truncate(kept);
+
+        if (interest != null) interest.begin(enemies.size, tick);
+        if (steering != null) steering.prepare(this);
+        enemyTick.begin(delta, projectiles, events).setInterest(interest).setSteering(steering);
+
+        //one player: everyone chases it, no per enemy targets
+        if (playerCount <= 1) {
+            int slot = Math.max(0, nearestPlayer(0, 0));
+            enemyTick.setTarget(playerX[slot], playerY[slot]);
+        } else {
+            float[] targetsX = targetX.setSize(enemies.size);
+            float[] targetsY = targetY.setSize(enemies.size);
+            for (int i = 0; i < enemies.size; i++) {
+                Enemy enemy = enemies.get(i);
+                int slot = nearestPlayer(enemy.getX(), enemy.getY());
+                targetsX[i] = playerX[slot];
+                targetsY[i] = playerY[slot];
+            }
+            enemyTick.setTargets(targetsX, targetsY);
+        }
+
+        if (parallelUpdater != null) {
+            parallelUpdater.update(enemies, enemyTick);
+        } else {
+            enemyTick.update(enemies, 0, enemies.size);
+        }
+        enemyTick.clear();
+    }
+
+    //bullets that reach a player during this tick's move hurt it and are gone
+    private void hitPlayers(float delta) {
+        bulletHits.clearTargets();
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (!playerActive[slot]) continue;
+            //players have already moved this tick, bullets have not, so the player is swept from where it was
+            bulletHits.addTarget(slot, prevPlayerX[slot] - PLAYER_SIZE / 2, prevPlayerY[slot] - PLAYER_SIZE / 2,
+                PLAYER_SIZE, PLAYER_SIZE, playerX[slot] - prevPlayerX[slot], playerY[slot] - prevPlayerY[slot]);
+        }
+        int hits = bulletHits.detect(projectiles, delta);
+        for (int i = 0; i < hits; i++) {
+            damagePlayer(bulletHits.getHitTarget(i), BULLET_DAMAGE);
+        }
+        //highest index first, so swap-removing one never moves another hit bullet
+        for (int i = hits - 1; i >= 0; i--) {
+            projectiles.remove(bulletHits.getHitBullet(i));
+        }
+    }
+
+    //a player out of health counts a death and starts over at full health where it stands
+    private void damagePlayer(int slot, int amount) {
+        playerHealth[slot] -= amount;
+        events.publish(CombatEvents.PLAYER_HIT, slot, playerX[slot], playerY[slot], amount);
+        if (playerHealth[slot] <= 0) {
+            playerDeaths[slot]++;
+            playerHealth[slot] = PLAYER_HEALTH;
+            events.publish(CombatEvents.PLAYER_DOWN, slot, playerX[slot], playerY[slot], 0);
+        }
+    }
+
+    //broad phase: enemies touching a player
+    private void resolveContacts() {
+        enemyGrid.clear();
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            enemyGrid.insert(i, enemy.getX(), enemy.getY(), Enemy.SIZE, Enemy.SIZE);
+        }
+
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (playerActive[slot]) resolveContacts(slot);
+        }
+    }
+
+    private void resolveContacts(int slot) {
+        contacts.clear();
+        enemyGrid.query(playerX[slot] - PLAYER_SIZE / 2, playerY[slot] - PLAYER_SIZE / 2,
+            PLAYER_SIZE, PLAYER_SIZE, contacts);
+        for (int i = 0; i < contacts.size; i++) {
+            Enemy enemy = enemies.get(contacts.get(i));
+            boolean wasDead = enemy.isDead();
+            int health = enemy.getHealth();
+            enemy.onPlayerContact();
+            if (enemy.getHealth() != health) {
+                events.publish(CombatEvents.DAMAGE, enemy.getId(), enemy.getX(), enemy.getY(),
+                    health - enemy.getHealth());
+            }
+            if (!wasDead && enemy.isDead()) {
+                events.publish(CombatEvents.KILL, enemy.getId(), enemy.getX(), enemy.getY(), 0);
+            }
+        }
+    }
+
+    /**
+     * Updates enemies on the given number of threads, the calling thread among them; 1 or less keeps them all on
+     * the calling thread.
+     * Both modes produce the same world bit for bit.
+     */
+    public void setParallelism(int threads) {
+        if (parallelUpdater != null) {
+            parallelUpdater.dispose();
+            parallelUpdater = null;
+        }
+        if (threads > 1) {
+            parallelUpdater = new ParallelEnemyUpdater(threads);
+        }
+    }
+
+    //hash over the whole simulation state, for comparing runs
+    public long checksum() {
+        long hash = tick;
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (!playerActive[slot]) continue;
+            hash = hash * 31 + Float.floatToIntBits(playerX[slot]);
+            hash = hash * 31 + Float.floatToIntBits(playerY[slot]);
+            hash = hash * 31 + playerHealth[slot];
+            hash = hash * 31 + playerDeaths[slot];
+        }
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            hash = hash * 31 + Float.floatToIntBits(enemy.getX());
+            hash = hash * 31 + Float.floatToIntBits(enemy.getY());
+            hash = hash * 31 + Float.floatToIntBits(enemy.getStateTime());
+            hash = hash * 31 + enemy.getState().ordinal();
+            hash = hash * 31 + enemy.getHealth();
+        }
+        for (int i = 0; i < projectiles.size(); i++) {
+            hash = hash * 31 + Float.floatToIntBits(projectiles.getX(i));
+            hash = hash * 31 + Float.floatToIntBits(projectiles.getY(i));
+        }
+        return hash;
+    }
+
+    /** Copies the whole simulation state into the snapshot, see {@link SnapshotCodec} for the wire format. */
+    public void saveState(Snapshot snapshot) {
+        snapshot.tick = tick;
+        snapshot.playerMask = 0;
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            if (playerActive[slot]) snapshot.playerMask |= 1 << slot;
+            snapshot.playerX[slot] = playerX[slot];
+            snapshot.playerY[slot] = playerY[slot];
+            snapshot.prevPlayerX[slot] = prevPlayerX[slot];
+            snapshot.prevPlayerY[slot] = prevPlayerY[slot];
+            snapshot.playerHealth[slot] = playerHealth[slot];
+            snapshot.playerDeaths[slot] = playerDeaths[slot];
+        }
+        snapshot.hasServerState = true;
+        snapshot.randomState0 = random.getState(0);
+        snapshot.randomState1 = random.getState(1);
+        snapshot.nextEnemyId = nextEnemyId;
+
+        snapshot.hasWaveDirector = waveDirector != null;
+        if (waveDirector != null) waveDirector.saveState(snapshot);
+
+        snapshot.setEnemyCount(enemies.size);
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).saveState(snapshot, i);
+        }
+
+        snapshot.projectiles.clear();
+        snapshot.projectiles.append(projectiles);
+    }
+
+    /**
+     * Puts the world back into a saved state. Event subscribers, parallelism and the wave director's settings stay,
+     * a snapshot taken with a wave director needs one set on this world to restore its progress into. A snapshot
+     * replicated to a client has no server state, loading it leaves the random state and wave progress alone.
+     */
+    public void loadState(Snapshot snapshot) {
+        tick = snapshot.tick;
+        playerCount = 0;
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            playerActive[slot] = (snapshot.playerMask & 1 << slot) != 0;
+            if (playerActive[slot]) playerCount++;
+            playerX[slot] = snapshot.playerX[slot];
+            playerY[slot] = snapshot.playerY[slot];
+            prevPlayerX[slot] = snapshot.prevPlayerX[slot];
+            prevPlayerY[slot] = snapshot.prevPlayerY[slot];
+            playerHealth[slot] = snapshot.playerHealth[slot];
+            playerDeaths[slot] = snapshot.playerDeaths[slot];
+        }
+        //a client's snapshot only shows the world, the random state and wave progress stay as they are
+        if (snapshot.hasServerState) {
+            random.setState(snapshot.randomState0, snapshot.randomState1);
+            nextEnemyId = snapshot.nextEnemyId;
+            if (waveDirector != null && snapshot.hasWaveDirector) waveDirector.loadState(snapshot);
+        }
+
+        enemyPool.freeAll(enemies);
+        enemies.clear();
+        for (int i = 0; i < snapshot.getEnemyCount(); i++) {
+            Enemy enemy = enemyPool.obtain();
+            enemy.loadState(snapshot, i);
+            enemies.add(enemy);
+        }
+
+        projectiles.clear();
+        projectiles.append(snapshot.projectiles);
+    }
+
+    @Override
+    public void dispose() {
+        setParallelism(1);
+    }
+
+    public void setWaveDirector(WaveDirector waveDirector) { this.waveDirector = waveDirector; }
+    //far enemies update at a lower rate, null updates everyone fully every tick
+    public void setInterest(InterestManager interest) { this.interest = interest; }
+    //flow field and separation for walking enemies, null walks them straight at their player
+    public void setSteering(Steering steering) { this.steering = steering; }
+    //times the phases of every tick, see TickProfiler, null for none
+    public void setProfiler(TickProfiler profiler) { this.profiler = profiler; }
+
+    //slot 0, the only player of a single player world
+    public float getPlayerX() { return playerX[0]; }
+    public float getPlayerY() { return playerY[0]; }
+    public float getPlayerX(float alpha) { return getPlayerX(0, alpha); }
+    public float getPlayerY(float alpha) { return getPlayerY(0, alpha); }
+
+    public float getPlayerX(int slot) { return playerX[slot]; }
+    public float getPlayerY(int slot) { return playerY[slot]; }
+    public float getPlayerX(int slot, float alpha) { return prevPlayerX[slot] + (playerX[slot] - prevPlayerX[slot]) * alpha; }
+    public float getPlayerY(int slot, float alpha) { return prevPlayerY[slot] + (playerY[slot] - prevPlayerY[slot]) * alpha; }
+    public boolean isPlayerActive(int slot) { return playerActive[slot]; }
+    public int getPlayerHealth(int slot) { return playerHealth[slot]; }
+    //times the player in the slot ran out of health
+    public int getPlayerDeaths(int slot) { return playerDeaths[slot]; }
+    public int getPlayerCount() { return playerCount; }
+    public Array<Enemy> getEnemies() { return enemies; }
+    public Projectiles getProjectiles() { return projectiles; }
+    public Pool<Enemy> getEnemyPool() { return enemyPool; }
+    public WaveDirector getWaveDirector() { return waveDirector; }
+    public InterestManager getInterest() { return interest; }
+    public Steering getSteering() { return steering; }
+    //spawns, shots, hits and kills, drained to the subscribers at the end of every tick
+    public CombatEvents getEvents() { return events; }
+    public long getTick() { return tick; }
+    public long getSeed() { return seed; }
+    public RandomXS128 getRandom() { return random; }
+}
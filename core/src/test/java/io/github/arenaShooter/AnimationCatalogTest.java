@@ -0,0 +1,61 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The catalog shows the same frame as an {@link Animation} of the clip on every tick, looping the walk and
+ * holding the last frame of the attack and the death. Regions without textures stand in for the frames, an
+ * atlas needs GL.
+ */
+class AnimationCatalogTest {
+    private static final EnemyArchetype SKELETON = EnemyArchetype.SKELETON;
+
+    @Test
+    void framesMatchAnimationEveryTick() {
+        AnimationCatalog catalog = new AnimationCatalog();
+        TextureRegion[] walk = regions(SKELETON.walkFrames);
+        TextureRegion[] attack = regions(SKELETON.attackFrames);
+        TextureRegion[] death = regions(SKELETON.deathFrames);
+        catalog.set(SKELETON, AnimationCatalog.WALK, walk);
+        catalog.set(SKELETON, AnimationCatalog.ATTACK, attack);
+        catalog.set(SKELETON, AnimationCatalog.DEATH, death);
+
+        Animation<TextureRegion> walkAnimation = new Animation<>(SKELETON.walkFrameDuration, walk);
+        walkAnimation.setPlayMode(Animation.PlayMode.LOOP);
+        Animation<TextureRegion> attackAnimation = new Animation<>(SKELETON.attackFrameDuration, attack);
+        Animation<TextureRegion> deathAnimation = new Animation<>(SKELETON.deathFrameDuration, death);
+
+        //state time summed up tick by tick, as enemies keep it
+        float stateTime = 0f;
+        for (int tick = 0; tick < 60 * 60; tick++) {
+            String at = "tick " + tick + ", state time " + stateTime;
+            assertSame(walkAnimation.getKeyFrame(stateTime), catalog.frame(SKELETON.id, AnimationCatalog.WALK, stateTime), at);
+            assertSame(attackAnimation.getKeyFrame(stateTime), catalog.frame(SKELETON.id, AnimationCatalog.ATTACK, stateTime), at);
+            assertSame(deathAnimation.getKeyFrame(stateTime), catalog.frame(SKELETON.id, AnimationCatalog.DEATH, stateTime), at);
+            stateTime += SimulationClock.DEFAULT_STEP;
+        }
+        assertSame(death[death.length - 1], catalog.frame(SKELETON.id, AnimationCatalog.DEATH, 1e6f));
+        assertSame(walk[0], catalog.firstFrame(SKELETON.id, AnimationCatalog.WALK));
+    }
+
+    @Test
+    void miscountedFramesAreRejected() {
+        AnimationCatalog catalog = new AnimationCatalog();
+        assertThrows(GdxRuntimeException.class,
+            () -> catalog.set(SKELETON, AnimationCatalog.WALK, regions(SKELETON.walkFrames + 1)));
+        assertThrows(GdxRuntimeException.class,
+            () -> catalog.set(SKELETON, AnimationCatalog.DEATH, regions(SKELETON.deathFrames - 1)));
+    }
+
+    private static TextureRegion[] regions(int count) {
+        TextureRegion[] regions = new TextureRegion[count];
+        for (int i = 0; i < count; i++) regions[i] = new TextureRegion();
+        return regions;
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Events come out of the ring in order with what went in, across many wraps; a full ring drops and counts
+ * instead of overwriting; and the world's event stream is the same on any number of threads.
+ */
+class CombatEventsTest {
+    @Test
+    void capacityIsAPowerOfTwo() {
+        assertEquals(8, new CombatEvents(5).getCapacity());
+        assertEquals(2, new CombatEvents(0).getCapacity());
+    }
+
+    @Test
+    void eventsSurviveWrapping() {
+        CombatEvents events = new CombatEvents(8);
+        IntArray received = new IntArray();
+        events.subscribe((type, id, x, y, value) -> {
+            assertEquals(id % CombatEvents.TYPES, type);
+            assertEquals(id * 0.5f, x);
+            assertEquals(-id, y);
+            assertEquals(id * 3, value);
+            received.add(id);
+        });
+
+        int next = 0;
+        for (int round = 0; round < 100; round++) {
+            //uneven batches, so slots are reused at every offset
+            int batch = 1 + round % 8;
+            for (int i = 0; i < batch; i++, next++) {
+                assertTrue(events.publish(next % CombatEvents.TYPES, next, next * 0.5f, -next, next * 3));
+            }
+            assertEquals(batch, events.drain());
+        }
+        assertEquals(next, received.size);
+        for (int i = 0; i < next; i++) assertEquals(i, received.get(i));
+        assertEquals(next, events.getPublished());
+        assertEquals(next, events.getDrained());
+        assertEquals(0, events.getDropped());
+    }
+
+    @Test
+    void fullRingDropsNewEvents() {
+        CombatEvents events = new CombatEvents(8);
+        IntArray received = new IntArray();
+        events.subscribe((type, id, x, y, value) -> received.add(id));
+
+        for (int i = 0; i < 8; i++) assertTrue(events.publish(CombatEvents.SHOOT, i, 0f, 0f, 0));
+        assertFalse(events.publish(CombatEvents.SHOOT, 8, 0f, 0f, 0));
+        assertFalse(events.publish(CombatEvents.SHOOT, 9, 0f, 0f, 0));
+        assertEquals(2, events.getDropped());
+        assertEquals(8, events.getPublished());
+
+        //the oldest events are kept, none overwritten
+        assertEquals(8, events.drain());
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6, 7}, received.toArray());
+
+        //and once drained there is room again
+        assertTrue(events.publish(CombatEvents.SHOOT, 10, 0f, 0f, 0));
+        assertEquals(1, events.drain());
+        assertEquals(10, received.peek());
+        assertEquals(0, events.drain());
+    }
+
+    @Test
+    void concurrentPublishersLoseNothing() throws InterruptedException {
+        int threads = 4, perThread = 50_000;
+        CombatEvents events = new CombatEvents(1024);
+        int[] next = new int[threads];
+        events.subscribe((type, id, x, y, value) -> {
+            //each publisher's events arrive in its own order
+            assertEquals(next[type], id);
+            next[type]++;
+        });
+
+        Thread[] publishers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int publisher = t;
+            publishers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    while (!events.publish(publisher, i, 0f, 0f, 0)) Thread.onSpinWait();
+                }
+            });
+            publishers[t].start();
+        }
+        long drained = 0;
+        while (drained < (long) threads * perThread) drained += events.drain();
+        for (Thread publisher : publishers) publisher.join();
+
+        for (int t = 0; t < threads; t++) assertEquals(perThread, next[t]);
+        assertEquals(0, events.drain());
+    }
+
+    @Test
+    void streamIsTheSameOnAnyNumberOfThreads() {
+        long[] single = eventStream(1);
+        assertTrue(single[1] > 0, "no shots were fired");
+        assertArrayEquals(single, eventStream(3));
+        assertArrayEquals(single, eventStream(4));
+    }
+
+    //hash of every event in order and the number of shots
+    private static long[] eventStream(int threads) {
+        World world = new World(13);
+        world.setParallelism(threads);
+        world.setSteering(new Steering());
+        for (int i = 0; i < 1500; i++) {
+            world.spawnEnemy(
+                World.AREA_OFFSET_X + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64),
+                World.AREA_OFFSET_Y + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64));
+        }
+        long[] stream = new long[2];
+        world.getEvents().subscribe((type, id, x, y, value) -> {
+            stream[0] = stream[0] * 31 + type;
+            stream[0] = stream[0] * 31 + id;
+            stream[0] = stream[0] * 31 + Float.floatToIntBits(x);
+            stream[0] = stream[0] * 31 + Float.floatToIntBits(y);
+            stream[0] = stream[0] * 31 + value;
+            if (type == CombatEvents.SHOOT) stream[1]++;
+        });
+        for (int i = 0; i < 600; i++) world.tick(SimulationClock.DEFAULT_STEP, (i / 60) % 2 == 0 ? 0 : PlayerInput.UP);
+        world.dispose();
+        return stream;
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.RandomXS128;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The field leads around blocked cells without cutting their corners and is only rebuilt when a player
+ * changes cells or the blocked cells change; and a steered enemy only walks straight at the player it targets
+ * when nothing is in between, whichever player the field leads to.
+ */
+class FlowFieldTest {
+    private static final float CELL = FlowField.DEFAULT_CELL_SIZE;
+
+    @Test
+    void pathLeadsAroundAWall() {
+        FlowField field = new FlowField();
+        //a wall down the middle with a gap at the top
+        for (int row = 0; row < 18; row++) block(field, 11, row, true);
+        World world = worldWithPlayer(5, 3);
+        assertTrue(field.update(world));
+
+        int target = cell(field, 5, 3), start = cell(field, 17, 3);
+        assertFalse(field.isVisible(start, target));
+        assertTrue(field.isVisible(cell(field, 5, 12), target));
+        assertTrue(field.isVisible(cell(field, 10, 20), target));
+        assertFalse(field.isVisible(cell(field, 14, 20), target));
+
+        int cell = start, highestRow = 0, steps = 0;
+        while (cell != target) {
+            assertTrue(steps++ < 60, "no way to the player from " + start);
+            cell = next(field, cell);
+            assertFalse(field.isBlocked(cell), "walked into a wall");
+            highestRow = Math.max(highestRow, cell / field.getColumns());
+        }
+        assertTrue(highestRow >= 18, "went through the wall");
+        world.dispose();
+    }
+
+    @Test
+    void diagonalsNeverCutCorners() {
+        FlowField field = new FlowField();
+        RandomXS128 random = new RandomXS128(8);
+        for (int row = 0; row < field.getRows(); row++) {
+            for (int column = 0; column < field.getColumns(); column++) {
+                if (random.nextFloat() < 0.3f) block(field, column, row, true);
+            }
+        }
+        World world = worldWithPlayer(3, 4);
+        int second = world.addPlayer(position(17), position(19));
+        block(field, 3, 4, false);
+        block(field, 17, 19, false);
+        assertTrue(field.update(world));
+
+        int columns = field.getColumns(), cells = columns * field.getRows(), walked = 0;
+        for (int from = 0; from < cells; from++) {
+            if (field.isBlocked(from)) continue;
+            int cell = from;
+            for (int steps = 0; field.getDirectionX(cell) != 0f || field.getDirectionY(cell) != 0f; steps++) {
+                assertTrue(steps < cells, "walking in circles from " + from);
+                int c = cell % columns, r = cell / columns;
+                int stepX = (int) Math.signum(field.getDirectionX(cell)), stepY = (int) Math.signum(field.getDirectionY(cell));
+                if (stepX != 0 && stepY != 0) {
+                    assertFalse(field.isBlocked(r * columns + c + stepX), "cut a corner at " + c + ", " + r);
+                    assertFalse(field.isBlocked((r + stepY) * columns + c), "cut a corner at " + c + ", " + r);
+                }
+                cell = next(field, cell);
+                assertFalse(field.isBlocked(cell), "walked into a wall at " + c + ", " + r);
+                walked++;
+            }
+        }
+        assertTrue(walked > cells, "hardly anything leads anywhere");
+        world.removePlayer(second);
+        world.dispose();
+    }
+
+    @Test
+    void rebuildsOnlyWhenACellChanges() {
+        FlowField field = new FlowField();
+        World world = worldWithPlayer(5, 5);
+        //nothing blocked, nothing to build
+        assertFalse(field.update(world));
+        assertEquals(0, field.getRebuilds());
+        assertTrue(field.isVisible(cell(field, 0, 0), cell(field, 5, 5)));
+
+        block(field, 8, 8, true);
+        assertTrue(field.update(world));
+        assertFalse(field.update(world));
+        //blocking it again changes nothing
+        block(field, 8, 8, true);
+        assertFalse(field.update(world));
+
+        //within the cell, then into the next one
+        movePlayer(world, position(5) + CELL * 0.3f, position(5) - CELL * 0.3f);
+        assertFalse(field.update(world));
+        movePlayer(world, position(6), position(5));
+        assertTrue(field.update(world));
+
+        int second = world.addPlayer(position(15), position(15));
+        assertTrue(field.update(world));
+        world.removePlayer(second);
+        assertTrue(field.update(world));
+        assertEquals(4, field.getRebuilds());
+
+        //nothing blocked anymore, enemies go straight again
+        block(field, 8, 8, false);
+        assertFalse(field.update(world));
+        assertEquals(4, field.getRebuilds());
+        assertEquals(0f, field.getDirectionX(cell(field, 0, 0)));
+        assertTrue(field.isVisible(cell(field, 0, 0), cell(field, 6, 5)));
+        world.dispose();
+    }
+
+    @Test
+    void enemyOnlyWalksStraightAtATargetItSees() {
+        Steering steering = new Steering();
+        FlowField field = steering.getField();
+        for (int row = 0; row < 18; row++) block(field, 11, row, true);
+        //the nearest player in a straight line is behind the wall, the nearest by path is up on this side
+        World world = worldWithPlayer(9, 3);
+        world.addPlayer(position(13), position(12));
+        Enemy enemy = world.spawnEnemy(position(13) - CELL / 2 + 1f, position(3) - CELL / 2 + 1f);
+        steering.prepare(world);
+
+        int cell = field.cellAt(enemy.getX(), enemy.getY());
+        steer(steering, enemy, world, 0);
+        assertEquals(field.getDirectionX(cell), enemy.getDirectionX(), 1e-6f);
+        assertEquals(field.getDirectionY(cell), enemy.getDirectionY(), 1e-6f);
+        assertTrue(enemy.getDirectionY() > 0f, "not on its way around the wall");
+
+        //the player on this side is in plain sight, straight at it
+        steer(steering, enemy, world, 1);
+        float dx = world.getPlayerX(1) - enemy.getX(), dy = world.getPlayerY(1) - enemy.getY();
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        assertEquals(dx / distance, enemy.getDirectionX(), 1e-6f);
+        assertEquals(dy / distance, enemy.getDirectionY(), 1e-6f);
+        assertNotEquals(field.getDirectionX(cell), enemy.getDirectionX());
+        world.dispose();
+    }
+
+    private static void steer(Steering steering, Enemy enemy, World world, int slot) {
+        float dx = world.getPlayerX(slot) - enemy.getX(), dy = world.getPlayerY(slot) - enemy.getY();
+        steering.steer(0, enemy, dx, dy, (float) Math.sqrt(dx * dx + dy * dy));
+    }
+
+    //the one player, in the middle of the cell
+    private static World worldWithPlayer(int column, int row) {
+        World world = new World(3);
+        movePlayer(world, position(column), position(row));
+        return world;
+    }
+
+    private static void movePlayer(World world, float x, float y) {
+        world.removePlayer(0);
+        assertEquals(0, world.addPlayer(x, y));
+    }
+
+    //where the direction of the cell leads
+    private static int next(FlowField field, int cell) {
+        int stepX = (int) Math.signum(field.getDirectionX(cell)), stepY = (int) Math.signum(field.getDirectionY(cell));
+        assertTrue(stepX != 0 || stepY != 0, "no direction at " + cell);
+        return cell + stepY * field.getColumns() + stepX;
+    }
+
+    private static void block(FlowField field, int column, int row, boolean block) {
+        field.setBlocked(World.AREA_OFFSET_X + column * CELL + 1f, World.AREA_OFFSET_Y + row * CELL + 1f,
+            CELL - 2f, CELL - 2f, block);
+    }
+
+    private static int cell(FlowField field, int column, int row) {
+        return row * field.getColumns() + column;
+    }
+
+    //middle of the cell in world units, columns and rows alike
+    private static float position(int cell) {
+        return World.AREA_OFFSET_X + (cell + 0.5f) * CELL;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.arenaShooter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Buckets tile the whole range without gaps or overlaps, every value lands in the bucket whose edges hold it,
+ * and percentiles come out within a bucket of the exact value.
+ */
+class LatencyHistogramTest {
+    @Test
+    void bucketEdgesRoundTrip() {
+        assertEquals(0, LatencyHistogram.lowestIn(0));
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long lowest = LatencyHistogram.lowestIn(bucket), highest = LatencyHistogram.highestIn(bucket);
+            assertTrue(lowest <= highest, "bucket " + bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(lowest), "lowest of bucket " + bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest), "highest of bucket " + bucket);
+            if (bucket + 1 < LatencyHistogram.BUCKETS) {
+                assertEquals(highest + 1, LatencyHistogram.lowestIn(bucket + 1), "after bucket " + bucket);
+            }
+        }
+        assertEquals(LatencyHistogram.HIGHEST_VALUE, LatencyHistogram.highestIn(LatencyHistogram.BUCKETS - 1));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(LatencyHistogram.HIGHEST_VALUE));
+    }
+
+    @Test
+    void bucketsAreExactThenWithinAThirtySecond() {
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long lowest = LatencyHistogram.lowestIn(bucket);
+            long width = LatencyHistogram.highestIn(bucket) - lowest + 1;
+            if (lowest < 64) {
+                assertEquals(1, width, "bucket " + bucket);
+            } else {
+                assertTrue(width * 32 <= lowest, "bucket " + bucket + " from " + lowest + " is " + width + " wide");
+            }
+        }
+    }
+
+    @Test
+    void valuesOutOfRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(LatencyHistogram.BUCKETS - 1));
+        assertEquals(LatencyHistogram.HIGHEST_VALUE, histogram.getMax());
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    void percentilesWithinABucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) histogram.record(value * 1000);
+        for (double fraction : new double[] {0.001, 0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long exact = (long) Math.ceil(fraction * 100_000) * 1000;
+            long percentile = histogram.percentile(fraction);
+            assertEquals(LatencyHistogram.bucketOf(exact), LatencyHistogram.bucketOf(percentile), "p" + fraction);
+            assertTrue(percentile >= exact, "p" + fraction + " " + percentile + " below " + exact);
+        }
+        assertEquals(100_000_000L, histogram.percentile(1.0));
+        assertEquals(0, new LatencyHistogram().percentile(0.5));
+    }
+
+    @Test
+    void addAndResetKeepCountsAndMax() {
+        LatencyHistogram a = new LatencyHistogram(), b = new LatencyHistogram();
+        a.record(10);
+        a.record(2000);
+        b.record(70_000);
+        a.add(b);
+        assertEquals(3, a.getCount());
+        assertEquals(70_000, a.getMax());
+        assertEquals((10 + 2000 + 70_000) / 3.0, a.getMean(), 1e-9);
+        assertEquals(1, a.getCount(LatencyHistogram.bucketOf(70_000)));
+
+        a.reset();
+        assertEquals(0, a.getCount());
+        assertEquals(0, a.getMax());
+        assertEquals(0, a.getCount(LatencyHistogram.bucketOf(2000)));
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntIntMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The swept circle against box test agrees with moving the circle along its path in small steps, and the
+ * broad phase of {@link ProjectileCollisions#detect} loses no hit the exact test finds.
+ */
+class ProjectileCollisionsTest {
+    private static final int SAMPLES = 2000;
+    //how far a sampled circle may be inside or outside the box and still count as touching
+    private static final double TOLERANCE = 0.01;
+
+    @Test
+    void sweepMatchesSampledSweep() {
+        RandomXS128 random = new RandomXS128(3);
+        for (int n = 0; n < 20_000; n++) {
+            float minX = random.nextInt(200), minY = random.nextInt(200);
+            float maxX = minX + 8 + random.nextInt(56), maxY = minY + 8 + random.nextInt(56);
+            float x = random.nextFloat() * 400f - 100f, y = random.nextFloat() * 400f - 100f;
+            //now and then straight along an axis, where the slab test divides by zero
+            float dx = n % 7 == 0 ? 0f : random.nextFloat() * 600f - 300f;
+            float dy = n % 11 == 0 ? 0f : random.nextFloat() * 600f - 300f;
+            float radius = 1f + random.nextFloat() * 15f;
+            float time = ProjectileCollisions.sweep(x, y, dx, dy, radius, minX, minY, maxX, maxY);
+            String sweep = "circle at " + x + ", " + y + " r " + radius + " by " + dx + ", " + dy
+                + " against " + minX + ", " + minY + " to " + maxX + ", " + maxY + ": " + time;
+
+            //the first sample clearly inside, and the circle clear of the box before the reported time
+            int firstInside = -1;
+            for (int k = 0; k <= SAMPLES && firstInside < 0; k++) {
+                double t = (double) k / SAMPLES;
+                double distance = distance(x + dx * t, y + dy * t, minX, minY, maxX, maxY);
+                if (distance < radius - TOLERANCE) firstInside = k;
+                if (time <= 1f && t < time - 1e-4) assertTrue(distance >= radius - TOLERANCE, sweep);
+            }
+            if (firstInside >= 0) {
+                assertTrue(time <= (double) firstInside / SAMPLES + 1e-4, sweep);
+            }
+            if (time <= 1f) {
+                assertTrue(time >= 0f, sweep);
+                //touching at the reported time, or inside from the start
+                double distance = distance(x + dx * (double) time, y + dy * (double) time, minX, minY, maxX, maxY);
+                assertTrue(time == 0f ? distance <= radius + TOLERANCE : Math.abs(distance - radius) <= TOLERANCE, sweep);
+            } else {
+                assertTrue(time > 1f, sweep);
+            }
+        }
+    }
+
+    @Test
+    void detectFindsWhatTheExactTestFindsWithFewTargets() {
+        detectMatchesExactTest(8, 5);
+    }
+
+    @Test
+    void detectFindsWhatTheExactTestFindsWithManyTargets() {
+        detectMatchesExactTest(400, 6);
+    }
+
+    //every bullet hits the target the exact test reaches first, lowest index on a tie, and nothing else
+    private static void detectMatchesExactTest(int targets, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        float delta = SimulationClock.DEFAULT_STEP;
+        ProjectileCollisions collisions = new ProjectileCollisions();
+        float radius = collisions.getBulletRadius();
+        float[] x = new float[targets], y = new float[targets], moveX = new float[targets], moveY = new float[targets];
+
+        for (int round = 0; round < 20; round++) {
+            collisions.clearTargets();
+            for (int t = 0; t < targets; t++) {
+                x[t] = World.AREA_OFFSET_X + random.nextFloat() * (World.PLAYABLE_AREA_SIZE - Enemy.SIZE);
+                y[t] = World.AREA_OFFSET_Y + random.nextFloat() * (World.PLAYABLE_AREA_SIZE - Enemy.SIZE);
+                moveX[t] = random.nextFloat() * 8f - 4f;
+                moveY[t] = random.nextFloat() * 8f - 4f;
+                collisions.addTarget(1000 + t, x[t], y[t], Enemy.SIZE, Enemy.SIZE, moveX[t], moveY[t]);
+            }
+
+            //some bullets fast enough to cross a target or a whole cell in one tick, some off the arena
+            Projectiles bullets = new Projectiles(2000);
+            for (int i = 0; i < 2000; i++) {
+                float speed = i % 4 == 0 ? 6000f : Projectiles.DEFAULT_SPEED;
+                float angle = random.nextFloat() * 360f;
+                bullets.add(World.AREA_OFFSET_X - 100f + random.nextFloat() * (World.PLAYABLE_AREA_SIZE + 200f),
+                    World.AREA_OFFSET_Y - 100f + random.nextFloat() * (World.PLAYABLE_AREA_SIZE + 200f),
+                    speed * (float) Math.cos(Math.toRadians(angle)), speed * (float) Math.sin(Math.toRadians(angle)),
+                    0f, 0f, 0f, Projectiles.DEFAULT_LIFETIME);
+            }
+
+            collisions.detect(bullets, delta);
+            IntIntMap hits = new IntIntMap();
+            for (int h = 0; h < collisions.getHitCount(); h++) {
+                hits.put(collisions.getHitBullet(h), collisions.getHitTarget(h));
+            }
+            assertEquals(collisions.getHitCount(), hits.size, "a bullet hit twice");
+
+            int expectedHits = 0;
+            for (int i = 0; i < bullets.size(); i++) {
+                float dx = bullets.getVelocityX(i) * delta, dy = bullets.getVelocityY(i) * delta;
+                int best = -1;
+                float bestTime = 1f;
+                for (int t = 0; t < targets; t++) {
+                    float time = ProjectileCollisions.sweep(bullets.getX(i), bullets.getY(i), dx - moveX[t], dy - moveY[t],
+                        radius, x[t], y[t], x[t] + Enemy.SIZE, y[t] + Enemy.SIZE);
+                    if (time < bestTime || (time == bestTime && best < 0)) {
+                        best = t;
+                        bestTime = time;
+                    }
+                }
+                if (best >= 0) expectedHits++;
+                assertEquals(best >= 0 ? 1000 + best : -1, hits.get(i, -1), "bullet " + i);
+            }
+            assertEquals(expectedHits, collisions.getHitCount());
+        }
+    }
+
+    //from the point to the nearest point of the box, 0 inside it
+    private static double distance(double x, double y, double minX, double minY, double maxX, double maxY) {
+        double dx = Math.max(Math.max(minX - x, 0), x - maxX);
+        double dy = Math.max(Math.max(minY - y, 0), y - maxY);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
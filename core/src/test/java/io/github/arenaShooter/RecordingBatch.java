@@ -0,0 +1,101 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * A batch without GL that counts what is drawn into it and hands every region to {@link #region}, so
+ * renderers can be checked and measured in tests. Drawing allocates nothing.
+ */
+class RecordingBatch implements Batch {
+    private final Color color = new Color(Color.WHITE);
+    private final Matrix4 projection = new Matrix4(), transform = new Matrix4();
+    private boolean drawing, blending = true;
+    private int draws;
+
+    //called for every region drawn, with its bottom left corner and size in world units
+    protected void region(TextureRegion region, float x, float y, float width, float height) {
+    }
+
+    int getDraws() { return draws; }
+    void reset() { draws = 0; }
+
+    @Override public void begin() { drawing = true; }
+    @Override public void end() { drawing = false; }
+    @Override public void setColor(Color tint) { color.set(tint); }
+    @Override public void setColor(float r, float g, float b, float a) { color.set(r, g, b, a); }
+    @Override public Color getColor() { return color; }
+    @Override public void setPackedColor(float packedColor) { Color.abgr8888ToColor(color, packedColor); }
+    @Override public float getPackedColor() { return color.toFloatBits(); }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) {
+        draws++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+                     int srcHeight, boolean flipX, boolean flipY) {
+        draws++;
+    }
+
+    @Override public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) { draws++; }
+    @Override public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) { draws++; }
+    @Override public void draw(Texture texture, float x, float y) { draws++; }
+    @Override public void draw(Texture texture, float x, float y, float width, float height) { draws++; }
+    @Override public void draw(Texture texture, float[] spriteVertices, int offset, int count) { draws++; }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+        draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        draws++;
+        region(region, x, y, width, height);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) {
+        draw(region, x, y, width * scaleX, height * scaleY);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) {
+        draw(region, x, y, width * scaleX, height * scaleY);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        draw(region, transform.m02, transform.m12, width, height);
+    }
+
+    @Override public void flush() {}
+    @Override public void disableBlending() { blending = false; }
+    @Override public void enableBlending() { blending = true; }
+    @Override public void setBlendFunction(int srcFunc, int dstFunc) {}
+    @Override public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {}
+    @Override public int getBlendSrcFunc() { return 0; }
+    @Override public int getBlendDstFunc() { return 0; }
+    @Override public int getBlendSrcFuncAlpha() { return 0; }
+    @Override public int getBlendDstFuncAlpha() { return 0; }
+    @Override public Matrix4 getProjectionMatrix() { return projection; }
+    @Override public Matrix4 getTransformMatrix() { return transform; }
+    @Override public void setProjectionMatrix(Matrix4 projection) { this.projection.set(projection); }
+    @Override public void setTransformMatrix(Matrix4 transform) { this.transform.set(transform); }
+    @Override public void setShader(ShaderProgram shader) {}
+    @Override public ShaderProgram getShader() { return null; }
+    @Override public boolean isBlendingEnabled() { return blending; }
+    @Override public boolean isDrawing() { return drawing; }
+    @Override public void dispose() {}
+}
@@ -0,0 +1,400 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Full snapshots and deltas decode to exactly the state that was written, bit for bit, and a world loaded
+ * from a decoded delta goes on exactly like the one it was taken from. Packets cut short or put together to
+ * do harm are rejected, with counts checked before anything is sized by them.
+ */
+class SnapshotCodecTest {
+    private static final float STEP = SimulationClock.DEFAULT_STEP;
+
+    @Test
+    void fullRoundTrip() {
+        World world = createWorld();
+        run(world, 600);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+
+        Snapshot decoded = new Snapshot();
+        SnapshotCodec.read(encodeFull(snapshot), null, decoded);
+        assertSnapshotEquals(snapshot, decoded);
+        world.dispose();
+    }
+
+    @Test
+    void deltaRoundTrip() {
+        World world = createWorld();
+        run(world, 600);
+        Snapshot base = new Snapshot();
+        world.saveState(base);
+        //long enough for enemies to die, spawn, change state and shoot
+        run(world, 120);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+        assertTrue(snapshot.getEnemyCount() > 0 && snapshot.getProjectileCount() > 0);
+
+        Snapshot decodedBase = new Snapshot();
+        SnapshotCodec.read(encodeFull(base), null, decodedBase);
+        Snapshot decoded = new Snapshot();
+        ByteBuffer delta = encodeDelta(decodedBase, snapshot);
+        assertEquals(base.getTick(), SnapshotCodec.peekBaseTick(delta));
+        SnapshotCodec.read(delta, decodedBase, decoded);
+        assertFalse(delta.hasRemaining());
+        assertSnapshotEquals(snapshot, decoded);
+
+        //the decoded state carries everything the simulation needs to go on the same way
+        World copy = createWorld();
+        copy.loadState(decoded);
+        for (int i = 0; i < 300; i++) {
+            world.tick(STEP, input(i));
+            copy.tick(STEP, input(i));
+            assertEquals(world.checksum(), copy.checksum(), "tick " + world.getTick());
+        }
+        world.dispose();
+        copy.dispose();
+    }
+
+    @Test
+    void deltaOfUnchangedSnapshotIsSmall() {
+        World world = createWorld();
+        run(world, 300);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+
+        ByteBuffer full = encodeFull(snapshot);
+        ByteBuffer delta = encodeDelta(snapshot, snapshot);
+        //bullets are sent whole every time, enemies that did not change cost a couple of bytes
+        assertTrue(delta.remaining() < full.remaining() / 2, delta.remaining() + " of " + full.remaining());
+        Snapshot decoded = new Snapshot();
+        SnapshotCodec.read(delta, snapshot, decoded);
+        assertSnapshotEquals(snapshot, decoded);
+        world.dispose();
+    }
+
+    @Test
+    void deltaNeedsItsBase() {
+        World world = createWorld();
+        run(world, 60);
+        Snapshot base = new Snapshot();
+        world.saveState(base);
+        run(world, 1);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+
+        ByteBuffer delta = encodeDelta(base, snapshot);
+        assertThrows(GdxRuntimeException.class, () -> SnapshotCodec.read(delta.duplicate(), null, new Snapshot()));
+        assertThrows(GdxRuntimeException.class, () -> SnapshotCodec.read(delta.duplicate(), snapshot, new Snapshot()));
+        world.dispose();
+    }
+
+    @Test
+    void replicatedSnapshotCarriesNoServerState() {
+        World world = createWorld();
+        run(world, 300);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+        Snapshot around = new Snapshot();
+        around.setAround(snapshot, world.getPlayerX(), world.getPlayerY(), 400f);
+
+        Snapshot decoded = new Snapshot();
+        SnapshotCodec.read(encodeFull(around), null, decoded);
+        assertFalse(decoded.hasServerState);
+        assertFalse(decoded.hasWaveDirector);
+        assertEquals(0L, decoded.randomState0);
+        assertEquals(0L, decoded.randomState1);
+        assertEquals(0, decoded.nextEnemyId);
+        assertTrue(decoded.getEnemyCount() < snapshot.getEnemyCount());
+        world.dispose();
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() {
+        World world = createWorld();
+        run(world, 300);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+        ByteBuffer full = encodeFull(snapshot);
+
+        Snapshot decoded = new Snapshot();
+        for (int length = 0; length < full.remaining(); length += 7) {
+            ByteBuffer truncated = full.duplicate();
+            truncated.limit(length);
+            try {
+                SnapshotCodec.read(truncated, null, decoded);
+                fail("decoded " + length + " of " + full.remaining() + " bytes");
+            } catch (GdxRuntimeException | BufferUnderflowException expected) {
+                //either is how a client learns the packet is no good
+            }
+        }
+        world.dispose();
+    }
+
+    @Test
+    void truncatedDeltaIsRejected() {
+        World world = createWorld();
+        run(world, 300);
+        Snapshot base = new Snapshot();
+        world.saveState(base);
+        run(world, 2);
+        Snapshot snapshot = new Snapshot();
+        world.saveState(snapshot);
+        ByteBuffer delta = encodeDelta(base, snapshot);
+
+        Snapshot decoded = new Snapshot();
+        for (int length = 0; length < delta.remaining(); length += 3) {
+            ByteBuffer truncated = delta.duplicate();
+            truncated.limit(length);
+            try {
+                SnapshotCodec.read(truncated, base, decoded);
+                fail("decoded " + length + " of " + delta.remaining() + " bytes");
+            } catch (GdxRuntimeException | BufferUnderflowException expected) {
+                //either is how a client learns the packet is no good
+            }
+        }
+        world.dispose();
+    }
+
+    @Test
+    void hostileEnemyCountIsRejectedBeforeSizing() {
+        Snapshot decoded = new Snapshot();
+        //over the cap, more than the bytes left could hold, and negative
+        assertRejected(header(SnapshotCodec.FULL).varInt(SnapshotCodec.MAX_ENEMIES + 1).putInt(0), decoded);
+        assertRejected(header(SnapshotCodec.FULL).varInt(1000).putInt(0), decoded);
+        assertRejected(header(SnapshotCodec.FULL).varInt(-1).putInt(0), decoded);
+        assertEquals(0, decoded.id.length, "sized by a rejected count");
+
+        //two bytes per enemy are enough for a delta, not for a full snapshot
+        Snapshot base = new Snapshot();
+        SnapshotCodec.read(oneEnemy(0, 0).buffer(), null, base);
+        assertRejected(delta(base).varInt(20).varInt(zigZag(ENEMY_ID)).varInt(0).putInt(0), base, decoded);
+        assertEquals(0, decoded.id.length, "sized by a rejected count");
+        SnapshotCodec.read(delta(base).varInt(1).varInt(zigZag(ENEMY_ID)).varInt(0).putInt(0).buffer(), base, decoded);
+        assertEquals(1, decoded.getEnemyCount());
+    }
+
+    @Test
+    void hostileBulletCountIsRejectedBeforeSizing() {
+        Snapshot decoded = new Snapshot();
+        assertRejected(header(SnapshotCodec.FULL).varInt(0).putInt(Integer.MAX_VALUE), decoded);
+        assertRejected(header(SnapshotCodec.FULL).varInt(0).putInt(SnapshotCodec.MAX_PROJECTILES + 1), decoded);
+        assertRejected(header(SnapshotCodec.FULL).varInt(0).putInt(-1), decoded);
+        //one bullet's worth of bytes short
+        Packet shortBullets = header(SnapshotCodec.FULL).varInt(0).putInt(2);
+        for (int i = 0; i < 8; i++) shortBullets.putFloat(i);
+        assertRejected(shortBullets, decoded);
+
+        Packet bullet = header(SnapshotCodec.FULL).varInt(0).putInt(1);
+        for (int i = 0; i < 8; i++) bullet.putFloat(i);
+        SnapshotCodec.read(bullet.buffer(), null, decoded);
+        assertEquals(1, decoded.getProjectileCount());
+    }
+
+    @Test
+    void overlongVarIntIsRejected() {
+        //a sixth byte would shift past the int, whatever it holds
+        Packet packet = header(SnapshotCodec.FULL);
+        for (int i = 0; i < 5; i++) packet.put(0x80);
+        assertRejected(packet.put(0x00).putInt(0), new Snapshot());
+
+        //five bytes are the most an int takes
+        Packet longest = header(SnapshotCodec.FULL);
+        for (int i = 0; i < 4; i++) longest.put(0x80);
+        SnapshotCodec.read(longest.put(0x00).putInt(0).buffer(), null, new Snapshot());
+    }
+
+    @Test
+    void enemiesOutsideTheTablesAreRejected() {
+        int states = Enemy.State.values().length;
+        Snapshot decoded = new Snapshot();
+        SnapshotCodec.read(oneEnemy(0, states - 1).buffer(), null, decoded);
+        assertEquals(1, decoded.getEnemyCount());
+
+        assertRejected(oneEnemy(EnemyArchetype.count(), 0), decoded);
+        assertRejected(oneEnemy(-1, 0), decoded);
+        assertRejected(oneEnemy(0, states), decoded);
+        assertRejected(oneEnemy(0, -1), decoded);
+
+        //the same through a delta that changes the discrete fields
+        Snapshot base = new Snapshot();
+        SnapshotCodec.read(oneEnemy(0, 0).buffer(), null, base);
+        SnapshotCodec.read(changeDiscrete(base, 0, states - 1).buffer(), base, decoded);
+        assertEquals(states - 1, decoded.state[0]);
+        assertRejected(changeDiscrete(base, EnemyArchetype.count(), 0), base, decoded);
+        assertRejected(changeDiscrete(base, 0, states), base, decoded);
+        //and one that changes an enemy the base does not have
+        assertRejected(delta(base).varInt(1).varInt(zigZag(ENEMY_ID + 1)).varInt(0).putInt(0), base, decoded);
+    }
+
+    @Test
+    void unknownPacketsAreRejected() {
+        assertRejected(header(SnapshotCodec.FULL).putInt(0, 0x12345678).varInt(0).putInt(0), new Snapshot());
+        assertRejected(header((byte) 7).varInt(0).putInt(0), new Snapshot());
+    }
+
+    private static final int ENEMY_ID = 5;
+
+    //a full snapshot with no players, no server state and one enemy
+    private static Packet oneEnemy(int archetype, int state) {
+        Packet packet = header(SnapshotCodec.FULL).varInt(1).varInt(zigZag(ENEMY_ID));
+        packet.put(archetype).put(state).put(0).put(0).varInt(zigZag(100));
+        for (int i = 0; i < 9; i++) packet.putFloat(i);
+        return packet.putInt(0);
+    }
+
+    //a delta of the base's only enemy with new discrete fields
+    private static Packet changeDiscrete(Snapshot base, int archetype, int state) {
+        Packet packet = delta(base).varInt(1).varInt(zigZag(ENEMY_ID)).varInt(128);
+        return packet.put(archetype).put(state).put(0).put(0).putInt(0);
+    }
+
+    //header without players or server state
+    private static Packet header(byte type) {
+        Packet packet = new Packet().putInt(SnapshotCodec.MAGIC).put(type).putLong(1L);
+        return packet.put(0).put(0);
+    }
+
+    private static Packet delta(Snapshot base) {
+        Packet packet = new Packet().putInt(SnapshotCodec.MAGIC).put(SnapshotCodec.DELTA).putLong(base.tick + 1);
+        return packet.putLong(base.tick).put(0).put(0);
+    }
+
+    private static void assertRejected(Packet packet, Snapshot out) {
+        assertRejected(packet, null, out);
+    }
+
+    private static void assertRejected(Packet packet, Snapshot base, Snapshot out) {
+        assertThrows(GdxRuntimeException.class, () -> SnapshotCodec.read(packet.buffer(), base, out));
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    //bytes as they would come off the wire
+    private static class Packet {
+        private final ByteBuffer bytes = ByteBuffer.allocate(256);
+
+        Packet put(int value) { bytes.put((byte) value); return this; }
+        Packet putInt(int value) { bytes.putInt(value); return this; }
+        Packet putInt(int index, int value) { bytes.putInt(index, value); return this; }
+        Packet putLong(long value) { bytes.putLong(value); return this; }
+        Packet putFloat(float value) { bytes.putFloat(value); return this; }
+
+        Packet varInt(int value) {
+            while ((value & ~0x7f) != 0) {
+                bytes.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            bytes.put((byte) value);
+            return this;
+        }
+
+        ByteBuffer buffer() {
+            return bytes.duplicate().flip();
+        }
+    }
+
+    private static World createWorld() {
+        World world = new World(11);
+        world.setWaveDirector(WaveDirector.createDefault().setSpawnRate(50f));
+        world.setSteering(new Steering());
+        for (int i = 0; i < 300; i++) {
+            world.spawnEnemy(
+                World.AREA_OFFSET_X + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64),
+                World.AREA_OFFSET_Y + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64));
+        }
+        return world;
+    }
+
+    private static void run(World world, int ticks) {
+        for (int i = 0; i < ticks; i++) world.tick(STEP, input((int) world.getTick()));
+    }
+
+    //walks the player around a square with pauses
+    private static int input(int tick) {
+        int phase = (tick / 60) % 8;
+        return phase % 2 == 0 ? 0 : 1 << (phase / 2);
+    }
+
+    private static ByteBuffer encodeFull(Snapshot snapshot) {
+        ByteBuffer out = ByteBuffer.allocate(SnapshotCodec.maxSize(snapshot));
+        SnapshotCodec.writeFull(snapshot, out);
+        return out.flip();
+    }
+
+    private static ByteBuffer encodeDelta(Snapshot base, Snapshot snapshot) {
+        ByteBuffer out = ByteBuffer.allocate(SnapshotCodec.maxSize(snapshot));
+        SnapshotCodec.writeDelta(base, snapshot, out);
+        return out.flip();
+    }
+
+    private static void assertSnapshotEquals(Snapshot expected, Snapshot actual) {
+        assertEquals(expected.tick, actual.tick);
+        assertEquals(expected.playerMask, actual.playerMask);
+        assertArrayEquals(expected.playerX, actual.playerX);
+        assertArrayEquals(expected.playerY, actual.playerY);
+        assertArrayEquals(expected.prevPlayerX, actual.prevPlayerX);
+        assertArrayEquals(expected.prevPlayerY, actual.prevPlayerY);
+        assertArrayEquals(expected.playerHealth, actual.playerHealth);
+        assertArrayEquals(expected.playerDeaths, actual.playerDeaths);
+
+        assertEquals(expected.hasServerState, actual.hasServerState);
+        assertEquals(expected.randomState0, actual.randomState0);
+        assertEquals(expected.randomState1, actual.randomState1);
+        assertEquals(expected.nextEnemyId, actual.nextEnemyId);
+        assertEquals(expected.hasWaveDirector, actual.hasWaveDirector);
+        assertEquals(expected.wave, actual.wave);
+        assertEquals(expected.untilNextWave, actual.untilNextWave);
+        assertEquals(expected.toSpawn, actual.toSpawn);
+        assertEquals(expected.spawnBudget, actual.spawnBudget);
+        assertEquals(expected.spawned, actual.spawned);
+
+        assertEquals(expected.getEnemyCount(), actual.getEnemyCount());
+        for (int i = 0; i < expected.getEnemyCount(); i++) {
+            String enemy = "enemy " + expected.id[i];
+            assertEquals(expected.id[i], actual.id[i], enemy);
+            assertEquals(expected.archetype[i], actual.archetype[i], enemy);
+            assertEquals(expected.state[i], actual.state[i], enemy);
+            assertEquals(expected.flags[i], actual.flags[i], enemy);
+            assertEquals(expected.attackCount[i], actual.attackCount[i], enemy);
+            assertEquals(expected.health[i], actual.health[i], enemy);
+            //assertEquals on floats compares bits, so these are exact
+            assertEquals(expected.x[i], actual.x[i], enemy);
+            assertEquals(expected.y[i], actual.y[i], enemy);
+            assertEquals(expected.prevX[i], actual.prevX[i], enemy);
+            assertEquals(expected.prevY[i], actual.prevY[i], enemy);
+            assertEquals(expected.dirX[i], actual.dirX[i], enemy);
+            assertEquals(expected.dirY[i], actual.dirY[i], enemy);
+            assertEquals(expected.stateTime[i], actual.stateTime[i], enemy);
+            assertEquals(expected.damageTimer[i], actual.damageTimer[i], enemy);
+            assertEquals(expected.restTime[i], actual.restTime[i], enemy);
+        }
+
+        Projectiles expectedBullets = expected.projectiles, actualBullets = actual.projectiles;
+        assertEquals(expectedBullets.size(), actualBullets.size());
+        for (int i = 0; i < expectedBullets.size(); i++) {
+            String bullet = "bullet " + i;
+            assertEquals(expectedBullets.getX(i), actualBullets.getX(i), bullet);
+            assertEquals(expectedBullets.getY(i), actualBullets.getY(i), bullet);
+            assertEquals(expectedBullets.getVelocityX(i), actualBullets.getVelocityX(i), bullet);
+            assertEquals(expectedBullets.getVelocityY(i), actualBullets.getVelocityY(i), bullet);
+            assertEquals(expectedBullets.getRotation(i), actualBullets.getRotation(i), bullet);
+            assertEquals(expectedBullets.getRotationSpeed(i), actualBullets.getRotationSpeed(i), bullet);
+            assertEquals(expectedBullets.getTimeAlive(i), actualBullets.getTimeAlive(i), bullet);
+            assertEquals(expectedBullets.getLifetime(i), actualBullets.getLifetime(i), bullet);
+        }
+    }
+}
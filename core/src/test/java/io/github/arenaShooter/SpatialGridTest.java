@@ -0,0 +1,109 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The grid finds exactly what a scan of every pair with {@link Rectangle#overlaps} finds. Boxes sit on a
+ * coarse lattice, so many share an edge or a corner, often on a cell border, and some stick out of the grid.
+ */
+class SpatialGridTest {
+    private static final int BOXES = 10_000;
+    private static final float CELL = 32f;
+    private static final float SIZE = 1024f;
+
+    private final SpatialGrid grid = new SpatialGrid(0f, 0f, SIZE, SIZE, CELL);
+    private final Rectangle[] boxes = new Rectangle[BOXES];
+
+    SpatialGridTest() {
+        RandomXS128 random = new RandomXS128(4);
+        for (int i = 0; i < BOXES; i++) boxes[i] = randomBox(random);
+    }
+
+    @Test
+    void queryMatchesBruteForce() {
+        fill();
+        RandomXS128 random = new RandomXS128(5);
+        IntArray found = new IntArray();
+        IntArray expected = new IntArray();
+        for (int q = 0; q < 2000; q++) {
+            Rectangle area = randomBox(random);
+            found.clear();
+            int count = grid.query(area.x, area.y, area.width, area.height, found);
+            assertEquals(found.size, count);
+
+            expected.clear();
+            for (int i = 0; i < BOXES; i++) {
+                if (area.overlaps(boxes[i])) expected.add(i);
+            }
+            found.sort();
+            assertArrayEquals(expected.toArray(), found.toArray(), () -> "query " + area);
+        }
+    }
+
+    @Test
+    void contactPairsMatchBruteForce() {
+        fill();
+        LongArray found = new LongArray();
+        IntArray candidates = new IntArray();
+        for (int i = 0; i < BOXES; i++) {
+            Rectangle box = boxes[i];
+            candidates.clear();
+            grid.query(box.x, box.y, box.width, box.height, candidates);
+            for (int c = 0; c < candidates.size; c++) {
+                int j = candidates.get(c);
+                if (i < j) found.add(pair(i, j));
+            }
+        }
+
+        LongArray expected = new LongArray();
+        for (int i = 0; i < BOXES; i++) {
+            for (int j = i + 1; j < BOXES; j++) {
+                if (boxes[i].overlaps(boxes[j])) expected.add(pair(i, j));
+            }
+        }
+        found.sort();
+        assertArrayEquals(expected.toArray(), found.toArray());
+    }
+
+    @Test
+    void boxesTouchingOnlyAtEdgesDoNotOverlap() {
+        grid.clear();
+        //a box on a cell border and its neighbours on each side and corner
+        grid.insert(0, CELL, CELL, CELL, CELL);
+        grid.insert(1, CELL * 2, CELL, CELL, CELL);
+        grid.insert(2, CELL, CELL * 2, CELL, CELL);
+        grid.insert(3, 0f, 0f, CELL, CELL);
+        grid.insert(4, CELL * 2, CELL * 2, CELL, CELL);
+        grid.insert(5, CELL * 1.5f, CELL * 1.5f, 1f, 1f);
+
+        IntArray found = new IntArray();
+        grid.query(CELL, CELL, CELL, CELL, found);
+        found.sort();
+        assertArrayEquals(new int[] {0, 5}, found.toArray());
+    }
+
+    private void fill() {
+        grid.clear();
+        for (int i = 0; i < BOXES; i++) grid.insert(i, boxes[i].x, boxes[i].y, boxes[i].width, boxes[i].height);
+    }
+
+    //on a lattice of 4, up to two cells wide and partly outside the grid
+    private static Rectangle randomBox(RandomXS128 random) {
+        float x = random.nextInt((int) (SIZE + CELL * 4) / 4) * 4f - CELL * 2;
+        float y = random.nextInt((int) (SIZE + CELL * 4) / 4) * 4f - CELL * 2;
+        float width = (1 + random.nextInt(16)) * 4f;
+        float height = (1 + random.nextInt(16)) * 4f;
+        return new Rectangle(x, y, width, height);
+    }
+
+    private static long pair(int i, int j) {
+        return (long) i << 32 | j;
+    }
+}
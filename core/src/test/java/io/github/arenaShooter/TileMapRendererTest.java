@@ -0,0 +1,139 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The shipped arena map drawn with the shipped tileset: every tile of the map is drawn, from the square of
+ * the tileset its id names, even when the tileset sits somewhere inside a bigger atlas page. Runs from the
+ * assets directory, a texture of the tileset's size stands in for the atlas page, which needs GL.
+ */
+class TileMapRendererTest {
+    //where the packer might have put the tileset on the page
+    private static final int PAGE_SIZE = 1024, REGION_X = 37, REGION_Y = 290;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void shippedMapDrawsEveryTileFromItsSquare() {
+        FileHandle image = new FileHandle("tileset.png");
+        ByteBuffer header = ByteBuffer.wrap(image.readBytes());
+        //width and height of the PNG's IHDR chunk
+        int width = header.getInt(16), height = header.getInt(20);
+        int pixels = Assets.TILESET_TILE_PIXELS;
+        assertEquals(0, width % pixels, "tileset width");
+        assertEquals(0, height % pixels, "tileset height");
+        int tilesetColumns = width / pixels;
+
+        TileMap map = TileMap.open(new FileHandle(Assets.ARENA_MAP));
+        assertEquals(World.MAP_TEXTURE_SIZE, map.getWidth());
+        assertEquals(World.MAP_TEXTURE_SIZE, map.getHeight());
+        TextureRegion tileset = new TextureRegion(texture(PAGE_SIZE, PAGE_SIZE), REGION_X, REGION_Y, width, height);
+        TileMapRenderer renderer = new TileMapRenderer(new TileChunks(map, 36), tileset, pixels);
+        assertEquals(tilesetColumns * (height / pixels), renderer.getTileCount());
+
+        int tileSize = map.getTileSize();
+        int[] drawnTiles = new int[map.getColumns() * map.getRows()];
+        RecordingBatch batch = new RecordingBatch() {
+            @Override
+            protected void region(TextureRegion region, float x, float y, float width, float height) {
+                assertEquals(tileSize, width);
+                assertEquals(tileSize, height);
+                assertEquals(pixels, region.getRegionWidth());
+                assertEquals(pixels, region.getRegionHeight());
+                int column = (int) (x / tileSize), row = (int) (y / tileSize);
+                assertEquals(column * tileSize, x);
+                assertEquals(row * tileSize, y);
+                //back from the square's place in the tileset to the id that names it
+                int squareX = region.getRegionX() - REGION_X, squareY = region.getRegionY() - REGION_Y;
+                assertEquals(0, squareX % pixels);
+                assertEquals(0, squareY % pixels);
+                drawnTiles[row * map.getColumns() + column] = 1 + squareY / pixels * tilesetColumns + squareX / pixels;
+            }
+        };
+        int drawn = renderer.draw(batch, new Rectangle(0f, 0f, map.getWidth(), map.getHeight()));
+        assertEquals(map.getColumns() * map.getRows(), drawn);
+        assertEquals(drawn, batch.getDraws());
+
+        short[] chunk = new short[map.getChunkSize() * map.getChunkSize()];
+        for (int row = 0; row < map.getRows(); row++) {
+            for (int column = 0; column < map.getColumns(); column++) {
+                int chunkSize = map.getChunkSize();
+                map.readChunk(column / chunkSize, row / chunkSize, chunk);
+                int tile = chunk[(row % chunkSize) * chunkSize + column % chunkSize];
+                assertEquals(tile + 1, drawnTiles[row * map.getColumns() + column], "column " + column + ", row " + row);
+            }
+        }
+        map.dispose();
+    }
+
+    @Test
+    void mapPastTheTilesetIsRejected() {
+        FileHandle file = new FileHandle(new File(directory, "wide.tmap"));
+        TileMap.write(file, 100, 4, 6, 5, (column, row) -> column == 5 && row == 4 ? 12 : 0);
+        TileMap map = TileMap.open(file);
+        assertEquals(12, map.getHighestTile());
+        //a 4 by 3 tileset, the ids end at 11
+        TextureRegion tileset = new TextureRegion(texture(256, 192));
+        TileChunks chunks = new TileChunks(map, 4);
+        assertThrows(GdxRuntimeException.class, () -> new TileMapRenderer(chunks, tileset, 64));
+        //the same image cut finer has room for it
+        assertEquals(48, new TileMapRenderer(chunks, tileset, 32).getTileCount());
+        map.dispose();
+    }
+
+    //a texture of the given size whose GL calls go nowhere
+    private static Texture texture(int width, int height) {
+        GL20 gl = Gdx.gl, gl20 = Gdx.gl20;
+        Graphics graphics = Gdx.graphics;
+        Gdx.gl = Gdx.gl20 = stub(GL20.class);
+        Gdx.graphics = stub(Graphics.class);
+        try {
+            return new Texture(new TextureData() {
+                @Override public TextureDataType getType() { return TextureDataType.Custom; }
+                @Override public boolean isPrepared() { return true; }
+                @Override public void prepare() {}
+                @Override public Pixmap consumePixmap() { throw new GdxRuntimeException("No pixels"); }
+                @Override public boolean disposePixmap() { return false; }
+                @Override public void consumeCustomData(int target) {}
+                @Override public int getWidth() { return width; }
+                @Override public int getHeight() { return height; }
+                @Override public Pixmap.Format getFormat() { return Pixmap.Format.RGBA8888; }
+                @Override public boolean useMipMaps() { return false; }
+                @Override public boolean isManaged() { return false; }
+            });
+        } finally {
+            Gdx.gl = gl;
+            Gdx.gl20 = gl20;
+            Gdx.graphics = graphics;
+        }
+    }
+
+    //every method returns zero, false or null
+    private static <T> T stub(Class<T> type) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Class<?> returns = method.getReturnType();
+            return returns.isPrimitive() && returns != void.class ? Array.get(Array.newInstance(returns, 1), 0) : null;
+        });
+        return type.cast(proxy);
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every tile of a map whose size is not a multiple of the chunk size comes back from the chunk and offset
+ * it belongs to, mapped or read into memory, with the tiles past the edge empty; and streamed chunks are the
+ * ones under the view.
+ */
+class TileMapTest {
+    private static final int TILE_SIZE = 16;
+    private static final int CHUNK_SIZE = 8;
+    private static final int COLUMNS = 37, ROWS = 23;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void chunksHoldTheirTiles() {
+        TileMap map = TileMap.open(writeMap());
+        assertTrue(map.isMapped());
+        assertChunks(map);
+        map.dispose();
+    }
+
+    @Test
+    void mapReadIntoMemoryHoldsTheSameTiles() {
+        TileMap map = TileMap.open(classpathHandle(writeMap()));
+        assertFalse(map.isMapped());
+        assertChunks(map);
+        map.dispose();
+    }
+
+    @Test
+    void brokenFilesAreRejected() throws IOException {
+        FileHandle file = writeMap();
+        try (RandomAccessFile out = new RandomAccessFile(file.file(), "rw")) {
+            out.setLength(out.length() - 2);
+        }
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(file));
+
+        FileHandle other = new FileHandle(new File(directory, "other.map"));
+        other.writeBytes(new byte[64], false);
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(other));
+
+        //headers that would divide by zero or size chunks past a short[]
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(TILE_SIZE, 0, COLUMNS, ROWS)));
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(TILE_SIZE, -8, COLUMNS, ROWS)));
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(TILE_SIZE, 1 << 16, 1, 1)));
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(TILE_SIZE, CHUNK_SIZE, -COLUMNS, ROWS)));
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(TILE_SIZE, CHUNK_SIZE, COLUMNS, 0)));
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(0, CHUNK_SIZE, COLUMNS, ROWS)));
+        assertThrows(GdxRuntimeException.class, () -> TileMap.open(header(TILE_SIZE, CHUNK_SIZE, Integer.MAX_VALUE, ROWS)));
+        assertThrows(GdxRuntimeException.class,
+            () -> TileMap.write(new FileHandle(new File(directory, "none.map")), TILE_SIZE, 0, COLUMNS, ROWS, TileMapTest::tile));
+    }
+
+    @Test
+    void streamLoadsTheChunksUnderTheView() {
+        TileMap map = TileMap.open(writeMap());
+        TileChunks chunks = new TileChunks(map, 12);
+        float chunkWorldSize = CHUNK_SIZE * TILE_SIZE;
+
+        //a view over a chunk border, the chunks it touches and one around them
+        chunks.stream(new Rectangle(chunkWorldSize * 1.5f, chunkWorldSize * 0.5f, chunkWorldSize, chunkWorldSize));
+        assertEquals(1, chunks.getVisibleX0());
+        assertEquals(0, chunks.getVisibleY0());
+        assertEquals(2, chunks.getVisibleX1());
+        assertEquals(1, chunks.getVisibleY1());
+        for (int cy = 0; cy <= 2; cy++) {
+            for (int cx = 0; cx <= 3; cx++) {
+                short[] tiles = chunks.get(cx, cy);
+                assertNotNull(tiles, "chunk " + cx + ", " + cy);
+                assertArrayEquals(expectedChunk(cx, cy), tiles, "chunk " + cx + ", " + cy);
+            }
+        }
+        assertNull(chunks.get(4, 0));
+        assertEquals(12, chunks.getResident());
+
+        //off the map's bottom left, clamped to the first chunk
+        chunks.stream(new Rectangle(-500f, -500f, 510f, 510f));
+        assertEquals(0, chunks.getVisibleX0());
+        assertEquals(0, chunks.getVisibleX1());
+        assertArrayEquals(expectedChunk(0, 0), chunks.get(0, 0));
+
+        //the last chunk, partly past the edge; its column is new and the slots are full, so the chunks
+        //used longest ago make room and the ones just used stay
+        chunks.stream(new Rectangle(map.getWidth() - 10f, map.getHeight() - 10f, 100f, 100f));
+        int lastX = map.getChunkColumns() - 1, lastY = map.getChunkRows() - 1;
+        assertEquals(lastX, chunks.getVisibleX1());
+        assertEquals(lastY, chunks.getVisibleY1());
+        assertArrayEquals(expectedChunk(lastX, lastY), chunks.get(lastX, lastY));
+        assertArrayEquals(expectedChunk(lastX, lastY - 1), chunks.get(lastX, lastY - 1));
+        assertEquals(12, chunks.getResident());
+        assertEquals(2, chunks.getEvictions());
+        assertNotNull(chunks.get(0, 0));
+        assertNotNull(chunks.get(1, 1));
+        map.dispose();
+    }
+
+    private void assertChunks(TileMap map) {
+        assertEquals(COLUMNS, map.getColumns());
+        assertEquals(ROWS, map.getRows());
+        assertEquals(5, map.getChunkColumns());
+        assertEquals(3, map.getChunkRows());
+        assertEquals(COLUMNS * TILE_SIZE, map.getWidth());
+        short[] tiles = new short[CHUNK_SIZE * CHUNK_SIZE];
+        for (int cy = 0; cy < map.getChunkRows(); cy++) {
+            for (int cx = 0; cx < map.getChunkColumns(); cx++) {
+                map.readChunk(cx, cy, tiles);
+                assertArrayEquals(expectedChunk(cx, cy), tiles, "chunk " + cx + ", " + cy);
+            }
+        }
+    }
+
+    //tiles of a chunk row by row from its bottom left, empty past the map's edge
+    private static short[] expectedChunk(int cx, int cy) {
+        short[] tiles = new short[CHUNK_SIZE * CHUNK_SIZE];
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                int column = cx * CHUNK_SIZE + x, row = cy * CHUNK_SIZE + y;
+                tiles[y * CHUNK_SIZE + x] = column < COLUMNS && row < ROWS ? (short) tile(column, row) : TileMap.EMPTY;
+            }
+        }
+        return tiles;
+    }
+
+    //a different tile everywhere, so a tile read from the wrong place shows
+    private static int tile(int column, int row) {
+        return column * 100 + row;
+    }
+
+    private FileHandle writeMap() {
+        FileHandle file = new FileHandle(new File(directory, "test.map"));
+        TileMap.write(file, TILE_SIZE, CHUNK_SIZE, COLUMNS, ROWS, TileMapTest::tile);
+        return file;
+    }
+
+    //a header followed by room for a few chunks
+    private FileHandle header(int tileSize, int chunkSize, int columns, int rows) {
+        ByteBuffer data = ByteBuffer.allocate(1024);
+        data.putInt(TileMap.MAGIC).putInt(TileMap.VERSION).putInt(tileSize).putInt(chunkSize).putInt(columns).putInt(rows);
+        FileHandle file = new FileHandle(new File(directory, "header.map"));
+        file.writeBytes(data.array(), false);
+        return file;
+    }
+
+    //the same file as if it were inside a jar, where it cannot be mapped
+    private static FileHandle classpathHandle(FileHandle file) {
+        return new FileHandle(file.file(), Files.FileType.Classpath) {
+            @Override
+            public InputStream read() {
+                try {
+                    return new FileInputStream(file());
+                } catch (IOException e) {
+                    throw new GdxRuntimeException(e);
+                }
+            }
+        };
+    }
+}
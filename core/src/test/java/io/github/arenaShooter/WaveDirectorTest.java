@@ -0,0 +1,52 @@
+package io.github.arenaShooter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A wave held back by maxAlive keeps its pending enemies but does not save up spawns while it waits: once
+ * room frees up they trickle in at the spawn rate again instead of all in one tick.
+ */
+class WaveDirectorTest {
+    private static final float STEP = SimulationClock.DEFAULT_STEP;
+    private static final float SPAWN_RATE = 10f;
+    private static final int MAX_ALIVE = 5;
+
+    @Test
+    void capDoesNotSaveUpABurst() {
+        World world = new World(15);
+        WaveDirector director = new WaveDirector(wave -> 100)
+            .setSpawnRate(SPAWN_RATE)
+            .setMaxAlive(MAX_ALIVE)
+            .setWaveInterval(1000f);
+
+        //long enough to reach the cap and then sit at it for a while
+        advance(director, world, 10f);
+        assertEquals(MAX_ALIVE, world.getEnemies().size);
+        assertEquals(100 - MAX_ALIVE, director.getPendingSpawns());
+
+        //room for the whole cap, but only the rate's worth comes in
+        clear(world);
+        director.update(STEP, world);
+        assertTrue(world.getEnemies().size <= 1, world.getEnemies().size + " spawned in one tick");
+        float seconds = 0.25f;
+        advance(director, world, seconds);
+        assertTrue(world.getEnemies().size <= 1 + Math.ceil((seconds + STEP) * SPAWN_RATE),
+            world.getEnemies().size + " spawned in " + seconds + "s");
+        assertEquals(100, director.getSpawned() + director.getPendingSpawns());
+        world.dispose();
+    }
+
+    private static void advance(WaveDirector director, World world, float seconds) {
+        for (int tick = 0; tick < Math.round(seconds / STEP); tick++) {
+            director.update(STEP, world);
+        }
+    }
+
+    private static void clear(World world) {
+        for (Enemy enemy : world.getEnemies()) world.getEnemyPool().free(enemy);
+        world.getEnemies().clear();
+    }
+}
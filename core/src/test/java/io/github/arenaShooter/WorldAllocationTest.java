@@ -0,0 +1,162 @@
+package io.github.arenaShooter;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The game allocates nothing once warmed up: every tick of a world full of enemies, waves, bullets, interest
+ * management, steering and the profiler, and every frame drawing its enemies and bullets, runs without a single
+ * byte of garbage, neither on the ticking thread nor on the enemy update workers.
+ *
+ * Frames are drawn into a batch without GL, with regions without textures for the animation frames. After a
+ * warm-up that grows every buffer and lets the JIT settle, every round of ticks has to allocate nothing; anything
+ * the code allocates per tick shows up in the warm-up rounds and in every round after.
+ */
+class WorldAllocationTest {
+    private static final float STEP = SimulationClock.DEFAULT_STEP;
+    private static final int ENEMIES = 2000;
+    private static final int WARMUP_TICKS = 2000;
+    private static final int TICKS = 300;
+    private static final int WARMUP_ROUNDS = 8;
+    private static final int ROUNDS = 4;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void tickAllocatesNothing() {
+        assertAllocatesNothing(createWorld(), null);
+    }
+
+    @Test
+    void profiledTickAllocatesNothing() {
+        TickProfiler profiler = new TickProfiler();
+        profiler.setEnabled(true);
+        World world = createWorld();
+        world.setProfiler(profiler);
+        assertAllocatesNothing(world, profiler);
+    }
+
+    @Test
+    void parallelTickAllocatesNothing() {
+        World world = createWorld();
+        world.setParallelism(3);
+        //kept full, or the wave thins out below the size that is split across threads
+        world.setWaveDirector(new WaveDirector(wave -> ENEMIES).setSpawnRate(200f).setMaxAlive(ENEMIES));
+        assertAllocatesNothing(world, null);
+        assertTrue(world.getEnemies().size > ParallelEnemyUpdater.MIN_CHUNK * 2, "updated on one thread");
+    }
+
+    private World createWorld() {
+        World world = new World(7);
+        world.setWaveDirector(WaveDirector.createDefault().setSpawnRate(50f));
+        world.setInterest(new InterestManager());
+        world.setSteering(new Steering());
+        world.getEvents().subscribe((type, id, x, y, value) -> { });
+        //pooled up front, or the pool's free list grows while the first enemies die
+        world.getEnemyPool().fill(ENEMIES);
+        for (int i = 0; i < ENEMIES; i++) {
+            world.spawnEnemy(
+                World.AREA_OFFSET_X + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64),
+                World.AREA_OFFSET_Y + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64));
+        }
+        return world;
+    }
+
+    //every round of ticks and frames after the warm-up, on the ticking thread and the workers together
+    private void assertAllocatesNothing(World world, TickProfiler profiler) {
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        Frame frame = new Frame();
+        int i = 0;
+        while (i < WARMUP_TICKS) tick(world, profiler, frame, i++);
+        assertTrue(frame.batch.getDraws() > 0, "nothing drawn");
+
+        long[] workers = workers();
+        long[] before = new long[workers.length + 1];
+        //the warm-up lasts until the JIT lets a round through clean, a late recompile can allocate once
+        for (int round = 0; round < WARMUP_ROUNDS; round++, i += TICKS) {
+            if (allocated(world, profiler, frame, i, workers, before) == 0) break;
+        }
+        for (int round = 0; round < ROUNDS; round++, i += TICKS) {
+            long allocated = allocated(world, profiler, frame, i, workers, before);
+            int at = round;
+            assertEquals(0, allocated, () -> "round " + at + ": " + allocated / (double) TICKS + " bytes per tick");
+        }
+        world.dispose();
+    }
+
+    //bytes allocated by a round of ticks starting at tick i
+    private long allocated(World world, TickProfiler profiler, Frame frame, int i, long[] workers, long[] before) {
+        long thread = Thread.currentThread().getId();
+        //reading another thread's count allocates, so the workers are read outside the calling thread's
+        for (int w = 0; w < workers.length; w++) before[w] = threads.getThreadAllocatedBytes(workers[w]);
+        before[workers.length] = threads.getThreadAllocatedBytes(thread);
+        for (int end = i + TICKS; i < end; ) tick(world, profiler, frame, i++);
+        long bytes = threads.getThreadAllocatedBytes(thread) - before[workers.length];
+        for (int w = 0; w < workers.length; w++) bytes += threads.getThreadAllocatedBytes(workers[w]) - before[w];
+        return bytes;
+    }
+
+    //ids of the live enemy update workers
+    private static long[] workers() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.isAlive() && thread.getName().startsWith("enemy-update-"))
+            .mapToLong(Thread::getId)
+            .toArray();
+    }
+
+    private static void tick(World world, TickProfiler profiler, Frame frame, int i) {
+        //walks the player around a square with pauses, so enemies both chase and get in range
+        int phase = (i / 60) % 8;
+        world.tick(STEP, phase % 2 == 0 ? 0 : 1 << (phase / 2));
+        if (profiler != null) profiler.commit(world.getTick(), world.getEnemies().size, world.getProjectiles().size());
+        frame.draw(world);
+    }
+
+    //the world's part of a game frame: living enemies, bullets, then the dying, around the player
+    private static class Frame {
+        final RecordingBatch batch = new RecordingBatch();
+        final EnemyRenderer enemies;
+        final TextureRegion bone = new TextureRegion();
+        final Rectangle view = new Rectangle(0f, 0f, 800f, 480f);
+
+        Frame() {
+            //the world only spawns skeletons
+            EnemyArchetype skeleton = EnemyArchetype.SKELETON;
+            AnimationCatalog catalog = new AnimationCatalog();
+            catalog.set(skeleton, AnimationCatalog.WALK, regions(skeleton.walkFrames));
+            catalog.set(skeleton, AnimationCatalog.ATTACK, regions(skeleton.attackFrames));
+            catalog.set(skeleton, AnimationCatalog.DEATH, regions(skeleton.deathFrames));
+            enemies = new EnemyRenderer(catalog);
+        }
+
+        void draw(World world) {
+            float alpha = 0.5f;
+            view.setCenter(world.getPlayerX(0, alpha), world.getPlayerY(0, alpha));
+            batch.begin();
+            Array<Enemy> list = world.getEnemies();
+            for (int i = 0; i < list.size; i++) {
+                if (!list.get(i).isDead()) enemies.render(batch, list.get(i), alpha);
+            }
+            world.getProjectiles().render(batch, bone, alpha, STEP, view);
+            for (int i = 0; i < list.size; i++) {
+                if (list.get(i).isDead()) enemies.render(batch, list.get(i), alpha);
+            }
+            batch.end();
+        }
+
+        private static TextureRegion[] regions(int count) {
+            TextureRegion[] regions = new TextureRegion[count];
+            for (int i = 0; i < count; i++) regions[i] = new TextureRegion();
+            return regions;
+        }
+    }
+}
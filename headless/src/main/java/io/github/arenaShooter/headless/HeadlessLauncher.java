@@ -0,0 +1,93 @@
+package io.github.arenaShooter.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import io.github.arenaShooter.InterestManager;
+import io.github.arenaShooter.Steering;
+
+/** Runs the simulation without a window or GPU and reports how many ticks per second it manages. */
+public class HeadlessLauncher {
+    public static void main(String[] args) {
+        int ticks = 3600;
+        int enemies = 1000;
+        int threads = 1;
+        float spawnRate = 0f;
+        Long seed = null;
+        String replay = null;
+        boolean interest = false;
+        float nearRadius = -1f;
+        float farRadius = -1f;
+        boolean steering = false;
+        String profile = null;
+        boolean combatLog = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--interest":
+                    interest = true;
+                    break;
+                case "--nearRadius":
+                    nearRadius = Float.parseFloat(args[++i]);
+                    break;
+                case "--farRadius":
+                    farRadius = Float.parseFloat(args[++i]);
+                    break;
+                case "--steering":
+                    steering = true;
+                    break;
+                case "--combatLog":
+                    combatLog = true;
+                    break;
+                case "--profile":
+                    profile = args[++i];
+                    break;
+                case "--ticks":
+                    ticks = Integer.parseInt(args[++i]);
+                    break;
+                case "--enemies":
+                    enemies = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--spawnRate":
+                    spawnRate = Float.parseFloat(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--replay":
+                    replay = args[++i];
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        HeadlessSimulation simulation = new HeadlessSimulation(ticks, enemies, threads, spawnRate).setReplay(replay);
+        if (seed != null) simulation.setSeed(seed);
+        if (interest || nearRadius >= 0 || farRadius >= 0) {
+            InterestManager manager = new InterestManager();
+            if (nearRadius >= 0 || farRadius >= 0) {
+                manager.setRadii(nearRadius >= 0 ? nearRadius : manager.getNearRadius(),
+                    farRadius >= 0 ? farRadius : manager.getFarRadius());
+            }
+            simulation.setInterest(manager);
+        }
+        if (steering) simulation.setSteering(new Steering());
+        simulation.setProfile(profile);
+        simulation.setCombatLog(combatLog);
+        createApplication(simulation);
+    }
+
+    private static HeadlessApplication createApplication(HeadlessSimulation simulation) {
+        return new HeadlessApplication(simulation, getDefaultConfiguration());
+    }
+
+    private static HeadlessApplicationConfiguration getDefaultConfiguration() {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        //the whole run happens in create(), render() is never needed
+        configuration.updatesPerSecond = -1;
+        return configuration;
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.arenaShooter.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import io.github.arenaShooter.CombatEvents;
+import io.github.arenaShooter.CombatLog;
+import io.github.arenaShooter.InputLog;
+import io.github.arenaShooter.InterestManager;
+import io.github.arenaShooter.LatencyHistogram;
+import io.github.arenaShooter.LogSink;
+import io.github.arenaShooter.PlayerInput;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.Steering;
+import io.github.arenaShooter.TickProfiler;
+import io.github.arenaShooter.WaveDirector;
+import io.github.arenaShooter.World;
+
+/**
+ * Spawns a wave and runs the world for a fixed number of ticks as fast as possible. With a replay it runs a
+ * recorded desktop session instead, from the log's seed and inputs, and checks the end state matches.
+ */
+public class HeadlessSimulation extends ApplicationAdapter {
+    private final int ticks;
+    private final int enemies;
+    private final int threads;
+    private final float spawnRate;
+    private long seed = MathUtils.random.nextLong();
+    private String replayPath;
+    private InterestManager interest;
+    private Steering steering;
+    private String profilePath;
+    private final TickProfiler profiler = new TickProfiler();
+    private boolean combatLog;
+    private final long[] combat = new long[CombatEvents.TYPES];
+
+    public HeadlessSimulation(int ticks, int enemies, int threads, float spawnRate) {
+        this.ticks = ticks;
+        this.enemies = enemies;
+        this.threads = threads;
+        this.spawnRate = spawnRate;
+    }
+
+    public HeadlessSimulation setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    //enemies far from the player update at a lower rate, see InterestManager
+    public HeadlessSimulation setInterest(InterestManager interest) {
+        this.interest = interest;
+        return this;
+    }
+
+    //enemies follow the flow field and keep apart, see Steering
+    public HeadlessSimulation setSteering(Steering steering) {
+        this.steering = steering;
+        return this;
+    }
+
+    //writes per phase tick time histograms to the file when done, CSV or JSON by extension
+    public HeadlessSimulation setProfile(String path) {
+        this.profilePath = path;
+        return this;
+    }
+
+    //logs hits and kills through a rate limited sink, like the game does
+    public HeadlessSimulation setCombatLog(boolean combatLog) {
+        this.combatLog = combatLog;
+        return this;
+    }
+
+    public HeadlessSimulation setReplay(String path) {
+        this.replayPath = path;
+        return this;
+    }
+
+    //profiler scopes are only there to be closed, they are never read
+    @Override
+    @SuppressWarnings("try")
+    public void create() {
+        if (replayPath != null) {
+            replay(InputLog.read(Gdx.files.absolute(replayPath)));
+            Gdx.app.exit();
+            return;
+        }
+
+        World world = new World(seed);
+        world.setParallelism(threads);
+        world.setInterest(interest);
+        world.setSteering(steering);
+        world.setProfiler(profiler);
+        world.getEvents().subscribe((type, id, x, y, value) -> combat[type]++);
+        LogSink log = combatLog ? new LogSink(10, 256) : null;
+        if (log != null) world.getEvents().subscribe(new CombatLog(log));
+        for (int i = 0; i < enemies; i++) {
+            world.spawnEnemy(
+                World.AREA_OFFSET_X + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64),
+                World.AREA_OFFSET_Y + world.getRandom().nextFloat() * (World.PLAYABLE_AREA_SIZE - 64));
+        }
+        //the game's waves on top, spawning as fast as asked
+        if (spawnRate > 0f) {
+            world.setWaveDirector(WaveDirector.createDefault().setSpawnRate(spawnRate));
+        }
+
+        float step = SimulationClock.DEFAULT_STEP;
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            //a recording may be started with jcmd JFR.start while this runs
+            profiler.setEnabled(profilePath != null || TickProfiler.isRecording());
+            try (TickProfiler.Scope scope = profiler.time(TickProfiler.LOGIC)) {
+                world.tick(step, botInput(i));
+            }
+            profiler.commit(world.getTick(), world.getEnemies().size, world.getProjectiles().size());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        Gdx.app.log("Headless", ticks + " ticks with " + enemies + " enemies on " + threads + " thread(s) in " + String.format("%.3f", seconds) + " s");
+        Gdx.app.log("Headless", String.format("%.1f ticks/s, %.1f x real time", ticks / seconds, ticks * step / seconds));
+        Gdx.app.log("Headless", "enemies left: " + world.getEnemies().size + ", bullets in flight: " + world.getProjectiles().size());
+        if (spawnRate > 0f) {
+            Gdx.app.log("Headless", "waves: " + world.getWaveDirector().getWave()
+                + ", spawned: " + world.getWaveDirector().getSpawned()
+                + ", pool peak: " + world.getEnemyPool().peak + ", pooled: " + world.getEnemyPool().getFree());
+        }
+        Gdx.app.log("Headless", "combat events: " + combat[CombatEvents.SPAWN] + " spawns, "
+            + combat[CombatEvents.SHOOT] + " shots, " + combat[CombatEvents.DAMAGE] + " hits, "
+            + combat[CombatEvents.KILL] + " kills, " + combat[CombatEvents.PLAYER_HIT] + " player hits, "
+            + world.getEvents().getDropped() + " dropped");
+        Gdx.app.log("Headless", "player health: " + world.getPlayerHealth(0) + ", deaths: " + world.getPlayerDeaths(0));
+        if (log != null) log.dispose();
+        if (interest != null) {
+            Gdx.app.log("Headless", "last tick near/mid/far: " + interest.getCount(InterestManager.NEAR)
+                + "/" + interest.getCount(InterestManager.MID) + "/" + interest.getCount(InterestManager.FAR)
+                + ", full updates: " + interest.getFullUpdates());
+        }
+        if (steering != null) {
+            Gdx.app.log("Headless", "flow field rebuilds: " + steering.getField().getRebuilds());
+        }
+        if (profilePath != null) {
+            logProfile();
+            profiler.dump(Gdx.files.absolute(profilePath));
+            Gdx.app.log("Headless", "profile written to " + profilePath);
+        }
+        Gdx.app.log("Headless", "seed: " + seed + ", state checksum: " + Long.toHexString(world.checksum()));
+        world.dispose();
+
+        Gdx.app.exit();
+    }
+
+    private void replay(InputLog log) {
+        //same setup as Main.startGame, with the options the log was recorded with
+        World world = new World(log.getSeed());
+        world.setParallelism(threads);
+        world.setWaveDirector(WaveDirector.createDefault());
+        log.applyOptions(world);
+
+        float step = SimulationClock.DEFAULT_STEP;
+        long start = System.nanoTime();
+        for (int i = 0; i < log.size(); i++) {
+            world.tick(step, log.get(i));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        boolean match = world.checksum() == log.getChecksum();
+        Gdx.app.log("Replay", log.size() + " ticks in " + String.format("%.3f", seconds) + " s, "
+            + String.format("%.1f x real time", log.size() * step / seconds));
+        Gdx.app.log("Replay", "enemies left: " + world.getEnemies().size + ", checksum "
+            + Long.toHexString(world.checksum()) + (match ? " matches the recording" : " DIFFERS from the recording"));
+        world.dispose();
+    }
+
+    private void logProfile() {
+        for (int phase = 0; phase < TickProfiler.PHASES; phase++) {
+            LatencyHistogram histogram = profiler.getTotal(phase);
+            if (histogram.getCount() == 0) continue;
+            Gdx.app.log("Headless", String.format("%-8s p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                TickProfiler.getName(phase), histogram.percentile(0.5) / 1e3, histogram.percentile(0.99) / 1e3,
+                histogram.percentile(0.999) / 1e3, histogram.getMax() / 1e3));
+        }
+    }
+
+    //walks the player around a square with pauses, so enemies both chase and get in range
+    static int botInput(long tick) {
+        switch ((int) ((tick / 60) % 8)) {
+            case 1: return PlayerInput.UP;
+            case 3: return PlayerInput.RIGHT;
+            case 5: return PlayerInput.DOWN;
+            case 7: return PlayerInput.LEFT;
+            default: return 0;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package io.github.arenaShooter.server;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import io.github.arenaShooter.InterestManager;
+import io.github.arenaShooter.NetProtocol;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.Snapshot;
+import io.github.arenaShooter.SnapshotCodec;
+import io.github.arenaShooter.Steering;
+import io.github.arenaShooter.WaveDirector;
+import io.github.arenaShooter.World;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Authoritative match server. Owns the only real {@link World}, runs it at the fixed step and sends every
+ * client a snapshot every few ticks, as a delta against the newest snapshot that client confirmed, or in full
+ * when the server no longer has that one. A client only gets the enemies and bullets within the view radius
+ * of its player, what its window can show; {@link InterestManager} rings only decide how often enemies update.
+ * A snapshot that would not fit one {@link NetProtocol#MAX_SNAPSHOT_DATAGRAM} keeps only the enemies and bullets
+ * nearest the player, as many as fit; what was cut follows in later deltas, which cost far less per enemy.
+ * Player inputs are applied one per tick in sequence order; a client that falls too far behind loses the
+ * oldest ones.
+ *
+ * Single threaded and non-blocking, call {@link #update(long)} as often as possible. The world pauses while
+ * nobody is connected.
+ */
+public class ArenaServer implements Disposable {
+    public static final float CLIENT_TIMEOUT = 5f;
+    //half the diagonal of a 1920x1080 window, plus the camera's lag behind the player and a death frame
+    public static final float DEFAULT_VIEW_RADIUS = 1250f;
+    //snapshots kept per client as delta baselines
+    private static final int HISTORY = 32;
+    private static final int INPUT_BUFFER = 64;
+    //queued inputs beyond this are skipped, it bounds the extra delay a client's bad connection can build up
+    private static final int MAX_INPUT_BACKLOG = 8;
+    //ticks the server catches up at most after a stall
+    private static final int MAX_CATCH_UP = 5;
+    //cuts tried before a snapshot that still does not fit is dropped
+    private static final int MAX_CUTS = 8;
+
+    private final DatagramChannel channel;
+    private final World world;
+    private final InterestManager interest = new InterestManager();
+    private final float step = SimulationClock.DEFAULT_STEP;
+    private final long stepNanos = Math.round(step * 1e9);
+    private final int snapshotInterval;
+    private float viewRadius = DEFAULT_VIEW_RADIUS;
+
+    private final ObjectMap<SocketAddress, Client> clients = new ObjectMap<>();
+    private final Array<Client> clientList = new Array<>();
+    private final Snapshot current = new Snapshot();
+
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+    private final ByteBuffer smallBuffer = ByteBuffer.allocate(64);
+    private ByteBuffer snapshotBuffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+
+    private long nextTickNanos = -1;
+
+    //cost of the last stats period, reset by resetStats
+    private long ticks, simulationNanos, maxSimulationNanos, replicationNanos, maxReplicationNanos;
+    private long snapshotsSent, fullSnapshotsSent, cutSnapshots, oversizedSnapshots, inputsSkipped, receiveErrors;
+    private int largestSnapshot;
+
+    /**
+     * @param address where to listen, port 0 picks a free one
+     * @param snapshotInterval ticks between snapshots, 2 sends at 30 Hz
+     */
+    public ArenaServer(InetSocketAddress address, long seed, int snapshotInterval) {
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        world = new World(seed);
+        //slot 0 is taken by whoever joins first
+        world.removePlayer(0);
+        world.setWaveDirector(WaveDirector.createDefault());
+        world.setInterest(interest);
+        world.setSteering(new Steering());
+
+        try {
+            channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.bind(address);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't listen on " + address, e);
+        }
+    }
+
+    //receives everything pending, then runs the ticks that are due at the given System.nanoTime()
+    public void update(long now) {
+        receive(now);
+
+        if (nextTickNanos < 0) nextTickNanos = now;
+        int caughtUp = 0;
+        while (now - nextTickNanos >= 0 && caughtUp < MAX_CATCH_UP) {
+            tick(now);
+            nextTickNanos += stepNanos;
+            caughtUp++;
+        }
+        //too far behind, skip the backlog instead of spiralling
+        if (now - nextTickNanos >= 0) nextTickNanos = now + stepNanos;
+    }
+
+    //time until the next tick is due, for sleeping in between
+    public long nanosUntilTick(long now) {
+        return nextTickNanos < 0 ? 0 : Math.max(0, nextTickNanos - now);
+    }
+
+    private void tick(long now) {
+        dropSilentClients(now);
+        if (clientList.size == 0) return;
+
+        for (int i = 0; i < clientList.size; i++) {
+            clientList.get(i).applyNextInput();
+        }
+
+        long start = System.nanoTime();
+        world.tick(step);
+        long simulated = System.nanoTime();
+        simulationNanos += simulated - start;
+        maxSimulationNanos = Math.max(maxSimulationNanos, simulated - start);
+        ticks++;
+
+        if (world.getTick() % snapshotInterval == 0) {
+            replicate();
+            long replicated = System.nanoTime() - simulated;
+            replicationNanos += replicated;
+            maxReplicationNanos = Math.max(maxReplicationNanos, replicated);
+        }
+    }
+
+    private void replicate() {
+        world.saveState(current);
+        int needed = 16 + SnapshotCodec.maxSize(current);
+        if (snapshotBuffer.capacity() < needed) snapshotBuffer = ByteBuffer.allocate(needed);
+
+        for (int i = 0; i < clientList.size; i++) {
+            Client client = clientList.get(i);
+            Snapshot snapshot = client.nextSnapshot();
+            float x = world.getPlayerX(client.slot), y = world.getPlayerY(client.slot);
+            snapshot.setAround(current, x, y, viewRadius);
+            Snapshot base = client.find(client.ackedTick);
+            if (base == snapshot) base = null;
+
+            //a client that had to be cut down before starts from a few more than it got then
+            float radius = viewRadius;
+            boolean cut = snapshot.getEnemyCount() + snapshot.getProjectileCount() > client.entityLimit;
+            if (cut) {
+                radius = snapshot.nearestRadius(x, y, client.entityLimit);
+                snapshot.setAround(current, x, y, radius);
+            }
+            write(client, snapshot, base);
+
+            //too big for one datagram: only the nearest enemies and bullets, fewer by how much it is over;
+            //they stay in the history as sent, so the next deltas, cheaper per enemy, bring in the rest
+            for (int attempt = 0; attempt < MAX_CUTS && snapshotBuffer.position() > NetProtocol.MAX_SNAPSHOT_DATAGRAM; attempt++) {
+                cut = true;
+                int entities = snapshot.getEnemyCount() + snapshot.getProjectileCount();
+                int keep = (int) ((long) entities * NetProtocol.MAX_SNAPSHOT_DATAGRAM / snapshotBuffer.position());
+                radius = Math.min(radius, snapshot.nearestRadius(x, y, keep));
+                snapshot.setAround(current, x, y, radius);
+                write(client, snapshot, base);
+            }
+            int sent = snapshot.getEnemyCount() + snapshot.getProjectileCount();
+            client.entityLimit = cut ? sent + sent / 4 + 8 : Integer.MAX_VALUE;
+            if (cut) cutSnapshots++;
+            if (snapshotBuffer.position() > NetProtocol.MAX_SNAPSHOT_DATAGRAM) {
+                oversizedSnapshots++;
+                continue;
+            }
+
+            if (base == null) fullSnapshotsSent++;
+            largestSnapshot = Math.max(largestSnapshot, snapshotBuffer.position());
+            snapshotBuffer.flip();
+            client.bytesSent += send(snapshotBuffer, client.address);
+            snapshotsSent++;
+        }
+    }
+
+    private void write(Client client, Snapshot snapshot, Snapshot base) {
+        snapshotBuffer.clear();
+        snapshotBuffer.putInt(NetProtocol.PROTOCOL_ID);
+        snapshotBuffer.put(NetProtocol.SNAPSHOT);
+        snapshotBuffer.put((byte) client.slot);
+        snapshotBuffer.putInt(client.appliedSequence);
+        if (base != null) {
+            SnapshotCodec.writeDelta(base, snapshot, snapshotBuffer);
+        } else {
+            SnapshotCodec.writeFull(snapshot, snapshotBuffer);
+        }
+    }
+
+    private void receive(long now) {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress from;
+            try {
+                from = channel.receive(receiveBuffer);
+            } catch (ClosedChannelException e) {
+                throw new GdxRuntimeException("Server socket closed", e);
+            } catch (IOException e) {
+                //a port unreachable from a client that went away and the like, try again next update
+                receiveErrors++;
+                Gdx.app.error("Server", "Couldn't receive: " + e.getMessage());
+                break;
+            }
+            if (from == null) break;
+
+            receiveBuffer.flip();
+            if (receiveBuffer.remaining() < 5 || receiveBuffer.getInt() != NetProtocol.PROTOCOL_ID) continue;
+            byte type = receiveBuffer.get();
+            Client client = clients.get(from);
+            if (client != null) {
+                client.lastHeard = now;
+                client.bytesReceived += receiveBuffer.limit();
+            }
+
+            if (type == NetProtocol.JOIN) {
+                join(from, now, client);
+            } else if (type == NetProtocol.INPUT && client != null) {
+                client.receiveInputs(receiveBuffer);
+            } else if (type == NetProtocol.LEAVE && client != null) {
+                disconnect(client, "left");
+            }
+        }
+    }
+
+    private void join(SocketAddress from, long now, Client client) {
+        if (client == null) {
+            //around the middle of the arena, a little apart
+            int slot = world.addPlayer(World.MAP_TEXTURE_SIZE / 2 + clientList.size * 40f - 140f,
+                World.MAP_TEXTURE_SIZE / 2);
+            if (slot < 0) {
+                sendSmall(NetProtocol.SERVER_FULL, 0, from);
+                return;
+            }
+            client = new Client(from, slot, now);
+            clients.put(from, client);
+            clientList.add(client);
+            Gdx.app.log("Server", from + " joined as player " + slot + ", " + clientList.size + " connected");
+        }
+        //also answers repeated joins whose welcome got lost
+        sendSmall(NetProtocol.WELCOME, client.slot, from);
+    }
+
+    private void dropSilentClients(long now) {
+        for (int i = clientList.size - 1; i >= 0; i--) {
+            Client client = clientList.get(i);
+            if ((now - client.lastHeard) / 1e9f > CLIENT_TIMEOUT) disconnect(client, "timed out");
+        }
+    }
+
+    private void disconnect(Client client, String reason) {
+        world.removePlayer(client.slot);
+        clients.remove(client.address);
+        clientList.removeValue(client, true);
+        Gdx.app.log("Server", client.address + " " + reason + ", " + clientList.size + " connected");
+    }
+
+    private void sendSmall(byte type, int slot, SocketAddress to) {
+        smallBuffer.clear();
+        smallBuffer.putInt(NetProtocol.PROTOCOL_ID);
+        smallBuffer.put(type);
+        smallBuffer.put((byte) slot);
+        smallBuffer.put((byte) snapshotInterval);
+        smallBuffer.flip();
+        send(smallBuffer, to);
+    }
+
+    private int send(ByteBuffer buffer, SocketAddress to) {
+        try {
+            return channel.send(buffer, to);
+        } catch (IOException e) {
+            //the client may be gone, it times out on its own
+            return 0;
+        }
+    }
+
+    public void logStats(float seconds) {
+        Gdx.app.log("Server", String.format("%d clients, %d enemies (near %d, mid %d, far %d), %d bullets, tick %d",
+            clientList.size, world.getEnemies().size, interest.getCount(InterestManager.NEAR),
+            interest.getCount(InterestManager.MID), interest.getCount(InterestManager.FAR),
+            world.getProjectiles().size(), world.getTick()));
+        Gdx.app.log("Server", String.format("simulation avg %.1f us max %.1f us, replication avg %.1f us max %.1f us per tick",
+            getAverageSimulationMicros(), maxSimulationNanos / 1e3, getAverageReplicationMicros(), maxReplicationNanos / 1e3));
+        Gdx.app.log("Server", String.format(
+            "snapshots sent %d, full %d, cut to fit %d, oversized %d, largest %d B, inputs skipped %d, receive errors %d",
+            snapshotsSent, fullSnapshotsSent, cutSnapshots, oversizedSnapshots, largestSnapshot, inputsSkipped, receiveErrors));
+        for (int i = 0; i < clientList.size; i++) {
+            Client client = clientList.get(i);
+            Gdx.app.log("Server", String.format("  player %d %s: down %.1f KB/s, up %.1f KB/s",
+                client.slot, client.address, client.bytesSent / 1024f / seconds, client.bytesReceived / 1024f / seconds));
+        }
+    }
+
+    //how far from its player a client gets enemies and bullets, as far as its window shows
+    public ArenaServer setViewRadius(float radius) {
+        this.viewRadius = radius;
+        return this;
+    }
+
+    public void resetStats() {
+        ticks = simulationNanos = maxSimulationNanos = replicationNanos = maxReplicationNanos = 0;
+        snapshotsSent = fullSnapshotsSent = cutSnapshots = oversizedSnapshots = inputsSkipped = receiveErrors = 0;
+        largestSnapshot = 0;
+        for (int i = 0; i < clientList.size; i++) {
+            clientList.get(i).bytesSent = 0;
+            clientList.get(i).bytesReceived = 0;
+        }
+    }
+
+    public double getAverageSimulationMicros() { return ticks == 0 ? 0 : simulationNanos / 1e3 / ticks; }
+    //replication cost spread over all ticks, it only runs on every snapshotInterval-th
+    public double getAverageReplicationMicros() { return ticks == 0 ? 0 : replicationNanos / 1e3 / ticks; }
+    public long getMaxSimulationNanos() { return maxSimulationNanos; }
+    public long getMaxReplicationNanos() { return maxReplicationNanos; }
+    public long getFullSnapshotsSent() { return fullSnapshotsSent; }
+    //snapshots that only kept the nearest enemies and bullets to fit a datagram
+    public long getCutSnapshots() { return cutSnapshots; }
+    public long getOversizedSnapshots() { return oversizedSnapshots; }
+    //bytes of the biggest snapshot datagram sent
+    public int getLargestSnapshot() { return largestSnapshot; }
+    public long getInputsSkipped() { return inputsSkipped; }
+    public int getClientCount() { return clientList.size; }
+    public float getViewRadius() { return viewRadius; }
+    public World getWorld() { return world; }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) channel.getLocalAddress();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Server socket is closed", e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        world.dispose();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close the server socket", e);
+        }
+    }
+
+    private class Client {
+        final SocketAddress address;
+        final int slot;
+        long lastHeard;
+        long ackedTick = -1;
+        long bytesSent, bytesReceived;
+        //enemies and bullets the next snapshot may carry, set while snapshots have to be cut to fit
+        int entityLimit = Integer.MAX_VALUE;
+
+        //what this client was sent, as delta baselines
+        final Snapshot[] history = new Snapshot[HISTORY];
+        int nextHistory = 0;
+
+        //inputs by sequence number, present until applied
+        final byte[] inputs = new byte[INPUT_BUFFER];
+        final boolean[] received = new boolean[INPUT_BUFFER];
+        int appliedSequence = 0;
+        int newestSequence = 0;
+
+        Client(SocketAddress address, int slot, long now) {
+            this.address = address;
+            this.slot = slot;
+            this.lastHeard = now;
+            for (int i = 0; i < HISTORY; i++) history[i] = new Snapshot();
+        }
+
+        Snapshot nextSnapshot() {
+            Snapshot snapshot = history[nextHistory];
+            nextHistory = (nextHistory + 1) % HISTORY;
+            return snapshot;
+        }
+
+        Snapshot find(long tick) {
+            if (tick < 0) return null;
+            for (int i = 0; i < HISTORY; i++) {
+                if (history[i].getTick() == tick) return history[i];
+            }
+            return null;
+        }
+
+        void receiveInputs(ByteBuffer in) {
+            if (in.remaining() < 13) return;
+            ackedTick = Math.max(ackedTick, in.getLong());
+            int first = in.getInt();
+            int count = in.get() & 0xff;
+            for (int i = 0; i < count && in.hasRemaining(); i++) {
+                int sequence = first + i;
+                byte input = in.get();
+                //already applied, or too far ahead to hold
+                if (sequence <= appliedSequence || sequence > appliedSequence + INPUT_BUFFER) continue;
+                inputs[sequence % INPUT_BUFFER] = input;
+                received[sequence % INPUT_BUFFER] = true;
+                newestSequence = Math.max(newestSequence, sequence);
+            }
+        }
+
+        //the next input in sequence; without one the player stands still this tick
+        void applyNextInput() {
+            if (newestSequence - appliedSequence > MAX_INPUT_BACKLOG) {
+                int skipTo = newestSequence - MAX_INPUT_BACKLOG / 2;
+                for (int s = appliedSequence + 1; s <= skipTo; s++) received[s % INPUT_BUFFER] = false;
+                inputsSkipped += skipTo - appliedSequence;
+                appliedSequence = skipTo;
+            }
+
+            int next = appliedSequence + 1;
+            if (received[next % INPUT_BUFFER]) {
+                received[next % INPUT_BUFFER] = false;
+                world.setPlayerInput(slot, inputs[next % INPUT_BUFFER]);
+                appliedSequence = next;
+            } else {
+                world.setPlayerInput(slot, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.arenaShooter.server;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.locks.LockSupport;
+
+/** Runs an {@link ArenaServer} until the process is stopped, logging its cost every few seconds. */
+public class DedicatedServer extends ApplicationAdapter {
+    private static final float STATS_INTERVAL = 10f;
+
+    private final int port;
+    private final long seed;
+    private final int snapshotInterval;
+
+    public DedicatedServer(int port, long seed, int snapshotInterval) {
+        this.port = port;
+        this.seed = seed;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public void create() {
+        ArenaServer server = new ArenaServer(new InetSocketAddress(port), seed, snapshotInterval);
+        Gdx.app.log("Server", "listening on " + server.getAddress() + ", seed " + seed
+            + ", snapshot every " + snapshotInterval + " tick(s)");
+
+        long statsStart = System.nanoTime();
+        while (true) {
+            long now = System.nanoTime();
+            server.update(now);
+            if ((now - statsStart) / 1e9f >= STATS_INTERVAL) {
+                if (server.getClientCount() > 0) server.logStats((now - statsStart) / 1e9f);
+                server.resetStats();
+                statsStart = now;
+            }
+            //wake up a little more often than ticks so inputs are picked up early
+            LockSupport.parkNanos(Math.min(server.nanosUntilTick(System.nanoTime()), 1_000_000L));
+        }
+    }
+}
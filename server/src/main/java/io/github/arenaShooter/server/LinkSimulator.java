@@ -0,0 +1,152 @@
+package io.github.arenaShooter.server;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.PriorityQueue;
+
+/**
+ * UDP relay between clients and a server that delays, reorders and drops datagrams, to try the netcode over
+ * loopback under a bad connection. Clients talk to {@link #getAddress()}; every client gets its own socket
+ * towards the server, so the server still sees one address per client.
+ */
+public class LinkSimulator implements Disposable {
+    private final InetSocketAddress server;
+    private final long latencyNanos; //one way
+    private final long jitterNanos;
+    private final float loss;
+    private final RandomXS128 random;
+
+    private final DatagramChannel front;
+    private final ObjectMap<SocketAddress, DatagramChannel> towardsServer = new ObjectMap<>();
+    private final ObjectMap<DatagramChannel, SocketAddress> clientOf = new ObjectMap<>();
+    private final Array<DatagramChannel> backs = new Array<>();
+    private final PriorityQueue<Datagram> inFlight = new PriorityQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(65536);
+
+    private long delivered, dropped;
+
+    /**
+     * @param roundTripMillis added to every round trip, half each way
+     * @param jitterMillis up to this much more, per datagram, so datagrams can overtake each other
+     * @param loss share of datagrams dropped in each direction, 0..1
+     */
+    public LinkSimulator(InetSocketAddress server, int roundTripMillis, int jitterMillis, float loss, long seed) {
+        this.server = server;
+        this.latencyNanos = roundTripMillis * 1_000_000L / 2;
+        this.jitterNanos = jitterMillis * 1_000_000L;
+        this.loss = loss;
+        this.random = new RandomXS128(seed);
+        try {
+            front = DatagramChannel.open();
+            front.configureBlocking(false);
+            front.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't open the relay socket", e);
+        }
+    }
+
+    //moves datagrams both ways and delivers the ones that are due at the given System.nanoTime()
+    public void update(long now) {
+        try {
+            SocketAddress from;
+            while ((from = receive(front)) != null) {
+                schedule(now, towardsServer(from), server);
+            }
+            for (int i = 0; i < backs.size; i++) {
+                DatagramChannel back = backs.get(i);
+                while (receive(back) != null) {
+                    schedule(now, front, clientOf.get(back));
+                }
+            }
+
+            while (!inFlight.isEmpty() && now - inFlight.peek().due >= 0) {
+                Datagram datagram = inFlight.poll();
+                datagram.channel.send(ByteBuffer.wrap(datagram.data), datagram.to);
+                delivered++;
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Relay failed", e);
+        }
+    }
+
+    private SocketAddress receive(DatagramChannel channel) throws IOException {
+        buffer.clear();
+        SocketAddress from = channel.receive(buffer);
+        buffer.flip();
+        return from;
+    }
+
+    private void schedule(long now, DatagramChannel via, SocketAddress to) {
+        if (random.nextFloat() < loss) {
+            dropped++;
+            return;
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        long jitter = jitterNanos > 0 ? (long) (random.nextFloat() * jitterNanos) : 0;
+        inFlight.add(new Datagram(now + latencyNanos + jitter, via, to, data));
+    }
+
+    private DatagramChannel towardsServer(SocketAddress client) throws IOException {
+        DatagramChannel back = towardsServer.get(client);
+        if (back == null) {
+            back = DatagramChannel.open();
+            back.configureBlocking(false);
+            back.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            towardsServer.put(client, back);
+            clientOf.put(back, client);
+            backs.add(back);
+        }
+        return back;
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) front.getLocalAddress();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Relay socket is closed", e);
+        }
+    }
+
+    public long getDelivered() { return delivered; }
+    public long getDropped() { return dropped; }
+
+    @Override
+    public void dispose() {
+        try {
+            front.close();
+            for (int i = 0; i < backs.size; i++) backs.get(i).close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close the relay", e);
+        }
+    }
+
+    private static final class Datagram implements Comparable<Datagram> {
+        final long due;
+        final DatagramChannel channel;
+        final SocketAddress to;
+        final byte[] data;
+
+        Datagram(long due, DatagramChannel channel, SocketAddress to, byte[] data) {
+            this.due = due;
+            this.channel = channel;
+            this.to = to;
+            this.data = data;
+        }
+
+        @Override
+        public int compareTo(Datagram other) {
+            return Long.compare(due, other.due);
+        }
+    }
+}
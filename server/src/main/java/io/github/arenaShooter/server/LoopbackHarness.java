@@ -0,0 +1,110 @@
+package io.github.arenaShooter.server;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import io.github.arenaShooter.NetClient;
+import io.github.arenaShooter.PlayerInput;
+import io.github.arenaShooter.SimulationClock;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A server, a {@link LinkSimulator} and a few bot clients in one process, all over loopback UDP. The bots run
+ * the real {@link NetClient}, with prediction, and walk around so the server has inputs to apply. Prints the
+ * server's tick cost and each client's bandwidth and prediction corrections.
+ */
+public class LoopbackHarness extends ApplicationAdapter {
+    private static final float STATS_INTERVAL = 5f;
+
+    private final int clientCount;
+    private final float seconds;
+    private final int roundTripMillis;
+    private final int jitterMillis;
+    private final float loss;
+    private final int snapshotInterval;
+    private final long seed;
+
+    public LoopbackHarness(int clients, float seconds, int roundTripMillis, int jitterMillis, float loss,
+                           int snapshotInterval, long seed) {
+        this.clientCount = clients;
+        this.seconds = seconds;
+        this.roundTripMillis = roundTripMillis;
+        this.jitterMillis = jitterMillis;
+        this.loss = loss;
+        this.snapshotInterval = snapshotInterval;
+        this.seed = seed;
+    }
+
+    @Override
+    public void create() {
+        ArenaServer server = new ArenaServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            seed, snapshotInterval);
+        LinkSimulator link = new LinkSimulator(server.getAddress(), roundTripMillis, jitterMillis, loss, seed);
+        Gdx.app.log("Loopback", clientCount + " clients, " + roundTripMillis + " ms round trip, +" + jitterMillis
+            + " ms jitter, " + Math.round(loss * 100) + "% loss, snapshot every " + snapshotInterval + " tick(s)");
+
+        NetClient[] clients = new NetClient[clientCount];
+        SimulationClock[] clocks = new SimulationClock[clientCount];
+        long[] ticks = new long[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clients[i] = new NetClient(link.getAddress(), SimulationClock.DEFAULT_STEP);
+            clocks[i] = new SimulationClock();
+        }
+
+        long start = System.nanoTime();
+        long last = start;
+        long statsStart = start;
+        while ((last - start) / 1e9f < seconds) {
+            long now = System.nanoTime();
+            float frameTime = (now - last) / 1e9f;
+            last = now;
+
+            server.update(now);
+            link.update(now);
+            for (int i = 0; i < clientCount; i++) {
+                int steps = clocks[i].advance(frameTime);
+                for (int s = 0; s < steps; s++) {
+                    //each bot on its own part of the walk
+                    clients[i].tick(botInput(ticks[i]++ + i * 120L));
+                }
+                clients[i].update(frameTime);
+            }
+
+            if ((now - statsStart) / 1e9f >= STATS_INTERVAL) {
+                server.logStats((now - statsStart) / 1e9f);
+                server.resetStats();
+                statsStart = now;
+            }
+            LockSupport.parkNanos(500_000L);
+        }
+
+        float elapsed = (System.nanoTime() - start) / 1e9f;
+        Gdx.app.log("Loopback", "link delivered " + link.getDelivered() + " datagrams, dropped " + link.getDropped());
+        for (int i = 0; i < clientCount; i++) {
+            NetClient client = clients[i];
+            Gdx.app.log("Loopback", String.format(
+                "client %d (player %d): down %.1f KB/s, up %.1f KB/s, snapshots %d (%d unusable), "
+                    + "corrections %d, input round trip %.0f ms",
+                i, client.getSlot(), client.getBytesReceived() / 1024f / elapsed, client.getBytesSent() / 1024f / elapsed,
+                client.getSnapshotsReceived(), client.getSnapshotsDropped() + client.getSnapshotsCorrupt(),
+                client.getCorrections(), client.getRoundTrip() * 1000f));
+            client.dispose();
+        }
+        link.dispose();
+        server.dispose();
+        Gdx.app.exit();
+    }
+
+    //walks a square with pauses, like the headless bot
+    private static int botInput(long tick) {
+        switch ((int) ((tick / 60) % 8)) {
+            case 1: return PlayerInput.UP;
+            case 3: return PlayerInput.RIGHT;
+            case 5: return PlayerInput.DOWN;
+            case 7: return PlayerInput.LEFT;
+            default: return 0;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.arenaShooter.server;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.MathUtils;
+import io.github.arenaShooter.NetProtocol;
+
+/**
+ * Starts a dedicated match server, or with --loopback a server, a lossy link and bot clients in one process.
+ */
+public class ServerLauncher {
+    public static void main(String[] args) {
+        int port = NetProtocol.DEFAULT_PORT;
+        long seed = MathUtils.random.nextLong();
+        int snapshotInterval = 2;
+        boolean loopback = false;
+        int clients = 4;
+        float seconds = 30f;
+        int latency = 100;
+        int jitter = 20;
+        float loss = 0.05f;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--loopback":
+                    loopback = true;
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--snapshotInterval":
+                    snapshotInterval = Integer.parseInt(args[++i]);
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Float.parseFloat(args[++i]);
+                    break;
+                case "--latency":
+                    latency = Integer.parseInt(args[++i]);
+                    break;
+                case "--jitter":
+                    jitter = Integer.parseInt(args[++i]);
+                    break;
+                case "--loss":
+                    loss = Float.parseFloat(args[++i]) / 100f;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        ApplicationListener listener = loopback
+            ? new LoopbackHarness(clients, seconds, latency, jitter, loss, snapshotInterval, seed)
+            : new DedicatedServer(port, seed, snapshotInterval);
+        createApplication(listener);
+    }
+
+    private static HeadlessApplication createApplication(ApplicationListener listener) {
+        return new HeadlessApplication(listener, getDefaultConfiguration());
+    }
+
+    private static HeadlessApplicationConfiguration getDefaultConfiguration() {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        //the server loop runs in create(), render() is never needed
+        configuration.updatesPerSecond = -1;
+        return configuration;
+    }
+}
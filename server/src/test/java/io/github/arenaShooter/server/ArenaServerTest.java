@@ -0,0 +1,93 @@
+package io.github.arenaShooter.server;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.RandomXS128;
+import io.github.arenaShooter.NetClient;
+import io.github.arenaShooter.NetProtocol;
+import io.github.arenaShooter.SimulationClock;
+import io.github.arenaShooter.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A client joining over loopback UDP while a wave far bigger than one datagram can describe is on screen
+ * still gets its first snapshot at once, with the nearest enemies, and deltas go on against the cut down
+ * snapshots; no snapshot datagram is ever bigger than {@link NetProtocol#MAX_SNAPSHOT_DATAGRAM}.
+ */
+class ArenaServerTest {
+    private static final int ENEMIES = 3000;
+    private static final int SNAPSHOTS = 40;
+    private static final long TIMEOUT_NANOS = 20_000_000_000L;
+
+    private Application app;
+
+    @BeforeEach
+    void stubApplication() {
+        //the server logs joins, nothing else of the application is used
+        app = Gdx.app;
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(),
+            new Class<?>[] {Application.class}, (self, method, args) -> null);
+    }
+
+    @AfterEach
+    void restoreApplication() {
+        Gdx.app = app;
+    }
+
+    @Test
+    void largeWaveReachesAJoiningClient() {
+        ArenaServer server = new ArenaServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 9, 2);
+        World world = server.getWorld();
+        RandomXS128 random = new RandomXS128(9);
+        for (int i = 0; i < ENEMIES; i++) {
+            world.spawnEnemy(World.AREA_OFFSET_X + random.nextFloat() * (World.PLAYABLE_AREA_SIZE - 64),
+                World.AREA_OFFSET_Y + random.nextFloat() * (World.PLAYABLE_AREA_SIZE - 64));
+        }
+        NetClient client = new NetClient(server.getAddress(), SimulationClock.DEFAULT_STEP);
+        SimulationClock clock = new SimulationClock();
+
+        int firstEnemies = -1;
+        long start = System.nanoTime(), last = start, firstSnapshot = -1;
+        while (client.getSnapshotsReceived() < SNAPSHOTS && System.nanoTime() - start < TIMEOUT_NANOS) {
+            long now = System.nanoTime();
+            float frameTime = (now - last) / 1e9f;
+            last = now;
+            server.update(now);
+            int steps = clock.advance(frameTime);
+            for (int s = 0; s < steps; s++) client.tick(0);
+            if (client.update(frameTime) && firstSnapshot < 0) {
+                firstSnapshot = now - start;
+                firstEnemies = client.getView().getEnemyCount();
+            }
+            LockSupport.parkNanos(500_000L);
+        }
+
+        assertTrue(client.hasSnapshot(), "no snapshot arrived");
+        assertEquals(SNAPSHOTS, client.getSnapshotsReceived());
+        assertEquals(0, client.getSnapshotsCorrupt());
+        assertTrue(world.getEnemies().size >= ENEMIES);
+        assertTrue(server.getCutSnapshots() > 0, "the wave fit a datagram, make it bigger");
+        assertEquals(0, server.getOversizedSnapshots());
+        assertTrue(server.getLargestSnapshot() <= NetProtocol.MAX_SNAPSHOT_DATAGRAM,
+            "sent " + server.getLargestSnapshot() + " bytes");
+        //the first snapshot comes with the first ticks and shows the nearest enemies
+        assertTrue(firstSnapshot < 1_000_000_000L, "first snapshot after " + firstSnapshot / 1_000_000 + " ms");
+        assertTrue(firstEnemies > 0, "the first snapshot had no enemies");
+        assertTrue(client.getView().getEnemyCount() > 0);
+        //cut snapshots are baselines like any other, deltas against them keep going
+        assertTrue(server.getFullSnapshotsSent() < SNAPSHOTS / 4, server.getFullSnapshotsSent() + " full snapshots");
+
+        client.dispose();
+        server.dispose();
+    }
+}